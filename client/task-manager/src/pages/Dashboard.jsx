@@ -14,6 +14,7 @@ import { useAuth } from '../contexts/AuthContext';
 
 import projectService from '../services/projectService';
 import taskService from '../services/taskService';
+import statsService from '../services/statsService';
 import aiAssistantService from '../services/aiAssistantService';
 
 const { Title, Text } = Typography;
@@ -52,16 +53,22 @@ const Dashboard = () => {
         
         console.log('Dashboard: Đang lấy dữ liệu...');
         
-        // Sử dụng Promise.all để gọi các API đồng thời
-        const [projectsData, tasksData] = await Promise.all([
+        // Số liệu tổng hợp lấy từ /stats/dashboard; chỉ tải danh sách ngắn các task chưa hoàn thành
+        // có hạn trong 7 ngày tới (kể cả đã quá hạn) cho các mục "sắp đến hạn" và "đề xuất"
+        const nextWeek = new Date();
+        nextWeek.setDate(nextWeek.getDate() + 7);
+        const [projectsData, statsData, focusPage] = await Promise.all([
           projectService.getAllProjects(),
-          taskService.getAllTasks()
+          statsService.getDashboardStats(),
+          taskService.searchTasks({
+            status: ['NOT_STARTED', 'IN_PROGRESS', 'ON_HOLD'],
+            dueTo: nextWeek.toISOString().slice(0, 19),
+            sortBy: 'dueDate',
+            direction: 'asc',
+            size: 50
+          })
         ]);
         
-        console.log('Dashboard: Dữ liệu projects:', projectsData);
-        console.log('Dashboard: Dữ liệu tasks:', tasksData);
-        
-        // Chi tiết hơn về cấu trúc
         if (!Array.isArray(projectsData)) {
           console.error('Dashboard: projectsData không phải là mảng!', { 
             type: typeof projectsData,
@@ -69,53 +76,43 @@ const Dashboard = () => {
           });
         }
         
-        if (!Array.isArray(tasksData)) {
-          console.error('Dashboard: tasksData không phải là mảng!', { 
-            type: typeof tasksData,
-            value: tasksData
-          });
+        if (!statsData) {
+          throw new Error('Không thể tải số liệu Dashboard');
         }
         
         // Đảm bảo dữ liệu là mảng
         const projects = Array.isArray(projectsData) ? projectsData : [];
-        const tasks = Array.isArray(tasksData) ? tasksData : [];
-        
-        // Tính toán số liệu thống kê
-        const totalProjects = projects.length;
-        const totalTasks = tasks.length;
-        const completedTasks = tasks.filter(task => task.status === 'COMPLETED').length;
-        
-        // Đếm công việc sắp đến hạn hoặc trễ hạn
-        const upcomingDeadlines = tasks.filter(
-          task => (task.dueStatus === 'DUE_SOON' || task.dueStatus === 'OVERDUE') && task.status !== 'COMPLETED'
-        ).length;
+        const tasks = Array.isArray(focusPage.content) ? focusPage.content : [];
         
         setStats({
-          totalProjects,
-          totalTasks,
-          completedTasks,
-          upcomingDeadlines
+          totalProjects: statsData.totalProjects,
+          totalTasks: statsData.totalTasks,
+          completedTasks: statsData.byStatus?.COMPLETED || 0,
+          upcomingDeadlines: statsData.overdue + statsData.dueToday
         });
         
         // Xử lý dữ liệu biểu đồ (số lượng công việc theo trạng thái)
-        const statusGroups = {};
-        tasks.forEach(task => {
-          if (!statusGroups[task.status]) {
-            statusGroups[task.status] = 0;
+        setTasksByStatus(Object.entries(statsData.byStatus || {})
+          .filter(([, count]) => count > 0)
+          .map(([status, count]) => ({
+            status: getStatusText(status),
+            count
+          })));
+        
+        // Các dự án gần đây (5 dự án mới nhất) kèm số công việc từ số liệu tổng hợp
+        const taskCountByProject = {};
+        (statsData.byProject || []).forEach(item => {
+          if (item.projectId !== null) {
+            taskCountByProject[item.projectId] = item.count;
           }
-          statusGroups[task.status]++;
         });
-        
-        setTasksByStatus(Object.entries(statusGroups).map(([status, count]) => ({
-          status: getStatusText(status),
-          count
-        })));
-        
-        // Các dự án gần đây (5 dự án mới nhất)
         const sortedProjects = [...projects].sort(
           (a, b) => new Date(b.createdAt) - new Date(a.createdAt)
         );
-        setRecentProjects(sortedProjects.slice(0, 5));
+        setRecentProjects(sortedProjects.slice(0, 5).map(project => ({
+          ...project,
+          taskCount: taskCountByProject[project.id] || 0
+        })));
         
         // Công việc sắp đến hạn
         const upcomingTasksList = tasks
@@ -425,7 +422,7 @@ const Dashboard = () => {
                     <div style={{ flex: 1 }}>
                       <Text strong>{item.name}</Text>
                       <div>
-                        <Text type="secondary">{item.tasks?.length || 0} công việc</Text>
+                        <Text type="secondary">{item.taskCount || 0} công việc</Text>
                       </div>
                     </div>
                     <Button 
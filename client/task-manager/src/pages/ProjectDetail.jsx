@@ -43,12 +43,16 @@ const { Title, Text, Paragraph } = Typography;
 const { TabPane } = Tabs;
 const { Option } = Select;
 
+const TASK_PAGE_SIZE = 20;
+
 const ProjectDetail = () => {
   const { id } = useParams();
   const navigate = useNavigate();
   
   const [project, setProject] = useState(null);
   const [tasks, setTasks] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [tags, setTags] = useState([]);
   const [loading, setLoading] = useState(true);
   const [submitting, setSubmitting] = useState(false);
@@ -71,8 +75,9 @@ const ProjectDetail = () => {
       const projectData = await projectService.getProjectById(id);
       setProject(projectData);
       
-      const tasksData = await taskService.getTasksByProjectId(id);
-      setTasks(tasksData);
+      const page = await projectService.getProjectTasks(id, null, TASK_PAGE_SIZE);
+      setTasks(page.content);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
     } catch (error) {
       console.error("Error fetching project data:", error);
       message.error("Không thể tải thông tin dự án");
@@ -81,6 +86,17 @@ const ProjectDetail = () => {
     }
   };
 
+  const loadMoreTasks = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await projectService.getProjectTasks(id, nextCursor, TASK_PAGE_SIZE);
+      setTasks(prev => [...prev, ...page.content]);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const fetchTags = async () => {
     try {
       const tagsData = await tagService.getAllTags();
@@ -115,22 +131,20 @@ const ProjectDetail = () => {
     );
   }
 
-  // Tính toán thống kê
-  const totalTasks = tasks.length;
-  const completedTasks = tasks.filter(task => task.status === 'COMPLETED').length;
+  // Thống kê lấy từ server (project_stats), không phụ thuộc số công việc đã tải trên trang
+  const stats = project.stats || {};
+  const totalTasks = stats.taskCount || 0;
+  const completedTasks = stats.completedCount || 0;
   const progressPercent = totalTasks > 0 ? Math.round((completedTasks / totalTasks) * 100) : 0;
   
   const tasksByStatus = {
-    'NOT_STARTED': tasks.filter(task => task.status === 'NOT_STARTED').length,
-    'IN_PROGRESS': tasks.filter(task => task.status === 'IN_PROGRESS').length,
+    'NOT_STARTED': stats.notStartedCount || 0,
+    'IN_PROGRESS': stats.inProgressCount || 0,
     'COMPLETED': completedTasks,
-    'ON_HOLD': tasks.filter(task => task.status === 'ON_HOLD').length
+    'ON_HOLD': stats.onHoldCount || 0
   };
   
-  const upcomingDeadlines = tasks.filter(task => {
-    if (task.status === 'COMPLETED') return false;
-    return task.dueStatus === 'DUE_SOON' || task.dueStatus === 'OVERDUE';
-  }).length;
+  const upcomingDeadlines = stats.overdueCount || 0;
 
   // Xử lý chỉnh sửa dự án
   const showEditProjectModal = () => {
@@ -177,7 +191,16 @@ const ProjectDetail = () => {
     setTaskModalVisible(true);
   };
 
-  const showEditTaskModal = (task) => {
+  const showEditTaskModal = async (listTask) => {
+    // Danh sách không kèm mô tả, lấy bản chi tiết trước khi điền form
+    let task;
+    try {
+      task = await taskService.getTaskById(listTask.id);
+    } catch (error) {
+      console.error("Error fetching task details:", error);
+      message.error("Không thể tải thông tin công việc");
+      return;
+    }
     setEditingTask(task);
     taskForm.setFieldsValue({
       title: task.title,
@@ -449,7 +472,7 @@ const ProjectDetail = () => {
           </Col>
           <Col span={6}>
             <Statistic 
-              title="Sắp đến hạn" 
+              title="Quá hạn" 
               value={upcomingDeadlines} 
               prefix={<ClockCircleOutlined style={{ color: upcomingDeadlines > 0 ? '#faad14' : undefined }} />} 
             />
@@ -474,12 +497,15 @@ const ProjectDetail = () => {
             columns={taskColumns} 
             dataSource={tasks}
             rowKey="id"
-            pagination={{ 
-              defaultPageSize: 10, 
-              showSizeChanger: true,
-              pageSizeOptions: ['10', '20', '50'] 
-            }}
+            pagination={false}
           />
+          {nextCursor && (
+            <div style={{ marginTop: 16, textAlign: 'center' }}>
+              <Button onClick={loadMoreTasks} loading={loadingMore}>
+                Tải thêm
+              </Button>
+            </div>
+          )}
         </TabPane>
         
         <TabPane tab="Thống kê" key="statistics">
@@ -23,7 +23,6 @@ import {
 } from '@ant-design/icons';
 import { useNavigate } from 'react-router-dom';
 import projectService from '../services/projectService';
-import taskService from '../services/taskService';
 
 const { Title } = Typography;
 const { confirm } = Modal;
@@ -43,30 +42,19 @@ const ProjectList = () => {
       setLoading(true);
       const data = await projectService.getAllProjects();
       
-      // Tính toán số công việc và tiến độ cho mỗi dự án
-      const projectsWithStats = await Promise.all(data.map(async (project) => {
-        try {
-          const tasks = await taskService.getTasksByProjectId(project.id);
-          const totalTasks = tasks.length;
-          const completedTasks = tasks.filter(task => task.status === 'COMPLETED').length;
-          const progress = totalTasks > 0 ? Math.round((completedTasks / totalTasks) * 100) : 0;
-          
-          return {
-            ...project,
-            taskCount: totalTasks,
-            completedTaskCount: completedTasks,
-            progress
-          };
-        } catch (error) {
-          console.error(`Error fetching tasks for project ${project.id}:`, error);
-          return {
-            ...project,
-            taskCount: 0,
-            completedTaskCount: 0,
-            progress: 0
-          };
-        }
-      }));
+      // Số công việc và tiến độ lấy từ số liệu tổng hợp của dự án (stats), không cần tải task
+      const projectsWithStats = data.map(project => {
+        const totalTasks = project.stats?.taskCount || 0;
+        const completedTasks = project.stats?.completedCount || 0;
+        const progress = totalTasks > 0 ? Math.round((completedTasks / totalTasks) * 100) : 0;
+        
+        return {
+          ...project,
+          taskCount: totalTasks,
+          completedTaskCount: completedTasks,
+          progress
+        };
+      });
       
       setProjects(projectsWithStats);
     } catch (error) {
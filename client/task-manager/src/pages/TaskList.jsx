@@ -90,7 +90,7 @@ const TaskList = () => {
       console.log('Đang lấy dữ liệu tasks, projects, tags...');
       const [tasksResponse, projectsResponse, tagsResponse] = await Promise.all([
         taskService.getAllTasks(),
-        projectService.getAllProjects(),
+        projectService.getProjectSummaries(),
         tagService.getAllTags()
       ]);
       
@@ -155,7 +155,16 @@ const TaskList = () => {
     setIsModalVisible(true);
   };
 
-  const showEditModal = (task) => {
+  const showEditModal = async (listTask) => {
+    // Danh sách không kèm mô tả, lấy bản chi tiết trước khi điền form
+    let task;
+    try {
+      task = await taskService.getTaskById(listTask.id);
+    } catch (error) {
+      console.error("Error fetching task details:", error);
+      message.error("Không thể tải thông tin công việc");
+      return;
+    }
     setEditingTask(task);
     taskForm.setFieldsValue({
       title: task.title,
@@ -29,6 +29,51 @@ const projectService = {
     }
   },
 
+  /**
+   * Lấy danh sách rút gọn (id, tên, số công việc) cho dropdown và bộ lọc
+   * @returns {Promise<Array>} Danh sách dự án rút gọn
+   */
+  getProjectSummaries: async () => {
+    try {
+      const response = await api.get('/projects/summary');
+      
+      if (!response || !response.data) {
+        console.error('ProjectService: Không có dữ liệu từ API /projects/summary');
+        return [];
+      }
+      
+      return response.data.data || [];
+    } catch (error) {
+      console.error('ProjectService: Lỗi khi lấy danh sách dự án rút gọn', error);
+      return [];
+    }
+  },
+
+  /**
+   * Lấy công việc của dự án theo trang
+   * @param {number} id ID của dự án
+   * @param {string|null} cursor nextCursor của trang trước, null cho trang đầu
+   * @param {number} size Số công việc mỗi trang
+   * @returns {Promise<Object>} Trang kết quả { content, size, hasMore, nextCursor }
+   */
+  getProjectTasks: async (id, cursor = null, size = 20) => {
+    const emptyPage = { content: [], size: 0, hasMore: false, nextCursor: null };
+    try {
+      const params = cursor ? { cursor, size } : { size };
+      const response = await api.get(`/projects/${id}/tasks`, { params });
+      
+      if (!response || !response.data) {
+        console.error(`ProjectService: Không có dữ liệu từ API /projects/${id}/tasks`);
+        return emptyPage;
+      }
+      
+      return response.data.data || emptyPage;
+    } catch (error) {
+      console.error(`ProjectService: Lỗi khi lấy công việc của dự án ID ${id}`, error);
+      return emptyPage;
+    }
+  },
+
   /**
    * Lấy chi tiết dự án theo ID
    * @param {number} id ID của dự án
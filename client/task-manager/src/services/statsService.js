@@ -0,0 +1,26 @@
+import api from './api';
+
+const statsService = {
+  /**
+   * Lấy số liệu tổng hợp cho Dashboard (đếm theo trạng thái, ưu tiên, hạn chót và dự án)
+   * @returns {Promise<Object|null>} Số liệu thống kê, null nếu lỗi
+   */
+  getDashboardStats: async () => {
+    try {
+      console.log('StatsService: Đang lấy số liệu Dashboard');
+      const response = await api.get('/stats/dashboard');
+
+      if (!response || !response.data) {
+        console.error('StatsService: Không có dữ liệu từ API /stats/dashboard');
+        return null;
+      }
+
+      return response.data.data || null;
+    } catch (error) {
+      console.error('StatsService: Lỗi khi lấy số liệu Dashboard', error);
+      return null;
+    }
+  }
+};
+
+export default statsService;
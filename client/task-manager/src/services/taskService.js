@@ -71,6 +71,39 @@ const taskService = {
     }
   },
 
+  /**
+   * Tìm kiếm công việc với nhiều bộ lọc, phân trang theo cursor
+   * @param {Object} filters - status, priority, dueStatus, tagIds (mảng), projectId, tagMatch, dueFrom, dueTo, q, sortBy, direction, size
+   * @param {string|null} cursor - nextCursor của trang trước, null cho trang đầu
+   * @returns {Promise<Object>} - { content, size, hasMore, nextCursor }
+   */
+  searchTasks: async (filters = {}, cursor = null) => {
+    const emptyPage = { content: [], size: 0, hasMore: false, nextCursor: null };
+    try {
+      console.log('TaskService: Đang tìm kiếm công việc với bộ lọc:', filters);
+      const params = new URLSearchParams();
+      Object.entries({ ...filters, cursor }).forEach(([key, value]) => {
+        if (value === null || value === undefined || value === '') {
+          return;
+        }
+        // Server nhận tham số lặp lại (status=A&status=B), không phải status[]=A
+        (Array.isArray(value) ? value : [value]).forEach(item => params.append(key, item));
+      });
+
+      const response = await api.get('/tasks/search', { params });
+
+      if (!response || !response.data) {
+        console.error('TaskService: Không có dữ liệu trả về từ API /tasks/search');
+        return emptyPage;
+      }
+
+      return response.data.data || emptyPage;
+    } catch (error) {
+      console.error('TaskService: Lỗi khi tìm kiếm công việc:', error);
+      return emptyPage;
+    }
+  },
+
   /**
    * Lấy tất cả công việc của người dùng hiện tại
    * @returns {Promise<Array>} Danh sách công việc
@@ -281,7 +314,7 @@ const taskService = {
    * Cập nhật trạng thái của công việc
    * @param {number} id - ID của công việc
    * @param {string} status - Trạng thái mới
-   * @returns {Promise<Object>}
+   * @returns {Promise<Object>} id, projectId, status, progress, dueDate, dueStatus, updatedAt
    */
   updateTaskStatus: async (id, status) => {
     try {
@@ -300,6 +333,7 @@ const taskService = {
    * Cập nhật tiến độ công việc
    * @param {number} id - ID của công việc
    * @param {number} progress - Tiến độ mới (0-100)
+   * @returns {Promise<Object>} id, projectId, status, progress, dueDate, dueStatus, updatedAt
    */
   updateTaskProgress: async (id, progress) => {
     try {
@@ -0,0 +1,23 @@
+package com.net.ken.server.annotation;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Đánh dấu phương thức chỉ đọc dữ liệu: chạy trong transaction readOnly.
+ * Với transaction này Spring đặt session Hibernate ở chế độ defaultReadOnly (entity nạp lên không giữ snapshot
+ * để dirty checking) và FlushMode.MANUAL (không flush khi query hay khi commit), kết nối JDBC được setReadOnly
+ * nên có thể đi vào replica. ReadOnlyTransactionGuard làm mọi thao tác ghi qua Hibernate trong transaction này
+ * ném lỗi thay vì bị bỏ qua.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyQuery {
+}
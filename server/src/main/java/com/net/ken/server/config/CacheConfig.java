@@ -18,6 +18,12 @@ public class CacheConfig {
     public static final String PROJECT_CACHE = "projectCache";
     public static final String TASK_CACHE = "taskCache";
     public static final String NOTIFICATION_CACHE = "notificationCache";
+    // Số liệu Dashboard theo người dùng; hết hạn sớm vì số task quá hạn/đến hạn hôm nay thay đổi theo thời gian
+    public static final String STATS_CACHE = "statsCache";
+    // ID người dùng hiện tại trong khóa cache (SpEL), đọc từ CurrentUserContext nên không tốn truy vấn
+    public static final String CURRENT_USER_ID = "T(com.net.ken.server.util.CurrentUserContext).requireUserId()";
+    // Khóa số liệu Dashboard của người dùng hiện tại
+    public static final String DASHBOARD_STATS_KEY = "'dashboard-user-' + " + CURRENT_USER_ID;
     
     @Bean
     public CacheManager cacheManager() {
@@ -29,6 +35,10 @@ public class CacheConfig {
                 NOTIFICATION_CACHE
         ));
         cacheManager.setCaffeine(caffeineConfig());
+        cacheManager.registerCustomCache(STATS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .maximumSize(1000)
+                .build());
         return cacheManager;
     }
     
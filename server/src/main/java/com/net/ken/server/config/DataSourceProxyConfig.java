@@ -0,0 +1,49 @@
+package com.net.ken.server.config;
+
+import com.net.ken.server.util.SqlStatementCounter;
+import com.net.ken.server.util.SqlStatisticsCollector;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Bọc DataSource bằng datasource-proxy để mọi câu lệnh SQL (Hibernate lẫn JdbcTemplate) đi qua các listener đo đạc
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public SqlStatisticsCollector sqlStatisticsCollector(
+            @Value("${taskmanager.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMs,
+            @Value("${taskmanager.sql.count-result-rows:false}") boolean countResultRows) {
+        return new SqlStatisticsCollector(slowQueryThresholdMs, countResultRows);
+    }
+
+    // static để BeanPostProcessor được tạo sớm, không kéo theo các bean khác của cấu hình
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlStatisticsCollector> statisticsCollector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    SqlStatisticsCollector collector = statisticsCollector.getObject();
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementCounter())
+                            .listener(collector);
+                    if (collector.isCountResultRows()) {
+                        // Proxy cả ResultSet để đếm số dòng trả về: mọi lời gọi JDBC đi qua collector, chỉ dùng khi phát triển
+                        builder.proxyResultSet().methodListener(collector);
+                    }
+                    return builder.build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.net.ken.server.config;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+@Configuration
+public class JpaConfig {
+
+    // Đăng ký ReadOnlyTransactionGuard vào SessionFactory do Spring Boot tạo
+    @Bean
+    public HibernatePropertiesCustomizer readOnlyTransactionGuardCustomizer() {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new ReadOnlyTransactionGuard()));
+    }
+
+    // Thay JpaTransactionManager mặc định của Spring Boot, giữ các TransactionManagerCustomizer (spring.transaction.*)
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        OwnerFilterTransactionManager transactionManager = new OwnerFilterTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
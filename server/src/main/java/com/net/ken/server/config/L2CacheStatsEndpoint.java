@@ -0,0 +1,68 @@
+package com.net.ken.server.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint /actuator/l2cache: số lần hit/miss/put của từng region trong second-level cache
+ * và của query cache. DELETE /actuator/l2cache để đếm lại từ đầu.
+ */
+@Component
+@Endpoint(id = "l2cache")
+public class L2CacheStatsEndpoint {
+
+    private final Statistics statistics;
+
+    public L2CacheStatsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, toMap(region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                        region.getElementCountInMemory()));
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("since", statistics.getStart());
+        result.put("regions", regions);
+        result.put("queryCache", toMap(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), -1));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+    }
+
+    private static Map<String, Object> toMap(long hits, long misses, long puts, long elements) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("hits", hits);
+        values.put("misses", misses);
+        values.put("puts", puts);
+        long lookups = hits + misses;
+        values.put("hitRatio", lookups > 0 ? (double) hits / lookups : 0.0);
+        // -1 nếu provider không đếm được số phần tử
+        if (elements >= 0) {
+            values.put("elementsInMemory", elements);
+        }
+        return values;
+    }
+}
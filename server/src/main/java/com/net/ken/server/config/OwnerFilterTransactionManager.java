@@ -0,0 +1,61 @@
+package com.net.ken.server.config;
+
+import com.net.ken.server.model.User;
+import com.net.ken.server.util.CurrentUserContext;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bật bộ lọc User.OWNER_FILTER trên Session của mỗi transaction do người dùng thường khởi tạo, để mọi truy vấn
+ * HQL/Criteria trên Task, Project, Tag và Notification chỉ thấy dòng của người đó kể cả khi câu truy vấn quên
+ * điều kiện user. Đây là lớp bảo vệ thứ hai: các service vẫn kiểm tra quyền bằng findByIdAndUser, vì bộ lọc
+ * không áp dụng cho find theo khóa chính, SQL thuần và JDBC.
+ * Admin và các luồng không có người dùng (job theo lịch, import chạy nền) không bị lọc.
+ */
+public class OwnerFilterTransactionManager extends JpaTransactionManager {
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+
+        Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        EntityManagerHolder holder = (EntityManagerHolder)
+                TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder == null) {
+            return;
+        }
+        // Với open-in-view, Session dùng chung cho các transaction của cùng request nên có thể đã được bật
+        Session session = holder.getEntityManager().unwrap(Session.class);
+        if (session.getEnabledFilter(User.OWNER_FILTER) == null) {
+            session.enableFilter(User.OWNER_FILTER).setParameter(User.OWNER_FILTER_PARAM, userId);
+        }
+    }
+
+    // Đọc CurrentUserContext trước, SecurityContext chỉ khi thread chưa được gán người dùng (ví dụ @WithUserDetails)
+    private static Long currentUserId() {
+        if (CurrentUserContext.isSystem()) {
+            return null;
+        }
+        User user = CurrentUserContext.peekUser();
+        if (user == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !(authentication.getPrincipal() instanceof User principal)) {
+                return null;
+            }
+            user = principal;
+        }
+        boolean admin = user.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_AUTHORITY.equals(authority.getAuthority()));
+        return admin ? null : user.getId();
+    }
+}
@@ -0,0 +1,74 @@
+package com.net.ken.server.config;
+
+import com.net.ken.server.controller.ProjectController;
+import com.net.ken.server.controller.TaskController;
+import com.net.ken.server.dto.CursorPageDTO;
+import com.net.ken.server.dto.TaskDTO;
+import com.net.ken.server.service.TaskProgressCoalescer;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Áp tiến độ đang chờ ghi của TaskProgressCoalescer lên các task trả về từ API đọc,
+ * để người dùng vừa kéo thanh tiến độ đọc lại thấy đúng giá trị đã gửi.
+ * Làm ở đây thay vì trong TaskServiceImpl vì kết quả đọc có thể đến từ cache.
+ */
+@ControllerAdvice(assignableTypes = {TaskController.class, ProjectController.class})
+public class PendingProgressResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final TaskProgressCoalescer progressCoalescer;
+
+    public PendingProgressResponseAdvice(TaskProgressCoalescer progressCoalescer) {
+        this.progressCoalescer = progressCoalescer;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !progressCoalescer.hasPending()) {
+            return body;
+        }
+        if (body instanceof TaskDTO task) {
+            return progressCoalescer.applyPending(task);
+        }
+        if (body instanceof List<?> list) {
+            return applyPending(list);
+        }
+        if (body instanceof Page<?> page) {
+            return page.map(this::applyPending);
+        }
+        if (body instanceof CursorPageDTO<?> cursorPage) {
+            return new CursorPageDTO<>(applyPending(cursorPage.getContent()), cursorPage.getSize(),
+                    cursorPage.isHasMore(), cursorPage.getNextCursor());
+        }
+        return body;
+    }
+
+    private Object applyPending(Object item) {
+        return item instanceof TaskDTO task ? progressCoalescer.applyPending(task) : item;
+    }
+
+    // Danh sách có thể là giá trị trong cache nên tạo danh sách mới
+    private List<?> applyPending(List<?> items) {
+        List<Object> result = new ArrayList<>(items.size());
+        for (Object item : items) {
+            result.add(applyPending(item));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package com.net.ken.server.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Chặn ghi dữ liệu qua Hibernate trong transaction readOnly (@ReadOnlyQuery, các phương thức đọc của Spring Data).
+ * FlushMode.MANUAL khiến thay đổi trên entity bị bỏ qua trong im lặng; ở đây persist (INSERT ngay với khóa IDENTITY),
+ * flush tường minh và mọi INSERT/UPDATE/DELETE đều ném IllegalStateException.
+ * Ghi bằng JDBC bị MySQL từ chối vì kết nối đã được setReadOnly.
+ */
+public class ReadOnlyTransactionGuard implements Integrator, PreInsertEventListener, PreUpdateEventListener,
+        PreDeleteEventListener, FlushEventListener {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.PRE_INSERT, this);
+        registry.appendListeners(EventType.PRE_UPDATE, this);
+        registry.appendListeners(EventType.PRE_DELETE, this);
+        registry.appendListeners(EventType.FLUSH, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Không giữ tài nguyên nào
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        rejectInReadOnlyTransaction("INSERT " + event.getEntityName());
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        rejectInReadOnlyTransaction("UPDATE " + event.getEntityName() + "#" + event.getId());
+        return false;
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        rejectInReadOnlyTransaction("DELETE " + event.getEntityName() + "#" + event.getId());
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) throws HibernateException {
+        rejectInReadOnlyTransaction("flush");
+    }
+
+    private static void rejectInReadOnlyTransaction(String operation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new IllegalStateException("Không được ghi dữ liệu trong transaction chỉ đọc: " + operation);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.net.ken.server.config;
+
+import com.net.ken.server.filter.ReadYourWritesFilter;
+import com.net.ken.server.util.ReadYourWritesContext;
+import com.net.ken.server.util.ReplicaDataSourceRouter;
+import com.net.ken.server.util.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tách đọc/ghi khi có khai báo taskmanager.datasource.replicas.
+ * DataSource chính là LazyConnectionDataSourceProxy: kết nối thật chỉ được lấy ở câu lệnh đầu tiên, khi đã biết
+ * transaction có readOnly hay không. Kết nối readOnly (@Transactional(readOnly = true) và các phương thức đọc
+ * của Spring Data) đi vào replica, còn lại đi vào primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "taskmanager.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSourceRouter replicaDataSourceRouter(DataSourceProperties dataSourceProperties,
+                                                           ReadReplicaProperties properties,
+                                                           Environment environment) {
+        // Pool primary cấu hình như DataSource mặc định của Spring Boot (spring.datasource.*, spring.datasource.hikari.*)
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + i;
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            replicas.put(name, pool);
+        }
+        return new ReplicaDataSourceRouter(primary, replicas);
+    }
+
+    // Bean DataSource duy nhất; DataSourceProxyConfig bọc nó để đo mọi câu lệnh, dù đi vào primary hay replica
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSourceRouter router) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(router.getPrimary());
+        dataSource.setReadOnlyDataSource(router.getReadDataSource());
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaDataSourceRouter router, ReadReplicaProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(router, properties.getMaxLagMs(), properties.isAllowUnreplicated(), meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesContext readYourWritesContext(ReadReplicaProperties properties) {
+        return new ReadYourWritesContext(properties.getReadYourWritesMs());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesContext readYourWritesContext) {
+        return new ReadYourWritesFilter(readYourWritesContext);
+    }
+}
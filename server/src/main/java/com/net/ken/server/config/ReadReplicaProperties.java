@@ -0,0 +1,38 @@
+package com.net.ken.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình các bản sao chỉ đọc (taskmanager.datasource.*).
+ * Khi không khai báo replica nào, ứng dụng dùng một DataSource duy nhất từ spring.datasource như trước.
+ */
+@Data
+@ConfigurationProperties(prefix = "taskmanager.datasource")
+public class ReadReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Sau khi người dùng ghi dữ liệu, các lần đọc của họ đi vào primary trong khoảng thời gian này
+    private long readYourWritesMs = 5000;
+
+    // Replica trễ hơn ngưỡng này (hoặc không kiểm tra được) bị tạm loại, đọc chuyển sang replica khác hoặc primary
+    private long maxLagMs = 2000;
+
+    // Chấp nhận instance không có trạng thái nhân bản (SHOW REPLICA STATUS rỗng) như replica không trễ.
+    // Chỉ dùng khi phát triển/kiểm thử với một MySQL độc lập đóng vai replica; mặc định loại instance đó
+    private boolean allowUnreplicated = false;
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        // Bỏ trống thì dùng tài khoản của spring.datasource
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @Configuration
@@ -21,6 +22,10 @@ public class RequestLoggingFilterConfig {
     
     private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilterConfig.class);
     
+    // Các endpoint stream dữ liệu lớn: không bọc ContentCaching vì wrapper giữ toàn bộ body trong bộ nhớ
+    // và chỉ trả body cho client khi request kết thúc
+    private static final List<String> STREAMING_PATH_SUFFIXES = List.of("/export", "/import");
+    
     @Bean
     public OncePerRequestFilter requestLoggingFilter() {
         return new OncePerRequestFilter() {
@@ -37,9 +42,10 @@ public class RequestLoggingFilterConfig {
                 String uri = request.getRequestURI();
                 String queryString = request.getQueryString();
                 
-                // Wrap request và response để có thể đọc body nhiều lần
-                ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
-                ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+                // Wrap request và response để có thể đọc body nhiều lần (trừ các endpoint stream)
+                boolean streaming = isStreamingRequest(uri);
+                HttpServletRequest requestToUse = streaming ? request : new ContentCachingRequestWrapper(request);
+                ContentCachingResponseWrapper responseWrapper = streaming ? null : new ContentCachingResponseWrapper(response);
                 
                 log.debug("Bắt đầu xử lý request [{}]: {} {} {}", 
                         requestId, method, uri, queryString != null ? "?" + queryString : "");
@@ -48,19 +54,21 @@ public class RequestLoggingFilterConfig {
                 
                 try {
                     // Chuyển request tới filter tiếp theo hoặc endpoint
-                    filterChain.doFilter(requestWrapper, responseWrapper);
+                    filterChain.doFilter(requestToUse, responseWrapper != null ? responseWrapper : response);
                     
                     // Log thông tin xử lý request
                     long duration = System.currentTimeMillis() - startTime;
                     log.debug("Hoàn thành xử lý request [{}]: {} {} - {} ({} ms)", 
-                            requestId, method, uri, responseWrapper.getStatus(), duration);
+                            requestId, method, uri, response.getStatus(), duration);
                     
                 } catch (Exception e) {
                     log.error("Lỗi khi xử lý request [{}]: {} {}", requestId, method, uri, e);
                     throw e;
                 } finally {
                     // Copy nội dung từ response wrapper để trả về client
-                    responseWrapper.copyBodyToResponse();
+                    if (responseWrapper != null) {
+                        responseWrapper.copyBodyToResponse();
+                    }
                     
                     // Xóa requestId khỏi MDC
                     MDC.remove("requestId");
@@ -68,4 +76,8 @@ public class RequestLoggingFilterConfig {
             }
         };
     }
+    
+    private static boolean isStreamingRequest(String uri) {
+        return STREAMING_PATH_SUFFIXES.stream().anyMatch(uri::endsWith);
+    }
 } 
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.net.ken.server.config;
 
+import com.net.ken.server.util.CurrentUserContext;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -8,4 +11,10 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class SchedulingConfig {
     // Cấu hình này kích hoạt tính năng lập lịch của Spring
     // Các phương thức được đánh dấu @Scheduled sẽ được tự động thực thi theo lịch trình
+
+    // Mọi tác vụ theo lịch chạy trong ngữ cảnh hệ thống: AuthService.getCurrentUser() trả về null thay vì ném lỗi
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer systemContextTaskSchedulerCustomizer() {
+        return scheduler -> scheduler.setTaskDecorator(CurrentUserContext::systemTask);
+    }
 } 
\ No newline at end of file
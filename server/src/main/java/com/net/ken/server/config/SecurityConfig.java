@@ -2,8 +2,11 @@ package com.net.ken.server.config;
 
 import com.net.ken.server.filter.JwtAuthenticationFilter;
 import com.net.ken.server.filter.RateLimitFilter;
+import com.net.ken.server.filter.SqlStatementCountFilter;
 import com.net.ken.server.service.impl.ApplicationUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -38,6 +41,9 @@ public class SecurityConfig {
     private final RateLimitFilter rateLimitFilter;
     private final AuthEntryPoint authEntryPoint;
 
+    @Value("${taskmanager.sql.statement-count-header:false}")
+    private boolean statementCountHeader;
+
     private static final String[] PUBLIC_ENDPOINTS = {
             "/api/auth/**",
             "/api/public/**",
@@ -56,7 +62,12 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin))
                 .authorizeHttpRequests(requests -> requests
+                        // Thống kê SQL và cache L2 (kèm thao tác xóa thống kê) chỉ dành cho admin
+                        .requestMatchers("/actuator/sqlstats", "/actuator/sqlstats/**",
+                                "/actuator/l2cache", "/actuator/l2cache/**").hasRole("ADMIN")
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
+                        // Lượt dispatch ASYNC của response streaming đã được xác thực ở lượt đầu
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -89,7 +100,10 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        // Header đếm câu lệnh SQL chỉ có khi bật (profile dev), không công bố cho trình duyệt ở môi trường khác
+        configuration.setExposedHeaders(statementCountHeader
+                ? Arrays.asList("Authorization", SqlStatementCountFilter.HEADER_NAME)
+                : Arrays.asList("Authorization"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -0,0 +1,43 @@
+package com.net.ken.server.config;
+
+import com.net.ken.server.filter.SqlStatementCountFilter;
+import com.net.ken.server.util.SqlStatementCounter;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Gắn header X-SQL-Statement-Count ngay trước khi ghi body, lúc các câu lệnh của request đã chạy xong
+ * và header vẫn còn sửa được
+ */
+@ControllerAdvice
+public class SqlStatementCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlStatementCountFilter sqlStatementCountFilter;
+
+    public SqlStatementCountHeaderAdvice(SqlStatementCountFilter sqlStatementCountFilter) {
+        this.sqlStatementCountFilter = sqlStatementCountFilter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return sqlStatementCountFilter.isHeaderEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(SqlStatementCountFilter.COUNTER_ATTRIBUTE)
+                instanceof SqlStatementCounter.Counter counter) {
+            response.getHeaders().set(SqlStatementCountFilter.HEADER_NAME, Integer.toString(counter.getCount()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,44 @@
+package com.net.ken.server.config;
+
+import com.net.ken.server.util.SqlStatisticsCollector;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint /actuator/sqlstats: thống kê độ trễ theo mẫu câu lệnh SQL, sắp theo tổng thời gian.
+ * DELETE /actuator/sqlstats để bắt đầu đo lại từ đầu.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final SqlStatisticsCollector sqlStatisticsCollector;
+
+    public SqlStatsEndpoint(SqlStatisticsCollector sqlStatisticsCollector) {
+        this.sqlStatisticsCollector = sqlStatisticsCollector;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics(@Nullable Integer limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("since", sqlStatisticsCollector.getSince());
+        result.put("droppedSlowQueryLogs", sqlStatisticsCollector.getDroppedSlowQueries());
+        // false: rows của SELECT luôn là 0, chỉ lệnh ghi có số dòng bị ảnh hưởng
+        result.put("countsResultRows", sqlStatisticsCollector.isCountResultRows());
+        result.put("statements", sqlStatisticsCollector.snapshot(limit != null && limit > 0 ? limit : DEFAULT_LIMIT));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatisticsCollector.reset();
+    }
+}
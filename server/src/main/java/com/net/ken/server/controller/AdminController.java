@@ -2,12 +2,18 @@ package com.net.ken.server.controller;
 
 import com.net.ken.server.dto.ResponseDTO;
 import com.net.ken.server.service.AuthService;
+import com.net.ken.server.service.TaskExportService;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -17,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private final AuthService authService;
+    private final TaskExportService taskExportService;
     
     /**
      * Mở khóa tài khoản bị khóa do đăng nhập sai nhiều lần
@@ -32,4 +39,23 @@ public class AdminController {
         
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * Export task của tất cả người dùng, ghi dần ra response
+     * 
+     * @param format ndjson hoặc csv
+     * @return nội dung file export
+     */
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportAllTasks(@RequestParam(defaultValue = "ndjson") String format) {
+        log.info("AdminController: Export task toàn hệ thống dạng {}", format);
+        
+        TaskExportService.Format exportFormat = TaskExportService.Format.from(format);
+        StreamingResponseBody body = out -> taskExportService.exportAllTasks(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"all-tasks-" + LocalDate.now() + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
 } 
\ No newline at end of file
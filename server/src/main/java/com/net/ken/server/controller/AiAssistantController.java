@@ -7,7 +7,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,15 +25,8 @@ public class AiAssistantController {
 
     @GetMapping("/optimize-tasks")
     public ResponseEntity<Map<String, Object>> getOptimizedTaskOrder() {
-        List<TaskDTO> allTasks = taskService.getAllTasks();
-        
-        // Lọc các công việc chưa hoàn thành
-        List<TaskDTO> incompleteTasks = allTasks.stream()
-                .filter(task -> !"COMPLETED".equals(task.getStatus()))
-                .collect(Collectors.toList());
-        
-        // Sắp xếp công việc dựa trên thuật toán tối ưu
-        List<TaskDTO> optimizedTasks = optimizeTasks(incompleteTasks);
+        // Công việc chưa hoàn thành, đã sắp theo độ ưu tiên (URGENT > HIGH > MEDIUM > LOW) rồi deadline ngay trong SQL
+        List<TaskDTO> optimizedTasks = taskService.getOpenTasksByPriority();
         
         Map<String, Object> response = new HashMap<>();
         response.put("optimizedTasks", optimizedTasks);
@@ -40,30 +35,6 @@ public class AiAssistantController {
         return ResponseEntity.ok(response);
     }
     
-    private List<TaskDTO> optimizeTasks(List<TaskDTO> tasks) {
-        // Đây là thuật toán tối ưu đơn giản, có thể cải thiện thêm sau
-        // Thuật toán này ưu tiên:
-        // 1. Độ ưu tiên của công việc
-        // 2. Ngày đến hạn
-        
-        return tasks.stream()
-                .sorted(Comparator
-                        // Sắp xếp theo độ ưu tiên (URGENT > HIGH > MEDIUM > LOW)
-                        .comparing((TaskDTO task) -> {
-                            String priority = task.getPriority();
-                            if ("URGENT".equals(priority)) return 0;
-                            if ("HIGH".equals(priority)) return 1;
-                            if ("MEDIUM".equals(priority)) return 2;
-                            return 3; // LOW
-                        })
-                        // Sau đó sắp xếp theo deadline (sớm nhất lên đầu)
-                        .thenComparing(task -> {
-                            LocalDateTime dueDate = task.getDueDate();
-                            return dueDate != null ? dueDate : LocalDateTime.MAX;
-                        }))
-                .collect(Collectors.toList());
-    }
-    
     private String generateExplanation(List<TaskDTO> optimizedTasks) {
         StringBuilder explanation = new StringBuilder();
         explanation.append("Thứ tự công việc được tối ưu hóa dựa trên mức độ ưu tiên và deadline. ");
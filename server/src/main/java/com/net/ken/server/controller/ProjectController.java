@@ -1,7 +1,11 @@
 package com.net.ken.server.controller;
 
+import com.net.ken.server.dto.CursorPageDTO;
 import com.net.ken.server.dto.ProjectDTO;
+import com.net.ken.server.dto.ProjectSummaryDTO;
+import com.net.ken.server.dto.TaskDTO;
 import com.net.ken.server.service.ProjectService;
+import com.net.ken.server.service.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,10 +18,12 @@ import java.util.List;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final TaskService taskService;
 
     @Autowired
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, TaskService taskService) {
         this.projectService = projectService;
+        this.taskService = taskService;
     }
 
     @GetMapping
@@ -25,11 +31,26 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.getAllProjects());
     }
 
+    // Chỉ id, tên và số task, dùng cho dropdown và bộ lọc
+    @GetMapping("/summary")
+    public ResponseEntity<List<ProjectSummaryDTO>> getProjectSummaries() {
+        return ResponseEntity.ok(projectService.getProjectSummaries());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProjectDTO> getProjectById(@PathVariable Long id) {
         return ResponseEntity.ok(projectService.getProjectById(id));
     }
 
+    // Task của dự án theo trang (keyset theo dueDate), dùng nextCursor của trang trước để lấy trang sau
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getProjectTasks(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.getTasksByProjectIdCursor(id, cursor, size));
+    }
+
     @PostMapping
     public ResponseEntity<ProjectDTO> createProject(@RequestBody ProjectDTO projectDTO) {
         return new ResponseEntity<>(projectService.createProject(projectDTO), HttpStatus.CREATED);
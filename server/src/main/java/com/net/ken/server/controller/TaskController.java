@@ -1,19 +1,39 @@
 package com.net.ken.server.controller;
 
+import com.net.ken.server.dto.BulkTaskDTO.BulkCreateDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkDeleteDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkMoveDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkResultDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkRetagDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkUpdateDTO;
+import com.net.ken.server.dto.CursorPageDTO;
 import com.net.ken.server.dto.TaskDTO;
 import com.net.ken.server.dto.TaskDTO.CreateTaskDTO;
 import com.net.ken.server.dto.TaskDTO.UpdateTaskDTO;
+import com.net.ken.server.dto.TaskImportDTO;
+import com.net.ken.server.dto.TaskSearchCriteria;
+import com.net.ken.server.dto.TaskStatusDTO;
+import com.net.ken.server.service.AuthService;
+import com.net.ken.server.service.TaskBulkService;
+import com.net.ken.server.service.TaskExportService;
+import com.net.ken.server.service.TaskImportService;
 import com.net.ken.server.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -22,10 +42,20 @@ import java.util.Map;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskBulkService taskBulkService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final AuthService authService;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskBulkService taskBulkService,
+                          TaskExportService taskExportService, TaskImportService taskImportService,
+                          AuthService authService) {
         this.taskService = taskService;
+        this.taskBulkService = taskBulkService;
+        this.taskExportService = taskExportService;
+        this.taskImportService = taskImportService;
+        this.authService = authService;
     }
 
     @GetMapping
@@ -47,6 +77,54 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getAllTasksPaged(pageable));
     }
 
+    // Tìm kiếm kết hợp nhiều bộ lọc, phân trang theo cursor
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> searchTasks(@ModelAttribute TaskSearchCriteria criteria) {
+        return ResponseEntity.ok(taskService.searchTasks(criteria));
+    }
+
+    // Tìm kiếm toàn văn, kết quả xếp theo mức độ liên quan
+    @GetMapping("/search/text")
+    public ResponseEntity<List<TaskDTO>> searchTasksByText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(taskService.searchTasksByText(q, limit));
+    }
+
+    // Export toàn bộ task của người dùng hiện tại (ndjson hoặc csv), ghi dần ra response
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format) {
+        TaskExportService.Format exportFormat = TaskExportService.Format.from(format);
+        // Xác định người dùng trên luồng request, phần ghi dữ liệu chạy trên luồng async
+        Long userId = authService.getCurrentUser().getId();
+        StreamingResponseBody body = out -> taskExportService.exportUserTasks(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tasks-" + LocalDate.now() + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Import task từ body thô (ndjson hoặc csv, cùng định dạng với export), đọc dần từ request
+    @PostMapping("/import")
+    public ResponseEntity<TaskImportDTO> importTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        TaskExportService.Format importFormat = TaskExportService.Format.from(format);
+        return ResponseEntity.ok(taskImportService.importTasks(importFormat, request.getInputStream()));
+    }
+
+    // Tiến độ các lần import gần đây của người dùng hiện tại
+    @GetMapping("/imports")
+    public ResponseEntity<List<TaskImportDTO>> getImports() {
+        return ResponseEntity.ok(taskImportService.getImports());
+    }
+
+    @GetMapping("/imports/{importId}")
+    public ResponseEntity<TaskImportDTO> getImport(@PathVariable String importId) {
+        return ResponseEntity.ok(taskImportService.getImport(importId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
         return ResponseEntity.ok(taskService.getTaskById(id));
@@ -77,16 +155,61 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getTasksByStatus(status));
     }
 
+    @GetMapping("/status/{status}/paged")
+    public ResponseEntity<Page<TaskDTO>> getTasksByStatusPaged(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "dueDate") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        return ResponseEntity.ok(taskService.getTasksByStatusPaged(status, pageable));
+    }
+
     @GetMapping("/priority/{priority}")
     public ResponseEntity<List<TaskDTO>> getTasksByPriority(@PathVariable String priority) {
         return ResponseEntity.ok(taskService.getTasksByPriority(priority));
     }
 
+    @GetMapping("/priority/{priority}/paged")
+    public ResponseEntity<Page<TaskDTO>> getTasksByPriorityPaged(
+            @PathVariable String priority,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "dueDate") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        return ResponseEntity.ok(taskService.getTasksByPriorityPaged(priority, pageable));
+    }
+
     @GetMapping("/due-within/{days}")
     public ResponseEntity<List<TaskDTO>> getTasksDueWithinDays(@PathVariable int days) {
         return ResponseEntity.ok(taskService.getTasksDueWithinDays(days));
     }
 
+    @GetMapping("/due-within/{days}/paged")
+    public ResponseEntity<Page<TaskDTO>> getTasksDueWithinDaysPaged(
+            @PathVariable int days,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "dueDate") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        return ResponseEntity.ok(taskService.getTasksDueWithinDaysPaged(days, pageable));
+    }
+
     @PostMapping
     public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody CreateTaskDTO createTaskDTO) {
         return new ResponseEntity<>(taskService.createTask(createTaskDTO), HttpStatus.CREATED);
@@ -98,7 +221,7 @@ public class TaskController {
     }
 
     @PatchMapping("/{id}/status")
-    public ResponseEntity<TaskDTO> updateTaskStatus(@PathVariable Long id, @RequestBody Map<String, String> statusMap) {
+    public ResponseEntity<TaskStatusDTO> updateTaskStatus(@PathVariable Long id, @RequestBody Map<String, String> statusMap) {
         String status = statusMap.get("status");
         if (status == null || status.isEmpty()) {
             return ResponseEntity.badRequest().build();
@@ -107,12 +230,13 @@ public class TaskController {
     }
 
     @PatchMapping("/{id}/progress")
-    public ResponseEntity<TaskDTO> updateTaskProgress(@PathVariable Long id, @RequestBody Map<String, Integer> progressMap) {
+    public ResponseEntity<TaskStatusDTO> updateTaskProgress(@PathVariable Long id, @RequestBody Map<String, Integer> progressMap) {
         Integer progress = progressMap.get("progress");
         if (progress == null || progress < 0 || progress > 100) {
             return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(taskService.updateTaskProgress(id, progress));
+        // 202: giá trị đã được nhận, sẽ ghi xuống cơ sở dữ liệu khi thanh trượt ngừng kéo
+        return ResponseEntity.accepted().body(taskService.updateTaskProgress(id, progress));
     }
 
     @DeleteMapping("/{id}")
@@ -130,4 +254,30 @@ public class TaskController {
     public ResponseEntity<TaskDTO> removeTagFromTask(@PathVariable Long taskId, @PathVariable Long tagId) {
         return ResponseEntity.ok(taskService.removeTagFromTask(taskId, tagId));
     }
-} 
\ No newline at end of file
+
+    // Thao tác hàng loạt: mỗi yêu cầu là một transaction, kết quả trả về theo từng phần tử
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> createTasksBulk(@Valid @RequestBody BulkCreateDTO request) {
+        return ResponseEntity.ok(taskBulkService.createTasks(request));
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> updateTasksBulk(@Valid @RequestBody BulkUpdateDTO request) {
+        return ResponseEntity.ok(taskBulkService.updateTasks(request));
+    }
+
+    @PatchMapping("/bulk/move")
+    public ResponseEntity<BulkResultDTO> moveTasksBulk(@Valid @RequestBody BulkMoveDTO request) {
+        return ResponseEntity.ok(taskBulkService.moveTasks(request));
+    }
+
+    @PatchMapping("/bulk/tags")
+    public ResponseEntity<BulkResultDTO> retagTasksBulk(@Valid @RequestBody BulkRetagDTO request) {
+        return ResponseEntity.ok(taskBulkService.retagTasks(request));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResultDTO> deleteTasksBulk(@Valid @RequestBody BulkDeleteDTO request) {
+        return ResponseEntity.ok(taskBulkService.deleteTasks(request));
+    }
+}
@@ -0,0 +1,109 @@
+package com.net.ken.server.dto;
+
+import com.net.ken.server.dto.TaskDTO.CreateTaskDTO;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Các yêu cầu và kết quả của API thao tác hàng loạt /api/tasks/bulk
+ */
+public class BulkTaskDTO {
+
+    // Số phần tử tối đa của một yêu cầu
+    public static final int MAX_ITEMS = 1000;
+
+    private BulkTaskDTO() {
+        // Chỉ chứa các lớp con
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkCreateDTO {
+        @NotEmpty(message = "Danh sách task không được để trống")
+        @Size(max = MAX_ITEMS, message = "Mỗi yêu cầu chỉ được tối đa " + MAX_ITEMS + " phần tử")
+        private List<@Valid @NotNull CreateTaskDTO> tasks = new ArrayList<>();
+    }
+
+    // Gán cùng giá trị cho các trường khác null trên tất cả task trong taskIds
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkUpdateDTO {
+        @NotEmpty(message = "Danh sách task không được để trống")
+        @Size(max = MAX_ITEMS, message = "Mỗi yêu cầu chỉ được tối đa " + MAX_ITEMS + " phần tử")
+        private List<@NotNull Long> taskIds = new ArrayList<>();
+        private String priority;
+        private String status;
+        @Min(value = 0, message = "Tiến độ phải nằm trong khoảng từ 0 đến 100")
+        @Max(value = 100, message = "Tiến độ phải nằm trong khoảng từ 0 đến 100")
+        private Integer progress;
+        private LocalDateTime startDate;
+        private LocalDateTime dueDate;
+    }
+
+    // projectId null nghĩa là đưa task ra khỏi dự án
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkMoveDTO {
+        @NotEmpty(message = "Danh sách task không được để trống")
+        @Size(max = MAX_ITEMS, message = "Mỗi yêu cầu chỉ được tối đa " + MAX_ITEMS + " phần tử")
+        private List<@NotNull Long> taskIds = new ArrayList<>();
+        private Long projectId;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkRetagDTO {
+        @NotEmpty(message = "Danh sách task không được để trống")
+        @Size(max = MAX_ITEMS, message = "Mỗi yêu cầu chỉ được tối đa " + MAX_ITEMS + " phần tử")
+        private List<@NotNull Long> taskIds = new ArrayList<>();
+        private Set<Long> addTagIds = new HashSet<>();
+        private Set<Long> removeTagIds = new HashSet<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkDeleteDTO {
+        @NotEmpty(message = "Danh sách task không được để trống")
+        @Size(max = MAX_ITEMS, message = "Mỗi yêu cầu chỉ được tối đa " + MAX_ITEMS + " phần tử")
+        private List<@NotNull Long> taskIds = new ArrayList<>();
+    }
+
+    // Kết quả của một phần tử: index là vị trí trong yêu cầu
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkItemResultDTO {
+        private int index;
+        private Long taskId;
+        private boolean success;
+        private String error;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkResultDTO {
+        private int requested;
+        private int succeeded;
+        private int failed;
+        private List<BulkItemResultDTO> items = new ArrayList<>();
+    }
+}
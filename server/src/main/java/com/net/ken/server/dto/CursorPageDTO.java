@@ -0,0 +1,23 @@
+package com.net.ken.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Một trang kết quả phân trang theo cursor (keyset).
+ * Không có totalElements vì đếm toàn bộ sẽ phải quét lại tất cả các dòng khớp bộ lọc.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content = new ArrayList<>();
+    private int size;
+    private boolean hasMore;
+    // Truyền lại vào tham số cursor để lấy trang tiếp theo, null nếu đã hết
+    private String nextCursor;
+}
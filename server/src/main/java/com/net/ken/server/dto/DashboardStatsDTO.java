@@ -0,0 +1,42 @@
+package com.net.ken.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Số liệu tổng hợp cho trang Dashboard, tính bằng các truy vấn GROUP BY thay vì tải toàn bộ task
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsDTO {
+    private long totalTasks;
+    private long totalProjects;
+    // Task chưa hoàn thành có hạn chót trước hôm nay
+    private long overdue;
+    // Task chưa hoàn thành có hạn chót trong hôm nay
+    private long dueToday;
+    // Luôn đủ mọi giá trị enum (kể cả 0), theo thứ tự khai báo
+    private Map<String, Long> byStatus = new LinkedHashMap<>();
+    private Map<String, Long> byPriority = new LinkedHashMap<>();
+    private Map<String, Long> byDueStatus = new LinkedHashMap<>();
+    // Chỉ gồm dự án có task; projectId null là nhóm task không thuộc dự án nào
+    private List<ProjectCountDTO> byProject = new ArrayList<>();
+    private LocalDateTime generatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProjectCountDTO {
+        private Long projectId;
+        private String projectName;
+        private long count;
+    }
+}
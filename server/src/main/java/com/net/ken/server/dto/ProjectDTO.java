@@ -5,8 +5,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -17,16 +15,21 @@ public class ProjectDTO {
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-    private List<TaskSummaryDTO> tasks = new ArrayList<>();
+    // Không kèm danh sách task; task của dự án được lấy theo trang qua GET /api/projects/{id}/tasks
+    private StatsDTO stats = new StatsDTO();
     
+    // Số liệu tổng hợp của dự án, đọc từ project_stats
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
-    public static class TaskSummaryDTO {
-        private Long id;
-        private String title;
-        private LocalDateTime dueDate;
-        private String status;
-        private Integer progress;
+    public static class StatsDTO {
+        private int taskCount;
+        private int notStartedCount;
+        private int inProgressCount;
+        private int completedCount;
+        private int onHoldCount;
+        private int averageProgress;
+        private int overdueCount;
+        private LocalDateTime nextDueDate;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.net.ken.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thông tin rút gọn của dự án (ID, tên, số task) được chọn trực tiếp bằng truy vấn projection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryDTO {
+    private Long id;
+    private String name;
+    private Integer taskCount;
+    private Integer completedCount;
+}
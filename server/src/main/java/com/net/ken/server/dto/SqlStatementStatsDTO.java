@@ -0,0 +1,24 @@
+package com.net.ken.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thống kê của một mẫu câu lệnh SQL (đã thay giá trị bằng ?), thời gian tính bằng mili giây.
+ * p50Ms và p99Ms là cận trên của khoảng histogram chứa phân vị tương ứng.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatementStatsDTO {
+    private String fingerprint;
+    private long count;
+    private long errors;
+    private double totalMs;
+    private double avgMs;
+    private double p50Ms;
+    private double p99Ms;
+    private double maxMs;
+    private long rows;
+}
@@ -1,5 +1,7 @@
 package com.net.ken.server.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.net.ken.server.model.Task;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +16,8 @@ import java.util.Set;
 public class TaskDTO {
     private Long id;
     private String title;
+    // Chỉ có khi xem chi tiết (và trong phản hồi tạo/sửa); danh sách bỏ trường này
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String description;
     private LocalDateTime startDate;
     private LocalDateTime dueDate;
@@ -26,7 +30,31 @@ public class TaskDTO {
     private Long projectId;
     private String projectName;
     private Set<TagDTO> tags = new HashSet<>();
-    
+
+    /**
+     * Constructor dùng cho truy vấn projection (JPQL constructor expression).
+     * Tags không có trong câu truy vấn này, chúng được nạp riêng theo lô; mô tả không thuộc danh sách.
+     */
+    public TaskDTO(Long id, String title,
+                   LocalDateTime startDate, LocalDateTime dueDate,
+                   LocalDateTime createdAt, LocalDateTime updatedAt,
+                   Task.Priority priority, Task.Status status, Integer progress,
+                   Task.DueStatus dueStatus, Long projectId, String projectName) {
+        this.id = id;
+        this.title = title;
+        this.startDate = startDate;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.priority = priority != null ? priority.name() : null;
+        this.status = status != null ? status.name() : null;
+        // Mặc định progress là 0 nếu null (giống convertToDTO)
+        this.progress = progress != null ? progress : 0;
+        this.dueStatus = dueStatus != null ? dueStatus.name() : null;
+        this.projectId = projectId;
+        this.projectName = projectName;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,66 @@
+package com.net.ken.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.net.ken.server.model.Task;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Một task trong file export.
+ * Truy vấn stream trả về một dòng cho mỗi cặp (task, tag) theo thứ tự id,
+ * các dòng liên tiếp của cùng một task được gộp tên thẻ vào tags.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskExportDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startDate;
+    private LocalDateTime dueDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String priority;
+    private String status;
+    private Integer progress;
+    private String dueStatus;
+    private String projectName;
+    // Chỉ có trong export toàn hệ thống của admin
+    private String username;
+    private List<String> tags = new ArrayList<>();
+
+    // Tên thẻ của dòng hiện tại, trước khi gộp
+    @JsonIgnore
+    private String tagName;
+
+    // Constructor dùng cho truy vấn projection
+    public TaskExportDTO(Long id, String title, String description,
+                         LocalDateTime startDate, LocalDateTime dueDate,
+                         LocalDateTime createdAt, LocalDateTime updatedAt,
+                         Task.Priority priority, Task.Status status, Integer progress,
+                         Task.DueStatus dueStatus, String projectName, String username, String tagName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.startDate = startDate;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.priority = priority != null ? priority.name() : null;
+        this.status = status != null ? status.name() : null;
+        this.progress = progress != null ? progress : 0;
+        this.dueStatus = dueStatus != null ? dueStatus.name() : null;
+        this.projectName = projectName;
+        this.username = username;
+        this.tagName = tagName;
+        if (tagName != null) {
+            this.tags.add(tagName);
+        }
+    }
+}
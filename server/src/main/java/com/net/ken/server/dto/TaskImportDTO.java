@@ -0,0 +1,59 @@
+package com.net.ken.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tiến độ và kết quả của một lần import task
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportDTO {
+    private String id;
+    // RUNNING, COMPLETED hoặc FAILED
+    private String status;
+    private String format;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private int projectsCreated;
+    private int tagsCreated;
+    // Lỗi dừng cả lần import (ví dụ file sai định dạng), null nếu không có
+    private String message;
+    // Chỉ giữ một số lỗi đầu tiên, rowsFailed là tổng số dòng lỗi
+    private List<RowErrorDTO> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowErrorDTO {
+        private long line;
+        private String error;
+    }
+
+    // Một dòng dữ liệu import; cùng tên trường với file export để có thể import lại
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ImportRowDTO {
+        private String title;
+        private String description;
+        private String status;
+        private String priority;
+        private Integer progress;
+        private LocalDateTime startDate;
+        private LocalDateTime dueDate;
+        private String projectName;
+        private List<String> tags = new ArrayList<>();
+    }
+}
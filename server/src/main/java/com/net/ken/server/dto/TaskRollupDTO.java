@@ -0,0 +1,49 @@
+package com.net.ken.server.dto;
+
+import com.net.ken.server.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Các trường của một task ảnh hưởng đến số liệu dự án (project_stats).
+ * Chụp trước và sau mỗi thao tác ghi để tính delta cộng dồn vào dự án.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRollupDTO {
+    private Long projectId;
+    private Long userId;
+    private Task.Status status;
+    private int progress;
+    private LocalDateTime dueDate;
+    // Task đang được tính vào overdue_count của dự án
+    private boolean overdue;
+
+    /**
+     * Trạng thái đã lưu của task, dùng due_status đọc từ cơ sở dữ liệu
+     * (chính là giá trị đã được cộng vào project_stats ở lần ghi trước)
+     */
+    public static TaskRollupDTO of(Task task) {
+        return new TaskRollupDTO(
+                task.getProject() != null ? task.getProject().getId() : null,
+                task.getUser() != null ? task.getUser().getId() : null,
+                task.getStatus(),
+                task.getProgress() != null ? task.getProgress() : 0,
+                task.getDueDate(),
+                task.getDueStatus() == Task.DueStatus.OVERDUE);
+    }
+
+    /**
+     * Trạng thái của task vừa được sửa trên entity; due_status chỉ được tính lại
+     * khi flush (@PreUpdate) nên ở đây tính trực tiếp từ hạn chót
+     */
+    public static TaskRollupDTO afterChange(Task task, LocalDateTime now) {
+        TaskRollupDTO rollup = of(task);
+        rollup.setOverdue(Task.computeDueStatus(task.getDueDate(), task.getStatus(), now) == Task.DueStatus.OVERDUE);
+        return rollup;
+    }
+}
@@ -0,0 +1,43 @@
+package com.net.ken.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tham số của GET /api/tasks/search.
+ * Các bộ lọc được kết hợp bằng AND; trong một bộ lọc nhiều giá trị thì kết hợp bằng OR.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchCriteria {
+    private Set<String> status = new HashSet<>();
+    private Set<String> priority = new HashSet<>();
+    private Set<String> dueStatus = new HashSet<>();
+    private Long projectId;
+    private Set<Long> tagIds = new HashSet<>();
+    // any: có ít nhất một thẻ trong tagIds, all: có đủ tất cả các thẻ
+    private String tagMatch = "any";
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueTo;
+
+    private String q;
+
+    // Sắp xếp theo dueDate hoặc createdAt, luôn kèm id để thứ tự ổn định
+    private String sortBy = "dueDate";
+    private String direction = "asc";
+
+    // Cursor trả về từ trang trước (nextCursor), rỗng cho trang đầu
+    private String cursor;
+    private int size = 20;
+}
@@ -0,0 +1,57 @@
+package com.net.ken.server.dto;
+
+import com.net.ken.server.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Phản hồi của PATCH /api/tasks/{id}/status và /progress: chỉ các trường mà thao tác có thể thay đổi
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusDTO {
+    private Long id;
+    private Long projectId;
+    private String status;
+    private Integer progress;
+    private LocalDateTime dueDate;
+    private String dueStatus;
+    private LocalDateTime updatedAt;
+
+    /**
+     * Trạng thái sau câu UPDATE của TaskJdbcRepository.updateStatus áp lên dòng này:
+     * COMPLETED đặt tiến độ 100, NOT_STARTED đặt 0, due_status tính lại theo trạng thái mới
+     */
+    public TaskStatusDTO withStatus(Task.Status newStatus, LocalDateTime now) {
+        int newProgress = newStatus == Task.Status.COMPLETED ? 100
+                : newStatus == Task.Status.NOT_STARTED ? 0
+                : progress != null ? progress : 0;
+        return changed(newStatus, newProgress, now);
+    }
+
+    // Trạng thái sau câu UPDATE của TaskJdbcRepository.updateProgress áp lên dòng này
+    public TaskStatusDTO withProgress(int newProgress, LocalDateTime now) {
+        return changed(Task.statusForProgress(newProgress), newProgress, now);
+    }
+
+    private TaskStatusDTO changed(Task.Status newStatus, int newProgress, LocalDateTime now) {
+        return new TaskStatusDTO(id, projectId, newStatus.name(), newProgress, dueDate,
+                Task.computeDueStatus(dueDate, newStatus, now).name(), now);
+    }
+
+    // Các trường ảnh hưởng đến số liệu dự án, null nếu task không thuộc dự án nào
+    public TaskRollupDTO toRollup(Long userId) {
+        if (projectId == null) {
+            return null;
+        }
+        return new TaskRollupDTO(projectId, userId,
+                status != null ? Task.Status.valueOf(status) : null,
+                progress != null ? progress : 0,
+                dueDate,
+                Task.DueStatus.OVERDUE.name().equals(dueStatus));
+    }
+}
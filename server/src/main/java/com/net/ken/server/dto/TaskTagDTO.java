@@ -0,0 +1,19 @@
+package com.net.ken.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một dòng (task, tag) được chọn trực tiếp bằng truy vấn projection.
+ * Dùng để gắn tags cho danh sách TaskDTO theo lô, thay vì fetch-join tags cùng task.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTagDTO {
+    private Long taskId;
+    private Long tagId;
+    private String name;
+    private String color;
+}
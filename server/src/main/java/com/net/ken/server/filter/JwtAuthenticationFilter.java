@@ -5,6 +5,7 @@ import com.net.ken.server.dto.ResponseDTO;
 import com.net.ken.server.model.User;
 import com.net.ken.server.service.JwtTokenService;
 import com.net.ken.server.service.impl.ApplicationUserDetailsService;
+import com.net.ken.server.util.CurrentUserContext;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -100,8 +101,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 
-                // Tiếp tục chuỗi bộ lọc
-                filterChain.doFilter(request, response);
+                // Các service đọc người dùng từ CurrentUserContext trong suốt request, không truy vấn lại
+                if (userDetails instanceof User user) {
+                    CurrentUserContext.set(user);
+                }
+                try {
+                    // Tiếp tục chuỗi bộ lọc
+                    filterChain.doFilter(request, response);
+                } finally {
+                    CurrentUserContext.clear();
+                }
             } catch (ExpiredJwtException e) {
                 log.warn("JWT đã hết hạn: {}", e.getMessage());
                 handleJwtException(response, "JWT_EXPIRED", "Token đã hết hạn. Vui lòng đăng nhập lại hoặc làm mới token", HttpStatus.UNAUTHORIZED);
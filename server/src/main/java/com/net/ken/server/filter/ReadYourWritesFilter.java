@@ -0,0 +1,48 @@
+package com.net.ken.server.filter;
+
+import com.net.ken.server.util.ReadYourWritesContext;
+import com.net.ken.server.util.SecurityUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Chọn primary hay replica cho các truy vấn đọc của request.
+ * Request ghi (POST/PUT/PATCH/DELETE) đọc hoàn toàn từ primary; sau khi thành công, người dùng được ghim vào primary
+ * trong khoảng read-your-writes để không thấy dữ liệu cũ từ replica còn trễ.
+ * Chạy sau chuỗi filter của Spring Security để biết người dùng hiện tại.
+ */
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 10)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadYourWritesContext readYourWritesContext;
+
+    public ReadYourWritesFilter(ReadYourWritesContext readYourWritesContext) {
+        this.readYourWritesContext = readYourWritesContext;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        String username = SecurityUtils.getCurrentUsername().orElse(null);
+        ReadYourWritesContext.setPrimaryOnly(write || (username != null && readYourWritesContext.hasRecentWrite(username)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.setPrimaryOnly(false);
+            if (write && username != null && response.getStatus() < 400) {
+                readYourWritesContext.recordWrite(username);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.net.ken.server.filter;
+
+import com.net.ken.server.util.LogUtil;
+import com.net.ken.server.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Đếm số câu lệnh SQL mà mỗi HTTP request gây ra, ghi vào metric http.server.sql.statements
+ * và cảnh báo khi vượt ngưỡng để phát hiện sớm N+1 query.
+ * Khi bật taskmanager.sql.statement-count-header, số câu lệnh được trả về trong header X-SQL-Statement-Count.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_NAME = "X-SQL-Statement-Count";
+    public static final String COUNTER_ATTRIBUTE = SqlStatementCountFilter.class.getName() + ".counter";
+
+    private static final Logger log = LogUtil.getLogger(SqlStatementCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headerEnabled;
+    private final int warnThreshold;
+
+    @Autowired
+    public SqlStatementCountFilter(MeterRegistry meterRegistry,
+                                   @Value("${taskmanager.sql.statement-count-header:false}") boolean headerEnabled,
+                                   @Value("${taskmanager.sql.statement-warn-threshold:50}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.headerEnabled = headerEnabled;
+        this.warnThreshold = warnThreshold;
+    }
+
+    public boolean isHeaderEnabled() {
+        return headerEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Counter counter = SqlStatementCounter.start();
+        request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.close();
+            int count = counter.getCount();
+            // Response chưa gửi đi (ví dụ không có body) thì vẫn gắn được header ở đây
+            if (headerEnabled && !response.isCommitted()) {
+                response.setHeader(HEADER_NAME, Integer.toString(count));
+            }
+            record(request, count);
+        }
+    }
+
+    private void record(HttpServletRequest request, int count) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Dùng mẫu đường dẫn thay vì URI thật để số lượng tag của metric không tăng theo ID
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("Số câu lệnh SQL trên mỗi HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(count);
+
+        if (count > warnThreshold) {
+            LogUtil.warn(log, "{} {} chạy {} câu lệnh SQL (ngưỡng {}), kiểm tra N+1 query",
+                    request.getMethod(), uri, count, warnThreshold);
+        } else {
+            LogUtil.debug(log, "{} {} chạy {} câu lệnh SQL", request.getMethod(), uri, count);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.net.ken.server.model;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Enum được lưu bằng mã số cố định thay vì tên (cột TINYINT).
+ * Mã đã ghi xuống cơ sở dữ liệu không được đổi hay dùng lại; thêm giá trị mới thì dùng mã mới.
+ */
+public interface CodedEnum {
+
+    int getCode();
+
+    // Mã của giá trị, null nếu giá trị null (dùng khi gán tham số JDBC)
+    static Integer codeOf(CodedEnum value) {
+        return value != null ? value.getCode() : null;
+    }
+
+    static <E extends Enum<E> & CodedEnum> E fromCode(Class<E> type, Integer code) {
+        if (code == null) {
+            return null;
+        }
+        for (E value : type.getEnumConstants()) {
+            if (value.getCode() == code) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Mã " + code + " không hợp lệ cho " + type.getSimpleName());
+    }
+
+    /**
+     * Converter dùng chung, mỗi enum khai báo một lớp con và gắn bằng @Convert trên thuộc tính
+     */
+    abstract class Converter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Integer> {
+
+        private final Class<E> type;
+
+        protected Converter(Class<E> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Integer convertToDatabaseColumn(E attribute) {
+            return codeOf(attribute);
+        }
+
+        @Override
+        public E convertToEntityAttribute(Integer dbData) {
+            return fromCode(type, dbData);
+        }
+    }
+}
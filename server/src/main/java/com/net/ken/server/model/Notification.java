@@ -2,17 +2,24 @@ package com.net.ken.server.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications")
-@Data
+@Filter(name = User.OWNER_FILTER, condition = User.OWNER_FILTER_CONDITION)
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
+    @ToString.Include
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,12 +27,15 @@ public class Notification {
     @Column(nullable = false)
     private String message;
 
-    @Enumerated(EnumType.STRING)
+    @ToString.Include
+    @Convert(converter = NotificationTypeConverter.class)
     private NotificationType type;
 
-    @Enumerated(EnumType.STRING)
+    // Mã ưu tiên cũng là thứ hạng giống Task.Priority, ORDER BY priority trả URGENT trước
+    @Convert(converter = NotificationPriorityConverter.class)
     private NotificationPriority priority = NotificationPriority.NORMAL;
 
+    @ToString.Include
     @Column(name = "is_read")
     private boolean read = false;
 
@@ -90,11 +100,61 @@ public class Notification {
         }
     }
 
-    public enum NotificationType {
-        DEADLINE_APPROACHING, DEADLINE_OVERDUE, TASK_ASSIGNED, TASK_COMPLETED, PRIORITY_CHANGED
+    public enum NotificationType implements CodedEnum {
+        DEADLINE_APPROACHING(1), DEADLINE_OVERDUE(2), TASK_ASSIGNED(3), TASK_COMPLETED(4), PRIORITY_CHANGED(5);
+
+        private final int code;
+
+        NotificationType(int code) {
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
     }
     
-    public enum NotificationPriority {
-        LOW, NORMAL, HIGH, URGENT
+    public enum NotificationPriority implements CodedEnum {
+        LOW(4), NORMAL(3), HIGH(2), URGENT(1);
+
+        private final int code;
+
+        NotificationPriority(int code) {
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+    }
+
+    public static class NotificationTypeConverter extends CodedEnum.Converter<NotificationType> {
+        public NotificationTypeConverter() {
+            super(NotificationType.class);
+        }
+    }
+
+    public static class NotificationPriorityConverter extends CodedEnum.Converter<NotificationPriority> {
+        public NotificationPriorityConverter() {
+            super(NotificationPriority.class);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Notification other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Notification.class.hashCode();
     }
-} 
\ No newline at end of file
+}
@@ -2,8 +2,13 @@ package com.net.ken.server.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -11,14 +16,20 @@ import java.util.List;
 
 @Entity
 @Table(name = "projects")
-@Data
+@Filter(name = User.OWNER_FILTER, condition = User.OWNER_FILTER_CONDITION)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project")
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Project {
+    @ToString.Include
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @ToString.Include
     @Column(nullable = false)
     private String name;
 
@@ -47,4 +58,20 @@ public class Project {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-} 
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Project other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Project.class.hashCode();
+    }
+}
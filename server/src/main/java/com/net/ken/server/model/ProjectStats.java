@@ -0,0 +1,50 @@
+package com.net.ken.server.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Số liệu tổng hợp của một dự án (bảng project_stats).
+ * Chỉ đọc qua JPA; việc ghi do ProjectStatsService thực hiện bằng các câu UPDATE cộng dồn.
+ */
+@Entity
+@Table(name = "project_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStats {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "task_count")
+    private int taskCount;
+
+    @Column(name = "not_started_count")
+    private int notStartedCount;
+
+    @Column(name = "in_progress_count")
+    private int inProgressCount;
+
+    @Column(name = "completed_count")
+    private int completedCount;
+
+    @Column(name = "on_hold_count")
+    private int onHoldCount;
+
+    @Column(name = "progress_sum")
+    private long progressSum;
+
+    @Column(name = "overdue_count")
+    private int overdueCount;
+
+    @Column(name = "next_due_date")
+    private LocalDateTime nextDueDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -2,22 +2,33 @@ package com.net.ken.server.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "tags")
-@Data
+@Filter(name = User.OWNER_FILTER, condition = User.OWNER_FILTER_CONDITION)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Tag {
+    @ToString.Include
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @ToString.Include
     @Column(nullable = false, unique = true)
     private String name;
 
@@ -29,4 +40,20 @@ public class Tag {
 
     @ManyToMany(mappedBy = "tags")
     private Set<Task> tasks = new HashSet<>();
-} 
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Tag other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Tag.class.hashCode();
+    }
+}
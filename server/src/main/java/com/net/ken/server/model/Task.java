@@ -2,27 +2,37 @@ package com.net.ken.server.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+// Chỉ mục của bảng được khai báo trong db/migration (V6__hot_query_indexes.sql)
 @Table(name = "tasks")
-@Data
+@Filter(name = User.OWNER_FILTER, condition = User.OWNER_FILTER_CONDITION)
+@Getter
+@Setter
+// Chỉ in các trường đơn giản: không nạp tags, project, user
+@ToString(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
+    @ToString.Include
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @ToString.Include
     @Column(nullable = false)
     private String title;
 
-    private String description;
+    // Mô tả nằm ở bảng task_descriptions (TaskDescription) để danh sách không phải đọc
 
     @Column(name = "start_date")
     private LocalDateTime startDate;
@@ -36,15 +46,17 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @Enumerated(EnumType.STRING)
+    // Mã ưu tiên cũng là thứ hạng: ORDER BY priority đi theo chỉ mục (user_id, priority, due_date)
+    @Convert(converter = PriorityConverter.class)
     private Priority priority;
 
-    @Enumerated(EnumType.STRING)
+    @ToString.Include
+    @Convert(converter = StatusConverter.class)
     private Status status;
 
     private Integer progress;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = DueStatusConverter.class)
     private DueStatus dueStatus = DueStatus.NORMAL;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -90,33 +102,119 @@ public class Task {
     }
     
     private void updateDueStatus() {
+        dueStatus = computeDueStatus(dueDate, status, LocalDateTime.now());
+    }
+    
+    /**
+     * Tính trạng thái hạn mức từ hạn chót và trạng thái, dùng chung cho entity và các thao tác ghi bằng JDBC
+     */
+    public static DueStatus computeDueStatus(LocalDateTime dueDate, Status status, LocalDateTime now) {
         if (dueDate == null || Status.COMPLETED.equals(status)) {
-            dueStatus = DueStatus.NORMAL;
-            return;
+            return DueStatus.NORMAL;
         }
         
-        LocalDateTime today = LocalDateTime.now();
-        LocalDateTime todayStart = today.toLocalDate().atStartOfDay();
-        LocalDateTime todayEnd = today.toLocalDate().plusDays(1).atStartOfDay().minusNanos(1);
+        LocalDateTime todayStart = now.toLocalDate().atStartOfDay();
+        LocalDateTime todayEnd = now.toLocalDate().plusDays(1).atStartOfDay().minusNanos(1);
         
         if (dueDate.isBefore(todayStart)) {
-            dueStatus = DueStatus.OVERDUE;
+            return DueStatus.OVERDUE;
         } else if (dueDate.isAfter(todayStart) && dueDate.isBefore(todayEnd)) {
-            dueStatus = DueStatus.DUE_SOON;
+            return DueStatus.DUE_SOON;
         } else {
-            dueStatus = DueStatus.NORMAL;
+            return DueStatus.NORMAL;
+        }
+    }
+
+    /**
+     * Trạng thái đi kèm một mức tiến độ khi người dùng chỉ đổi tiến độ
+     */
+    public static Status statusForProgress(int progress) {
+        if (progress == 100) {
+            return Status.COMPLETED;
         }
+        return progress == 0 ? Status.NOT_STARTED : Status.IN_PROGRESS;
     }
 
-    public enum Priority {
-        LOW, MEDIUM, HIGH, URGENT
+    // Mã nhỏ hơn là khẩn cấp hơn (URGENT = 1)
+    public enum Priority implements CodedEnum {
+        LOW(4), MEDIUM(3), HIGH(2), URGENT(1);
+
+        private final int code;
+
+        Priority(int code) {
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
     }
 
-    public enum Status {
-        NOT_STARTED, IN_PROGRESS, COMPLETED, ON_HOLD
+    public enum Status implements CodedEnum {
+        NOT_STARTED(1), IN_PROGRESS(2), COMPLETED(3), ON_HOLD(4);
+
+        private final int code;
+
+        Status(int code) {
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
     }
     
-    public enum DueStatus {
-        NORMAL, DUE_SOON, OVERDUE
+    public enum DueStatus implements CodedEnum {
+        NORMAL(1), DUE_SOON(2), OVERDUE(3);
+
+        private final int code;
+
+        DueStatus(int code) {
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+    }
+
+    public static class PriorityConverter extends CodedEnum.Converter<Priority> {
+        public PriorityConverter() {
+            super(Priority.class);
+        }
+    }
+
+    public static class StatusConverter extends CodedEnum.Converter<Status> {
+        public StatusConverter() {
+            super(Status.class);
+        }
+    }
+
+    public static class DueStatusConverter extends CodedEnum.Converter<DueStatus> {
+        public DueStatusConverter() {
+            super(DueStatus.class);
+        }
+    }
+
+    // Hai entity bằng nhau khi cùng id; entity chưa lưu chỉ bằng chính nó. Không so sánh các trường khác
+    // để không nạp quan hệ lazy, và đọc id qua getter vì o có thể là proxy của Hibernate (trường của proxy rỗng)
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Task other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    // Không phụ thuộc id để không đổi khi IDENTITY gán id lúc persist (entity đang nằm trong HashSet)
+    @Override
+    public int hashCode() {
+        return Task.class.hashCode();
     }
-} 
\ No newline at end of file
+}
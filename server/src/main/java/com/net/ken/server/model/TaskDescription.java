@@ -0,0 +1,62 @@
+package com.net.ken.server.model;
+
+import com.net.ken.server.util.TextCompressionUtil;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Mô tả của task, tách khỏi bảng tasks để danh sách không phải đọc (chỉ đọc khi xem chi tiết, export
+ * hoặc dựng chỉ mục tìm kiếm). Dùng chung khóa chính với task, dòng bị xóa theo task (ON DELETE CASCADE).
+ * Task không có mô tả thì không có dòng.
+ */
+@Entity
+// Lược đồ trong db/migration (V11__task_descriptions.sql)
+@Table(name = "task_descriptions")
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDescription {
+    @ToString.Include
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    // Nén LZ4 khi đủ dài (TextCompressionUtil), giải nén khi đọc
+    @Convert(converter = ContentConverter.class)
+    @Column(nullable = false)
+    private String content;
+
+    public static class ContentConverter implements AttributeConverter<String, byte[]> {
+        @Override
+        public byte[] convertToDatabaseColumn(String attribute) {
+            return TextCompressionUtil.encode(attribute);
+        }
+
+        @Override
+        public String convertToEntityAttribute(byte[] dbData) {
+            return TextCompressionUtil.decode(dbData);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskDescription other)) {
+            return false;
+        }
+        return getTaskId() != null && getTaskId().equals(other.getTaskId());
+    }
+
+    @Override
+    public int hashCode() {
+        return TaskDescription.class.hashCode();
+    }
+}
@@ -2,8 +2,16 @@ package com.net.ken.server.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.ParamDef;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,14 +25,30 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
-@Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+// Ánh xạ username -> ID cho UserRepository.findByUsername
+@NaturalIdCache(region = "user-username")
+// Bộ lọc theo chủ sở hữu cho các entity có cột user_id, được bật cho mỗi transaction của người dùng thường
+// (OwnerFilterTransactionManager)
+@FilterDef(name = User.OWNER_FILTER, parameters = @ParamDef(name = User.OWNER_FILTER_PARAM, type = Long.class))
+@Getter
+@Setter
+// Không in mật khẩu và roles
+@ToString(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements UserDetails {
+    public static final String OWNER_FILTER = "ownerFilter";
+    public static final String OWNER_FILTER_PARAM = "userId";
+    public static final String OWNER_FILTER_CONDITION = "user_id = :" + OWNER_FILTER_PARAM;
+
+    @ToString.Include
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @ToString.Include
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String username;
 
@@ -67,6 +91,7 @@ public class User implements UserDetails {
     private boolean enabled = true;
     
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
     private Set<String> roles = new HashSet<>();
@@ -173,4 +198,20 @@ public class User implements UserDetails {
     public boolean isEnabled() {
         return enabled;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return User.class.hashCode();
+    }
+}
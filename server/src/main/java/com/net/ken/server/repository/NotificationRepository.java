@@ -2,24 +2,42 @@ package com.net.ken.server.repository;
 
 import com.net.ken.server.model.Notification;
 import com.net.ken.server.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    // Các danh sách trả về cho client nạp kèm task (convertToDTO đọc tiêu đề task) để tránh N+1 query
+    @EntityGraph(attributePaths = {"task"})
     List<Notification> findByUserOrderByCreatedAtDesc(User user);
     
+    @EntityGraph(attributePaths = {"task"})
     List<Notification> findByUserAndReadOrderByCreatedAtDesc(User user, boolean read);
     
     List<Notification> findByReadOrderByCreatedAtDesc(boolean read);
     
+    // Quyền sở hữu nằm trong điều kiện truy vấn: không có dòng nào nghĩa là không tồn tại hoặc của người khác
+    @EntityGraph(attributePaths = {"task"})
+    Optional<Notification> findByIdAndUser(Long id, User user);
+    
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.user = :user")
+    int deleteByIdAndUser(@Param("id") Long id, @Param("user") User user);
+    
+    @EntityGraph(attributePaths = {"task"})
     List<Notification> findByTaskIdAndUser(Long taskId, User user);
     
     List<Notification> findByTaskId(Long taskId);
     
+    @EntityGraph(attributePaths = {"task"})
     List<Notification> findByUserAndCreatedAtAfterOrderByCreatedAtDesc(User user, LocalDateTime date);
     
     List<Notification> findByCreatedAtAfterOrderByCreatedAtDesc(LocalDateTime date);
@@ -1,32 +1,48 @@
 package com.net.ken.server.repository;
 
+import com.net.ken.server.dto.ProjectSummaryDTO;
 import com.net.ken.server.model.Project;
 import com.net.ken.server.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
-    // Lọc dự án theo người dùng với eager loading tasks
-    @EntityGraph(attributePaths = {"tasks"})
+    // Các truy vấn dự án không nạp danh sách tasks; task của dự án được lấy theo trang qua TaskService
     List<Project> findByUser(User user);
     
     // Phân trang cho findByUser
-    @EntityGraph(attributePaths = {"tasks"})
     Page<Project> findByUser(User user, Pageable pageable);
     
     // Tìm dự án theo ID và người dùng để đảm bảo quyền truy cập
-    @EntityGraph(attributePaths = {"tasks"})
     Optional<Project> findByIdAndUser(Long id, User user);
     
-    // Ghi đè phương thức findById để sử dụng EntityGraph
-    @Override
-    @EntityGraph(attributePaths = {"tasks"})
-    Optional<Project> findById(Long id);
-} 
\ No newline at end of file
+    boolean existsByIdAndUser(Long id, User user);
+    
+    // Các dự án thuộc người dùng trong danh sách ID, dự án của người khác không được trả về
+    List<Project> findByIdInAndUser(Collection<Long> ids, User user);
+
+    // Dự án của người dùng kèm số liệu tổng hợp, không đọc bảng tasks; mỗi dòng là [Project, ProjectStats hoặc null]
+    @Query("SELECT p, s FROM Project p LEFT JOIN ProjectStats s ON s.projectId = p.id WHERE p.user = :user ORDER BY p.id")
+    List<Object[]> findWithStatsByUser(@Param("user") User user);
+
+    // Một dự án của người dùng kèm số liệu tổng hợp; rỗng nếu không tồn tại hoặc thuộc người dùng khác
+    @Query("SELECT p, s FROM Project p LEFT JOIN ProjectStats s ON s.projectId = p.id WHERE p.id = :id AND p.user = :user")
+    List<Object[]> findWithStatsByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    // ID, tên và số task của các dự án, dùng cho danh sách chọn dự án
+    @Query("SELECT new com.net.ken.server.dto.ProjectSummaryDTO(p.id, p.name, COALESCE(s.taskCount, 0), COALESCE(s.completedCount, 0)) " +
+           "FROM Project p LEFT JOIN ProjectStats s ON s.projectId = p.id WHERE p.user = :user ORDER BY p.name")
+    List<ProjectSummaryDTO> findSummariesByUser(@Param("user") User user);
+
+    // Số dự án của người dùng, dùng cho Dashboard
+    long countByUser(User user);
+}
@@ -0,0 +1,160 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.Task.Status;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ghi bảng project_stats bằng JDBC: cộng dồn delta theo từng dự án và tính lại từ bảng tasks khi đối soát.
+ */
+@Repository
+public class ProjectStatsJdbcRepository {
+
+    private static final String APPLY_DELTA_SQL = "UPDATE project_stats SET "
+            + "task_count = task_count + :taskCount, "
+            + "not_started_count = not_started_count + :notStartedCount, "
+            + "in_progress_count = in_progress_count + :inProgressCount, "
+            + "completed_count = completed_count + :completedCount, "
+            + "on_hold_count = on_hold_count + :onHoldCount, "
+            + "progress_sum = progress_sum + :progressSum, "
+            + "overdue_count = overdue_count + :overdueCount, "
+            + "next_due_date = CASE WHEN :addedDueDate IS NOT NULL AND (next_due_date IS NULL OR :addedDueDate < next_due_date) "
+            + "THEN :addedDueDate ELSE next_due_date END, "
+            + "updated_at = :now "
+            + "WHERE project_id = :projectId";
+
+    // Hạn chót sớm nhất chỉ cần tính lại khi task đang giữ giá trị đó bị xóa, hoàn thành hoặc đổi hạn
+    private static final String RECOMPUTE_NEXT_DUE_DATE_SQL = "UPDATE project_stats SET next_due_date = "
+            + "(SELECT MIN(t.due_date) FROM tasks t WHERE t.project_id = :projectId AND t.status <> :completed) "
+            + "WHERE project_id = :projectId AND next_due_date >= :removedDueDate";
+
+    // Tính lại toàn bộ số liệu của các dự án từ bảng tasks; bảng dẫn xuất cho phép ON DUPLICATE KEY UPDATE tham chiếu kết quả GROUP BY.
+    // overdue_count đếm theo due_status đã lưu, cùng nguồn với delta (DueStatusService cộng +1 khi chuyển dòng sang OVERDUE);
+    // tính theo due_date ở đây sẽ đếm trước các dòng job due-status chưa chuyển và bị cộng thêm lần nữa sau đó
+    private static final String RECONCILE_SQL = "INSERT INTO project_stats "
+            + "(project_id, task_count, not_started_count, in_progress_count, completed_count, on_hold_count, "
+            + "progress_sum, overdue_count, next_due_date, updated_at) "
+            + "SELECT * FROM (SELECT p.id AS project_id, "
+            + "COUNT(t.id) AS task_count, "
+            + "COALESCE(SUM(t.status = :notStarted), 0) AS not_started_count, "
+            + "COALESCE(SUM(t.status = :inProgress), 0) AS in_progress_count, "
+            + "COALESCE(SUM(t.status = :completed), 0) AS completed_count, "
+            + "COALESCE(SUM(t.status = :onHold), 0) AS on_hold_count, "
+            + "COALESCE(SUM(COALESCE(t.progress, 0)), 0) AS progress_sum, "
+            + "COALESCE(SUM(t.due_status = :overdue), 0) AS overdue_count, "
+            + "MIN(CASE WHEN t.status <> :completed THEN t.due_date END) AS next_due_date, "
+            + ":now AS updated_at "
+            + "FROM projects p LEFT JOIN tasks t ON t.project_id = p.id "
+            + "WHERE p.id IN (:projectIds) GROUP BY p.id) AS s "
+            + "ON DUPLICATE KEY UPDATE task_count = s.task_count, not_started_count = s.not_started_count, "
+            + "in_progress_count = s.in_progress_count, completed_count = s.completed_count, "
+            + "on_hold_count = s.on_hold_count, progress_sum = s.progress_sum, overdue_count = s.overdue_count, "
+            + "next_due_date = s.next_due_date, updated_at = s.updated_at";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    public ProjectStatsJdbcRepository(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Thay đổi cần cộng vào số liệu của một dự án
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Delta {
+        private long projectId;
+        private int taskCount;
+        private int notStartedCount;
+        private int inProgressCount;
+        private int completedCount;
+        private int onHoldCount;
+        private long progressSum;
+        private int overdueCount;
+        // Hạn chót sớm nhất trong các task chưa hoàn thành được thêm vào dự án
+        private LocalDateTime addedDueDate;
+        // Hạn chót sớm nhất trong các task chưa hoàn thành bị bỏ khỏi dự án
+        private LocalDateTime removedDueDate;
+
+        public Delta(long projectId) {
+            this.projectId = projectId;
+        }
+
+        public boolean isEmpty() {
+            return taskCount == 0 && notStartedCount == 0 && inProgressCount == 0 && completedCount == 0
+                    && onHoldCount == 0 && progressSum == 0 && overdueCount == 0
+                    && addedDueDate == null && removedDueDate == null;
+        }
+    }
+
+    /**
+     * Cộng delta vào dòng của dự án
+     * @return Số dòng được cập nhật, 0 nếu dự án chưa có dòng project_stats
+     */
+    public int applyDelta(Delta delta, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource("projectId", delta.getProjectId())
+                .addValue("taskCount", delta.getTaskCount())
+                .addValue("notStartedCount", delta.getNotStartedCount())
+                .addValue("inProgressCount", delta.getInProgressCount())
+                .addValue("completedCount", delta.getCompletedCount())
+                .addValue("onHoldCount", delta.getOnHoldCount())
+                .addValue("progressSum", delta.getProgressSum())
+                .addValue("overdueCount", delta.getOverdueCount())
+                .addValue("addedDueDate", toTimestamp(delta.getAddedDueDate()), Types.TIMESTAMP)
+                .addValue("now", Timestamp.valueOf(now));
+        return namedJdbcTemplate.update(APPLY_DELTA_SQL, params);
+    }
+
+    /**
+     * Tính lại next_due_date nếu giá trị hiện tại là hạn chót vừa bị bỏ khỏi dự án.
+     * Đọc bảng tasks nên các thay đổi của transaction phải được flush trước.
+     */
+    public int recomputeNextDueDate(long projectId, LocalDateTime removedDueDate) {
+        return namedJdbcTemplate.update(RECOMPUTE_NEXT_DUE_DATE_SQL,
+                new MapSqlParameterSource("projectId", projectId)
+                        .addValue("completed", Status.COMPLETED.getCode())
+                        .addValue("removedDueDate", Timestamp.valueOf(removedDueDate)));
+    }
+
+    /**
+     * Tính lại (hoặc tạo) dòng project_stats của các dự án từ bảng tasks
+     * @return Số dòng bị ảnh hưởng theo quy ước của MySQL (1 khi thêm, 2 khi cập nhật)
+     */
+    public int reconcile(Collection<Long> projectIds, LocalDateTime now) {
+        if (projectIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("projectIds", projectIds)
+                .addValue("notStarted", Status.NOT_STARTED.getCode())
+                .addValue("inProgress", Status.IN_PROGRESS.getCode())
+                .addValue("completed", Status.COMPLETED.getCode())
+                .addValue("onHold", Status.ON_HOLD.getCode())
+                .addValue("overdue", Task.DueStatus.OVERDUE.getCode())
+                .addValue("now", Timestamp.valueOf(now));
+        return namedJdbcTemplate.update(RECONCILE_SQL, params);
+    }
+
+    // ID dự án theo thứ tự tăng dần, dùng để đối soát theo từng đoạn
+    public List<Long> findProjectIdsAfter(long lastId, int limit) {
+        return namedJdbcTemplate.queryForList(
+                "SELECT id FROM projects WHERE id > :lastId ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource("lastId", lastId).addValue("limit", limit),
+                Long.class);
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -2,20 +2,34 @@ package com.net.ken.server.repository;
 
 import com.net.ken.server.model.Tag;
 import com.net.ken.server.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
+    // Quyền sở hữu nằm trong điều kiện truy vấn: không có dòng nào nghĩa là không tồn tại hoặc của người khác
+    Optional<Tag> findByIdAndUser(Long id, User user);
+    
+    // Các tag thuộc người dùng trong danh sách ID, tag của người khác không được trả về
+    List<Tag> findByIdInAndUser(Collection<Long> ids, User user);
+    
     // Tìm tag theo tên và người dùng
     Optional<Tag> findByNameAndUser(String name, User user);
     
-    // Lọc tags theo người dùng
+    // Lọc tags theo người dùng; kết quả nằm trong query cache đến khi bảng tags có thay đổi
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Tag> findByUser(User user);
     
     // Kiểm tra tag đã tồn tại cho người dùng chưa
     boolean existsByNameAndUser(String name, User user);
+
+    // Tên thẻ là duy nhất trên toàn hệ thống
+    boolean existsByName(String name);
 } 
\ No newline at end of file
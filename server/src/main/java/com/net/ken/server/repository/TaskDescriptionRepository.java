@@ -0,0 +1,19 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.model.TaskDescription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Bảng không có user_id: chỉ tra cứu theo ID của task đã được kiểm tra quyền sở hữu
+ */
+@Repository
+public interface TaskDescriptionRepository extends JpaRepository<TaskDescription, Long> {
+    // Chỉ đọc nội dung (đã giải nén), không đưa entity vào persistence context
+    @Query("SELECT d.content FROM TaskDescription d WHERE d.taskId = :taskId")
+    Optional<String> findContentByTaskId(@Param("taskId") Long taskId);
+}
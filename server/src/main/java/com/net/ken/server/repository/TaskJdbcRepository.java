@@ -0,0 +1,385 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.dto.TaskRollupDTO;
+import com.net.ken.server.dto.TaskStatusDTO;
+import com.net.ken.server.model.CodedEnum;
+import com.net.ken.server.model.Task;
+import com.net.ken.server.util.TextCompressionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Các thao tác ghi hàng loạt trên bảng tasks bằng JDBC.
+ * Task dùng khóa IDENTITY nên Hibernate không gộp được INSERT; ở đây INSERT được gửi theo lô
+ * (kết hợp rewriteBatchedStatements=true của MySQL) và UPDATE/DELETE chạy theo tập hợp.
+ * Các câu lệnh không đi qua persistence context: không gọi @PrePersist/@PreUpdate,
+ * nên created_at, updated_at và due_status được gán trực tiếp.
+ */
+@Repository
+public class TaskJdbcRepository {
+
+    private static final String INSERT_TASK_SQL = "INSERT INTO tasks "
+            + "(title, start_date, due_date, created_at, updated_at, "
+            + "priority, status, progress, due_status, project_id, user_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // due_status tính giống Task.computeDueStatus; các cột enum lưu mã CodedEnum
+    private static final String DUE_STATUS_EXPRESSION = "CASE "
+            + "WHEN due_date IS NULL OR status = " + Task.Status.COMPLETED.getCode()
+            + " THEN " + Task.DueStatus.NORMAL.getCode() + " "
+            + "WHEN due_date < :todayStart THEN " + Task.DueStatus.OVERDUE.getCode() + " "
+            + "WHEN due_date > :todayStart AND due_date < :tomorrowStart THEN " + Task.DueStatus.DUE_SOON.getCode() + " "
+            + "ELSE " + Task.DueStatus.NORMAL.getCode() + " END";
+
+    // MySQL gán SET từ trái sang phải nên biểu thức dùng giá trị mới của status và due_date
+    private static final String DUE_STATUS_ASSIGNMENT = "due_status = " + DUE_STATUS_EXPRESSION;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    public TaskJdbcRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * INSERT các task theo lô và gán ID sinh ra vào từng task
+     * @param tasks Task chưa lưu, đã gán đầy đủ các trường (kể cả createdAt, updatedAt, dueStatus)
+     * @param batchSize Số dòng mỗi lần executeBatch
+     */
+    public void insertTasks(List<Task> tasks, int batchSize) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_TASK_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                int keyIndex = 0;
+                for (int i = 0; i < tasks.size(); i++) {
+                    bindTask(ps, tasks.get(i));
+                    ps.addBatch();
+                    if ((i + 1) % batchSize == 0 || i == tasks.size() - 1) {
+                        ps.executeBatch();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            while (keys.next()) {
+                                tasks.get(keyIndex++).setId(keys.getLong(1));
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private void bindTask(PreparedStatement ps, Task task) throws SQLException {
+        ps.setString(1, task.getTitle());
+        setTimestamp(ps, 2, task.getStartDate());
+        setTimestamp(ps, 3, task.getDueDate());
+        setTimestamp(ps, 4, task.getCreatedAt());
+        setTimestamp(ps, 5, task.getUpdatedAt());
+        ps.setObject(6, CodedEnum.codeOf(task.getPriority()), Types.TINYINT);
+        ps.setObject(7, CodedEnum.codeOf(task.getStatus()), Types.TINYINT);
+        ps.setInt(8, task.getProgress() != null ? task.getProgress() : 0);
+        ps.setObject(9, CodedEnum.codeOf(task.getDueStatus()), Types.TINYINT);
+        if (task.getProject() != null) {
+            ps.setLong(10, task.getProject().getId());
+        } else {
+            ps.setNull(10, Types.BIGINT);
+        }
+        ps.setLong(11, task.getUser().getId());
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    /**
+     * INSERT mô tả của các task vừa tạo theo lô, nén giống TaskDescription; mô tả null hoặc rỗng không tạo dòng
+     * @param tasks Task đã có ID (sau insertTasks)
+     * @param descriptions Mô tả theo cùng thứ tự với tasks
+     */
+    public void insertDescriptions(List<Task> tasks, List<String> descriptions, int batchSize) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            String description = descriptions.get(i);
+            if (description != null && !description.isEmpty()) {
+                rows.add(new Object[]{tasks.get(i).getId(), TextCompressionUtil.encode(description)});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO task_descriptions (task_id, content) VALUES (?, ?)",
+                rows, batchSize, (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setBytes(2, (byte[]) row[1]);
+                });
+    }
+
+    /**
+     * INSERT các cặp (task_id, tag_id) theo lô; cặp đã tồn tại được bỏ qua
+     */
+    public void insertTaskTags(List<long[]> taskTagPairs, int batchSize) {
+        if (taskTagPairs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO task_tags (task_id, tag_id) VALUES (?, ?)",
+                taskTagPairs, batchSize, (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                });
+    }
+
+    // Các ID trong danh sách thuộc về người dùng
+    public List<Long> findOwnedTaskIds(Collection<Long> taskIds, Long userId) {
+        if (taskIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return namedJdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE id IN (:ids) AND user_id = :userId",
+                new MapSqlParameterSource("ids", taskIds).addValue("userId", userId),
+                Long.class);
+    }
+
+    /**
+     * Các trường ảnh hưởng đến số liệu dự án của những task thuộc dự án trong danh sách,
+     * đọc trước và sau một thao tác hàng loạt để tính delta cho project_stats
+     */
+    public List<TaskRollupDTO> findRollups(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return namedJdbcTemplate.query(
+                "SELECT project_id, user_id, status, progress, due_date, due_status FROM tasks "
+                        + "WHERE id IN (:ids) AND project_id IS NOT NULL",
+                new MapSqlParameterSource("ids", taskIds),
+                (rs, rowNum) -> {
+                    Timestamp dueDate = rs.getTimestamp("due_date");
+                    return new TaskRollupDTO(
+                            rs.getLong("project_id"),
+                            rs.getLong("user_id"),
+                            readCode(rs, "status", Task.Status.class),
+                            rs.getInt("progress"),
+                            dueDate != null ? dueDate.toLocalDateTime() : null,
+                            readCode(rs, "due_status", Task.DueStatus.class) == Task.DueStatus.OVERDUE);
+                });
+    }
+
+    // Hạn chót sớm nhất và muộn nhất trong bảng tasks, rỗng nếu không task nào có hạn chót
+    public List<LocalDateTime> findDueDateRange() {
+        return jdbcTemplate.query("SELECT MIN(due_date), MAX(due_date) FROM tasks",
+                (rs, rowNum) -> {
+                    Timestamp min = rs.getTimestamp(1);
+                    Timestamp max = rs.getTimestamp(2);
+                    return min != null ? List.of(min.toLocalDateTime(), max.toLocalDateTime()) : List.<LocalDateTime>of();
+                }).get(0);
+    }
+
+    /**
+     * ID các task có hạn chót trong [from, to) mà due_status đã lưu khác giá trị tính tại thời điểm now.
+     * Quét theo idx_tasks_due_date và khóa các dòng tìm được đến hết transaction.
+     */
+    public List<Long> findStaleDueStatusIds(LocalDateTime from, LocalDateTime to, LocalDateTime now, int limit) {
+        return namedJdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE due_date >= :from AND due_date < :to "
+                        + "AND NOT (due_status <=> " + DUE_STATUS_EXPRESSION + ") "
+                        + "ORDER BY due_date, id LIMIT :limit FOR UPDATE",
+                dueStatusParams(now).addValue("from", Timestamp.valueOf(from))
+                        .addValue("to", Timestamp.valueOf(to))
+                        .addValue("limit", limit),
+                Long.class);
+    }
+
+    /**
+     * Tính lại due_status của các task; chỉ ghi những dòng thực sự đổi giá trị
+     * @return Số dòng đã đổi due_status
+     */
+    public int recomputeDueStatus(Collection<Long> taskIds, LocalDateTime now) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(
+                "UPDATE tasks SET " + DUE_STATUS_ASSIGNMENT
+                        + " WHERE id IN (:ids) AND NOT (due_status <=> " + DUE_STATUS_EXPRESSION + ")",
+                dueStatusParams(now).addValue("ids", taskIds));
+    }
+
+    private static MapSqlParameterSource dueStatusParams(LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("todayStart", Timestamp.valueOf(now.toLocalDate().atStartOfDay()))
+                .addValue("tomorrowStart", Timestamp.valueOf(now.toLocalDate().plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Trạng thái, tiến độ và hạn chót của một task thuộc người dùng
+     * @param forUpdate Khóa dòng đến hết transaction (đọc trạng thái trước khi sửa)
+     */
+    public Optional<TaskStatusDTO> findStatus(Long id, Long userId, boolean forUpdate) {
+        List<TaskStatusDTO> rows = namedJdbcTemplate.query(
+                "SELECT id, project_id, status, progress, due_date, due_status, updated_at FROM tasks "
+                        + "WHERE id = :id AND user_id = :userId" + (forUpdate ? " FOR UPDATE" : ""),
+                new MapSqlParameterSource("id", id).addValue("userId", userId),
+                (rs, rowNum) -> {
+                    // getLong trả 0 cho NULL: task không thuộc dự án phải có projectId null
+                    Long projectId = rs.getObject("project_id", Long.class);
+                    Timestamp dueDate = rs.getTimestamp("due_date");
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    Task.Status status = readCode(rs, "status", Task.Status.class);
+                    Task.DueStatus dueStatus = readCode(rs, "due_status", Task.DueStatus.class);
+                    return new TaskStatusDTO(
+                            rs.getLong("id"),
+                            projectId,
+                            status != null ? status.name() : null,
+                            rs.getInt("progress"),
+                            dueDate != null ? dueDate.toLocalDateTime() : null,
+                            dueStatus != null ? dueStatus.name() : null,
+                            updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                });
+        return rows.stream().findFirst();
+    }
+
+    private static <E extends Enum<E> & CodedEnum> E readCode(ResultSet rs, String column, Class<E> type)
+            throws SQLException {
+        return CodedEnum.fromCode(type, rs.getObject(column, Integer.class));
+    }
+
+    /**
+     * Đổi trạng thái của một task bằng một câu UPDATE: COMPLETED đặt tiến độ 100, NOT_STARTED đặt 0,
+     * due_status được tính lại theo trạng thái mới. Câu lệnh chỉ khớp khi dòng thuộc người dùng và vẫn đúng
+     * như ảnh trước đã đọc, nên khi trả về 1 thì ảnh trước chính là giá trị bị thay thế và ảnh sau suy ra được
+     * ({@link TaskStatusDTO#withStatus}) mà không cần khóa dòng trước hay đọc lại.
+     * @param expected Ảnh trước đã đọc bằng {@link #findStatus}
+     * @return 1 nếu đã cập nhật, 0 nếu task không thuộc người dùng hoặc đã bị sửa sau khi đọc
+     */
+    public int updateStatus(Long id, Long userId, Task.Status status, TaskStatusDTO expected, LocalDateTime now) {
+        return namedJdbcTemplate.update(
+                "UPDATE tasks SET status = :status, "
+                        + "progress = CASE :status WHEN " + Task.Status.COMPLETED.getCode() + " THEN 100 "
+                        + "WHEN " + Task.Status.NOT_STARTED.getCode() + " THEN 0 ELSE progress END, "
+                        + "updated_at = :now, " + DUE_STATUS_ASSIGNMENT
+                        + " WHERE id = :id AND user_id = :userId"
+                        + " AND status <=> :oldStatus AND progress <=> :oldProgress AND due_status <=> :oldDueStatus"
+                        + " AND project_id <=> :oldProjectId AND due_date <=> :oldDueDate",
+                dueStatusParams(now).addValue("id", id).addValue("userId", userId)
+                        .addValue("status", status.getCode())
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("oldStatus", expected.getStatus() != null
+                                ? Task.Status.valueOf(expected.getStatus()).getCode() : null)
+                        .addValue("oldProgress", expected.getProgress())
+                        .addValue("oldDueStatus", expected.getDueStatus() != null
+                                ? Task.DueStatus.valueOf(expected.getDueStatus()).getCode() : null)
+                        .addValue("oldProjectId", expected.getProjectId())
+                        .addValue("oldDueDate", expected.getDueDate() != null
+                                ? Timestamp.valueOf(expected.getDueDate()) : null));
+    }
+
+    /**
+     * Đổi tiến độ của một task bằng một câu UPDATE: 100 là COMPLETED, 0 là NOT_STARTED, còn lại IN_PROGRESS,
+     * due_status được tính lại theo trạng thái mới
+     * @return 1 nếu task thuộc người dùng, 0 nếu không
+     */
+    public int updateProgress(Long id, Long userId, int progress, LocalDateTime now) {
+        return namedJdbcTemplate.update(
+                "UPDATE tasks SET progress = :progress, "
+                        + "status = CASE :progress WHEN 100 THEN " + Task.Status.COMPLETED.getCode()
+                        + " WHEN 0 THEN " + Task.Status.NOT_STARTED.getCode()
+                        + " ELSE " + Task.Status.IN_PROGRESS.getCode() + " END, "
+                        + "updated_at = :now, " + DUE_STATUS_ASSIGNMENT
+                        + " WHERE id = :id AND user_id = :userId",
+                dueStatusParams(now).addValue("id", id).addValue("userId", userId)
+                        .addValue("progress", progress)
+                        .addValue("now", Timestamp.valueOf(now)));
+    }
+
+    /**
+     * Gán cùng giá trị cho các cột của nhiều task bằng một câu UPDATE, đồng thời cập nhật updated_at và due_status
+     * @param columnValues Tên cột -> giá trị; tên cột do service quy định, không lấy từ request.
+     *                     Giá trị enum (CodedEnum) được ghi bằng mã
+     * @return Số dòng được cập nhật
+     */
+    public int updateColumns(Collection<Long> taskIds, Long userId, Map<String, Object> columnValues, LocalDateTime now) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", taskIds)
+                .addValue("userId", userId)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("todayStart", Timestamp.valueOf(now.toLocalDate().atStartOfDay()))
+                .addValue("tomorrowStart", Timestamp.valueOf(now.toLocalDate().plusDays(1).atStartOfDay()));
+
+        StringBuilder sql = new StringBuilder("UPDATE tasks SET ");
+        for (Map.Entry<String, Object> column : columnValues.entrySet()) {
+            String param = "v_" + column.getKey();
+            Object value = column.getValue();
+            if (value instanceof LocalDateTime dateTime) {
+                value = Timestamp.valueOf(dateTime);
+            } else if (value instanceof CodedEnum coded) {
+                value = coded.getCode();
+            }
+            sql.append(column.getKey()).append(" = :").append(param).append(", ");
+            params.addValue(param, value);
+        }
+        sql.append("updated_at = :now, ").append(DUE_STATUS_ASSIGNMENT)
+                .append(" WHERE id IN (:ids) AND user_id = :userId");
+
+        return namedJdbcTemplate.update(sql.toString(), params);
+    }
+
+    // Bỏ các thẻ khỏi nhiều task
+    public int deleteTaskTags(Collection<Long> taskIds, Collection<Long> tagIds) {
+        if (taskIds.isEmpty() || tagIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(
+                "DELETE FROM task_tags WHERE task_id IN (:ids) AND tag_id IN (:tagIds)",
+                new MapSqlParameterSource("ids", taskIds).addValue("tagIds", tagIds));
+    }
+
+    // Cập nhật updated_at sau khi đổi thẻ để chỉ mục tìm kiếm và cache nhận biết thay đổi
+    public int touch(Collection<Long> taskIds, Long userId, LocalDateTime now) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(
+                "UPDATE tasks SET updated_at = :now WHERE id IN (:ids) AND user_id = :userId",
+                new MapSqlParameterSource("ids", taskIds).addValue("userId", userId)
+                        .addValue("now", Timestamp.valueOf(now)));
+    }
+
+    /**
+     * Xóa nhiều task cùng các dòng phụ thuộc (thông báo, liên kết thẻ; mô tả tự xóa theo khóa ngoại)
+     * @return Số task đã xóa
+     */
+    public int deleteTasks(Collection<Long> taskIds, Long userId) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", taskIds).addValue("userId", userId);
+        String ownedTasks = "SELECT id FROM tasks WHERE id IN (:ids) AND user_id = :userId";
+        namedJdbcTemplate.update("DELETE FROM notifications WHERE task_id IN (" + ownedTasks + ")", params);
+        namedJdbcTemplate.update("DELETE FROM task_tags WHERE task_id IN (" + ownedTasks + ")", params);
+        return namedJdbcTemplate.update("DELETE FROM tasks WHERE id IN (:ids) AND user_id = :userId", params);
+    }
+}
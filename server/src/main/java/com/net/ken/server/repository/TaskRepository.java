@@ -1,21 +1,156 @@
 package com.net.ken.server.repository;
 
+import com.net.ken.server.dto.TaskDTO;
+import com.net.ken.server.dto.TaskExportDTO;
+import com.net.ken.server.dto.TaskTagDTO;
 import com.net.ken.server.model.Task;
 import com.net.ken.server.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    // Projection trực tiếp sang TaskDTO: không tạo managed entity, không fetch-join tags
+    // Không có mô tả: danh sách không hiển thị, mô tả chỉ đọc khi xem chi tiết
+    String TASK_DTO_SELECT = "SELECT new com.net.ken.server.dto.TaskDTO("
+            + "t.id, t.title, t.startDate, t.dueDate, t.createdAt, t.updatedAt, "
+            + "t.priority, t.status, t.progress, t.dueStatus, p.id, p.name) "
+            + "FROM Task t LEFT JOIN t.project p";
+
+    // Một dòng cho mỗi cặp (task, tag), sắp theo id để gộp tags khi stream
+    String TASK_EXPORT_SELECT = "SELECT new com.net.ken.server.dto.TaskExportDTO("
+            + "t.id, t.title, d.content, t.startDate, t.dueDate, t.createdAt, t.updatedAt, "
+            + "t.priority, t.status, t.progress, t.dueStatus, p.name, u.username, tg.name) "
+            + "FROM Task t JOIN t.user u LEFT JOIN t.project p LEFT JOIN t.tags tg "
+            + "LEFT JOIN TaskDescription d ON d.taskId = t.id";
+
+    // MySQL Connector/J chỉ đọc từng dòng (không nạp cả result set) khi fetch size là Integer.MIN_VALUE
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    // Danh sách task (projection) của người dùng
+    @Query(TASK_DTO_SELECT + " WHERE t.user = :user")
+    List<TaskDTO> findDtoByUser(@Param("user") User user);
+
+    // Phân trang cho findDtoByUser
+    @Query(value = TASK_DTO_SELECT + " WHERE t.user = :user",
+            countQuery = "SELECT COUNT(t) FROM Task t WHERE t.user = :user")
+    Page<TaskDTO> findDtoByUser(@Param("user") User user, Pageable pageable);
+
+    // Danh sách task (projection) theo project và người dùng
+    @Query(TASK_DTO_SELECT + " WHERE p.id = :projectId AND t.user = :user")
+    List<TaskDTO> findDtoByProjectIdAndUser(@Param("projectId") Long projectId, @Param("user") User user);
+
+    // Phân trang cho findDtoByProjectIdAndUser
+    @Query(value = TASK_DTO_SELECT + " WHERE p.id = :projectId AND t.user = :user",
+            countQuery = "SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.user = :user")
+    Page<TaskDTO> findDtoByProjectIdAndUser(@Param("projectId") Long projectId, @Param("user") User user, Pageable pageable);
+
+    // Task (projection) của người dùng theo trạng thái, dùng chỉ mục (user_id, status, due_date)
+    @Query(TASK_DTO_SELECT + " WHERE t.user = :user AND t.status = :status ORDER BY t.dueDate, t.id")
+    List<TaskDTO> findDtoByUserAndStatus(@Param("user") User user, @Param("status") Task.Status status);
+
+    @Query(value = TASK_DTO_SELECT + " WHERE t.user = :user AND t.status = :status",
+            countQuery = "SELECT COUNT(t) FROM Task t WHERE t.user = :user AND t.status = :status")
+    Page<TaskDTO> findDtoByUserAndStatus(@Param("user") User user, @Param("status") Task.Status status, Pageable pageable);
+
+    // Task (projection) của người dùng theo mức ưu tiên, dùng chỉ mục (user_id, priority, due_date)
+    @Query(TASK_DTO_SELECT + " WHERE t.user = :user AND t.priority = :priority ORDER BY t.dueDate, t.id")
+    List<TaskDTO> findDtoByUserAndPriority(@Param("user") User user, @Param("priority") Task.Priority priority);
+
+    @Query(value = TASK_DTO_SELECT + " WHERE t.user = :user AND t.priority = :priority",
+            countQuery = "SELECT COUNT(t) FROM Task t WHERE t.user = :user AND t.priority = :priority")
+    Page<TaskDTO> findDtoByUserAndPriority(@Param("user") User user, @Param("priority") Task.Priority priority, Pageable pageable);
+
+    // Task (projection) của người dùng khác trạng thái cho trước, khẩn cấp trước rồi theo hạn chót;
+    // mã priority là thứ hạng nên thứ tự đọc thẳng từ chỉ mục (user_id, priority, due_date)
+    @Query(TASK_DTO_SELECT + " WHERE t.user = :user AND t.status <> :status ORDER BY t.priority, t.dueDate, t.id")
+    List<TaskDTO> findDtoByUserAndStatusNotOrderByRank(@Param("user") User user, @Param("status") Task.Status status);
+
+    // Task (projection) của người dùng có hạn chót trong khoảng, dùng chỉ mục (user_id, due_date, id)
+    @Query(TASK_DTO_SELECT + " WHERE t.user = :user AND t.dueDate BETWEEN :startDate AND :endDate ORDER BY t.dueDate, t.id")
+    List<TaskDTO> findDtoByUserAndDueDateBetween(@Param("user") User user,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate);
+
+    @Query(value = TASK_DTO_SELECT + " WHERE t.user = :user AND t.dueDate BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT COUNT(t) FROM Task t WHERE t.user = :user AND t.dueDate BETWEEN :startDate AND :endDate")
+    Page<TaskDTO> findDtoByUserAndDueDateBetween(@Param("user") User user,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate,
+                                                 Pageable pageable);
+
+    // Danh sách task (projection) theo ID người dùng, dùng khi dựng lại chỉ mục tìm kiếm
+    @Query(TASK_DTO_SELECT + " WHERE t.user.id = :userId")
+    List<TaskDTO> findDtoByUserId(@Param("userId") Long userId);
+
+    // Nạp các task (projection) theo danh sách ID, giới hạn trong task của người dùng
+    @Query(TASK_DTO_SELECT + " WHERE t.id IN :ids AND t.user = :user")
+    List<TaskDTO> findDtoByIdInAndUser(@Param("ids") Collection<Long> ids, @Param("user") User user);
+
+    // Số task và thời điểm cập nhật gần nhất của người dùng, dùng để kiểm tra segment chỉ mục còn hợp lệ
+    long countByUserId(Long userId);
+
+    @Query("SELECT MAX(t.updatedAt) FROM Task t WHERE t.user.id = :userId")
+    LocalDateTime findMaxUpdatedAtByUserId(@Param("userId") Long userId);
+
+    // Các truy vấn tổng hợp cho Dashboard: mỗi dòng là [giá trị nhóm, số task]
+    @Query("SELECT t.status, COUNT(t) FROM Task t WHERE t.user = :user GROUP BY t.status")
+    List<Object[]> countByUserGroupByStatus(@Param("user") User user);
+
+    @Query("SELECT t.priority, COUNT(t) FROM Task t WHERE t.user = :user GROUP BY t.priority")
+    List<Object[]> countByUserGroupByPriority(@Param("user") User user);
+
+    // [projectId, tên dự án, số task]; projectId null là các task không thuộc dự án
+    @Query("SELECT p.id, p.name, COUNT(t) FROM Task t LEFT JOIN t.project p WHERE t.user = :user " +
+           "GROUP BY p.id, p.name ORDER BY COUNT(t) DESC")
+    List<Object[]> countByUserGroupByProject(@Param("user") User user);
+
+    // Một dòng [quá hạn, đến hạn hôm nay] của các task chưa ở trạng thái :completed,
+    // cùng quy tắc với Task.computeDueStatus nhưng tính theo thời điểm truy vấn
+    @Query("SELECT " +
+           "COALESCE(SUM(CASE WHEN t.dueDate < :todayStart THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN t.dueDate >= :todayStart AND t.dueDate < :tomorrowStart THEN 1 ELSE 0 END), 0) " +
+           "FROM Task t WHERE t.user = :user AND t.status <> :completed AND t.dueDate IS NOT NULL")
+    List<Object[]> countDueTotalsByUser(@Param("user") User user,
+                                        @Param("completed") Task.Status completed,
+                                        @Param("todayStart") LocalDateTime todayStart,
+                                        @Param("tomorrowStart") LocalDateTime tomorrowStart);
+
+    // Stream dữ liệu export của một người dùng, phải tiêu thụ trong transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TASK_EXPORT_SELECT + " WHERE u.id = :userId ORDER BY t.id")
+    Stream<TaskExportDTO> streamExportRowsByUserId(@Param("userId") Long userId);
+
+    // Stream dữ liệu export của toàn hệ thống (admin)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TASK_EXPORT_SELECT + " ORDER BY t.id")
+    Stream<TaskExportDTO> streamAllExportRows();
+
+    // Nạp tags của một lô task bằng một truy vấn duy nhất
+    @Query("SELECT new com.net.ken.server.dto.TaskTagDTO(t.id, tg.id, tg.name, tg.color) "
+            + "FROM Task t JOIN t.tags tg WHERE t.id IN :taskIds")
+    List<TaskTagDTO> findTagRowsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
     // Lọc tasks theo người dùng với entity graph để giải quyết N+1 query
     @EntityGraph(attributePaths = {"tags", "project"})
     List<Task> findByUser(User user);
@@ -28,6 +163,9 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @EntityGraph(attributePaths = {"tags", "project"})
     Optional<Task> findByIdAndUser(Long id, User user);
     
+    // Chỉ kiểm tra quyền truy cập, không nạp entity
+    boolean existsByIdAndUser(Long id, User user);
+    
     // Ghi đè phương thức findById để sử dụng EntityGraph
     @Override
     @EntityGraph(attributePaths = {"tags", "project"})
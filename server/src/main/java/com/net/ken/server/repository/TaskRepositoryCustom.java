@@ -0,0 +1,16 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.dto.TaskDTO;
+
+import java.util.List;
+
+/**
+ * Các truy vấn của TaskRepository cần dựng động bằng Criteria API.
+ */
+public interface TaskRepositoryCustom {
+    /**
+     * Tìm task của một người dùng theo tổ hợp bộ lọc, trả về projection TaskDTO (chưa có tags).
+     * Kết quả được sắp theo (sortBy, id) và bắt đầu ngay sau cursor nếu có.
+     */
+    List<TaskDTO> search(TaskSearchFilter filter);
+}
@@ -0,0 +1,177 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.dto.TaskDTO;
+import com.net.ken.server.model.Project;
+import com.net.ken.server.model.Tag;
+import com.net.ken.server.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cài đặt Criteria cho {@link TaskRepositoryCustom}.
+ * Toàn bộ bộ lọc được biên dịch thành một câu SELECT duy nhất, luôn giới hạn theo user_id
+ * và sắp xếp theo (cột sắp xếp, id) để phân trang keyset đi theo index thay vì OFFSET.
+ */
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    // Danh sách ID từ chỉ mục toàn văn lớn hơn ngưỡng này được chia thành nhiều câu (IN quá dài tốn thời gian phân tích)
+    private static final int MAX_IN_LIST_SIZE = 2000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskDTO> search(TaskSearchFilter filter) {
+        if (filter.getTaskIds() != null && filter.getTaskIds().isEmpty()) {
+            return List.of();
+        }
+        if (filter.getTaskIds() != null && filter.getTaskIds().size() > MAX_IN_LIST_SIZE) {
+            return searchWithinLargeIdSet(filter);
+        }
+        return query(filter);
+    }
+
+    /**
+     * Từ khóa phổ biến khớp quá nhiều task: chia tập khớp thành các danh sách IN không quá MAX_IN_LIST_SIZE,
+     * mỗi phần lấy tối đa limit dòng đầu tiên theo thứ tự trang, rồi trộn và giữ limit dòng đầu.
+     * Kết quả giống hệt một câu IN duy nhất; số câu lệnh tỉ lệ với số task khớp chứ không với số task của người dùng,
+     * và mỗi câu chỉ đọc các dòng theo khóa chính trong danh sách.
+     */
+    private List<TaskDTO> searchWithinLargeIdSet(TaskSearchFilter filter) {
+        List<Long> taskIds = new ArrayList<>(filter.getTaskIds());
+        List<TaskDTO> result = new ArrayList<>();
+        for (int from = 0; from < taskIds.size(); from += MAX_IN_LIST_SIZE) {
+            List<Long> chunk = taskIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, taskIds.size()));
+            result.addAll(query(filter.toBuilder().taskIds(new HashSet<>(chunk)).build()));
+        }
+        result.sort(pageOrder(filter));
+        return result.size() > filter.getLimit() ? new ArrayList<>(result.subList(0, filter.getLimit())) : result;
+    }
+
+    // Cùng thứ tự với ORDER BY (cột sắp xếp, id) của query: MySQL xếp NULL nhỏ nhất
+    private static Comparator<TaskDTO> pageOrder(TaskSearchFilter filter) {
+        Function<TaskDTO, LocalDateTime> key = "createdAt".equals(filter.getSortBy())
+                ? TaskDTO::getCreatedAt
+                : TaskDTO::getDueDate;
+        Comparator<TaskDTO> ascending = Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(TaskDTO::getId);
+        return filter.isDescending() ? ascending.reversed() : ascending;
+    }
+
+    private List<TaskDTO> query(TaskSearchFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDTO> query = cb.createQuery(TaskDTO.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, Project> project = task.join("project", JoinType.LEFT);
+
+        query.select(cb.construct(TaskDTO.class,
+                task.get("id"), task.get("title"),
+                task.get("startDate"), task.get("dueDate"),
+                task.get("createdAt"), task.get("updatedAt"),
+                task.get("priority"), task.get("status"), task.get("progress"),
+                task.get("dueStatus"), project.get("id"), project.get("name")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("user"), filter.getUser()));
+
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            predicates.add(task.get("status").in(filter.getStatuses()));
+        }
+        if (filter.getPriorities() != null && !filter.getPriorities().isEmpty()) {
+            predicates.add(task.get("priority").in(filter.getPriorities()));
+        }
+        if (filter.getDueStatuses() != null && !filter.getDueStatuses().isEmpty()) {
+            predicates.add(task.get("dueStatus").in(filter.getDueStatuses()));
+        }
+        if (filter.getProjectId() != null) {
+            predicates.add(cb.equal(project.get("id"), filter.getProjectId()));
+        }
+        if (filter.getDueFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("dueDate"), filter.getDueFrom()));
+        }
+        if (filter.getDueTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("dueDate"), filter.getDueTo()));
+        }
+        if (filter.getTagIds() != null && !filter.getTagIds().isEmpty()) {
+            predicates.add(task.get("id").in(tagSubquery(cb, query, filter)));
+        }
+        if (filter.getTaskIds() != null) {
+            predicates.add(task.get("id").in(filter.getTaskIds()));
+        }
+
+        Path<LocalDateTime> sortKey = task.get(filter.getSortBy());
+        Path<Long> id = task.get("id");
+        if (filter.isAfterCursor()) {
+            predicates.add(keysetPredicate(cb, sortKey, id, filter));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        if (filter.isDescending()) {
+            query.orderBy(cb.desc(sortKey), cb.desc(id));
+        } else {
+            query.orderBy(cb.asc(sortKey), cb.asc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(filter.getLimit())
+                .getResultList();
+    }
+
+    // id của các task có (ít nhất một / tất cả) thẻ trong tagIds
+    private Subquery<Long> tagSubquery(CriteriaBuilder cb, CriteriaQuery<?> query, TaskSearchFilter filter) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<Task> tagged = subquery.from(Task.class);
+        Join<Task, Tag> tag = tagged.join("tags");
+        subquery.select(tagged.get("id"))
+                .where(cb.equal(tagged.get("user"), filter.getUser()), tag.get("id").in(filter.getTagIds()));
+        if (filter.isMatchAllTags()) {
+            subquery.groupBy(tagged.get("id"))
+                    .having(cb.equal(cb.countDistinct(tag.get("id")), (long) filter.getTagIds().size()));
+        }
+        return subquery;
+    }
+
+    /**
+     * Điều kiện "đứng sau cursor" theo thứ tự (sortKey, id).
+     * MySQL xếp NULL nhỏ nhất: đứng đầu khi ASC, đứng cuối khi DESC.
+     */
+    private Predicate keysetPredicate(CriteriaBuilder cb, Path<LocalDateTime> sortKey, Path<Long> id,
+                                      TaskSearchFilter filter) {
+        LocalDateTime key = filter.getAfterKey();
+        Long lastId = filter.getAfterId();
+
+        if (!filter.isDescending()) {
+            if (key == null) {
+                return cb.or(
+                        cb.and(cb.isNull(sortKey), cb.greaterThan(id, lastId)),
+                        cb.isNotNull(sortKey));
+            }
+            return cb.or(
+                    cb.greaterThan(sortKey, key),
+                    cb.and(cb.equal(sortKey, key), cb.greaterThan(id, lastId)));
+        }
+
+        if (key == null) {
+            return cb.and(cb.isNull(sortKey), cb.lessThan(id, lastId));
+        }
+        return cb.or(
+                cb.lessThan(sortKey, key),
+                cb.and(cb.equal(sortKey, key), cb.lessThan(id, lastId)),
+                cb.isNull(sortKey));
+    }
+}
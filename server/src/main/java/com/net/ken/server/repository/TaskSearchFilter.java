@@ -0,0 +1,42 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.User;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Bộ lọc đã được kiểm tra và chuyển sang kiểu dữ liệu của entity,
+ * dùng cho {@link TaskRepositoryCustom#search(TaskSearchFilter)}.
+ */
+@Data
+@Builder(toBuilder = true)
+public class TaskSearchFilter {
+    private User user;
+    private Set<Task.Status> statuses;
+    private Set<Task.Priority> priorities;
+    private Set<Task.DueStatus> dueStatuses;
+    private Long projectId;
+    private Set<Long> tagIds;
+    private boolean matchAllTags;
+    private LocalDateTime dueFrom;
+    private LocalDateTime dueTo;
+
+    // Giới hạn trong các task khớp chỉ mục toàn văn, null nếu không dùng chỉ mục
+    private Set<Long> taskIds;
+
+    // Thuộc tính sắp xếp: "dueDate" hoặc "createdAt"
+    private String sortBy;
+    private boolean descending;
+
+    // Vị trí sau dòng cuối cùng của trang trước (keyset)
+    private boolean afterCursor;
+    private LocalDateTime afterKey;
+    private Long afterId;
+
+    // Số dòng tối đa cần lấy
+    private int limit;
+}
@@ -0,0 +1,22 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.model.User;
+
+import java.util.Optional;
+
+/**
+ * Các truy vấn của UserRepository cần dùng API riêng của Hibernate.
+ */
+public interface UserRepositoryCustom {
+    /**
+     * Người dùng theo username (natural id). Chạy ở mỗi request có JWT: username được ánh xạ sang ID qua
+     * region user-username rồi lấy entity từ region user, không phụ thuộc query cache
+     * (query cache bị xóa mỗi khi bảng users có thay đổi, ví dụ last_login ở mỗi lần đăng nhập).
+     */
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Đọc lại trạng thái của người dùng từ cơ sở dữ liệu và khóa dòng đến hết transaction
+     */
+    void lockForUpdate(User user);
+}
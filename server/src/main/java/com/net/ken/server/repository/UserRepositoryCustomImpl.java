@@ -0,0 +1,30 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * Cài đặt {@link UserRepositoryCustom} bằng Session của Hibernate.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+
+    @Override
+    public void lockForUpdate(User user) {
+        entityManager.refresh(user, LockModeType.PESSIMISTIC_WRITE);
+    }
+}
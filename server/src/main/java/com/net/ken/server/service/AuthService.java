@@ -66,9 +66,9 @@ public interface AuthService {
     ResponseDTO<JwtResponse> validateToken(String token);
     
     /**
-     * Lấy thông tin người dùng hiện tại từ context.
+     * Lấy thông tin người dùng hiện tại từ context (CurrentUserContext), không truy vấn cơ sở dữ liệu.
      * 
-     * @return đối tượng User của người dùng hiện tại
+     * @return đối tượng User của người dùng hiện tại, null nếu đang chạy trong tác vụ theo lịch
      */
     User getCurrentUser();
     
@@ -0,0 +1,16 @@
+package com.net.ken.server.service;
+
+/**
+ * Giữ cột due_status của bảng tasks đúng theo thời gian.
+ * Task.updateDueStatus chỉ chạy khi task được ghi, nên task không ai sửa sẽ giữ trạng thái cũ
+ * khi qua ngày; job định kỳ tính lại bằng các câu UPDATE theo tập hợp trên từng khoảng hạn chót.
+ */
+public interface DueStatusService {
+
+    /**
+     * Tính lại due_status của các task có hạn chót có thể đã đổi trạng thái kể từ lần chạy trước
+     * (lần chạy đầu tiên sau khi khởi động quét toàn bộ bảng)
+     * @return Số task đã đổi due_status
+     */
+    int recomputeDueStatuses();
+}
@@ -1,12 +1,15 @@
 package com.net.ken.server.service;
 
 import com.net.ken.server.dto.ProjectDTO;
+import com.net.ken.server.dto.ProjectSummaryDTO;
 
 import java.util.List;
 
 public interface ProjectService {
     List<ProjectDTO> getAllProjects();
     
+    List<ProjectSummaryDTO> getProjectSummaries();
+    
     ProjectDTO getProjectById(Long id);
     
     ProjectDTO createProject(ProjectDTO projectDTO);
@@ -0,0 +1,29 @@
+package com.net.ken.server.service;
+
+import com.net.ken.server.dto.TaskRollupDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Duy trì số liệu tổng hợp của dự án (project_stats) để danh sách dự án không phải đọc bảng tasks.
+ * Mọi thao tác ghi task (kể cả job tính lại due_status) gọi applyChanges trong cùng transaction;
+ * reconcile định kỳ sửa các sai lệch còn lại.
+ */
+public interface ProjectStatsService {
+
+    /**
+     * Cộng delta giữa trạng thái trước và sau của các task vào số liệu dự án.
+     * Task mới chỉ có trong after, task bị xóa chỉ có trong before; task không thuộc dự án được bỏ qua.
+     */
+    void applyChanges(Collection<TaskRollupDTO> before, Collection<TaskRollupDTO> after);
+
+    // Trường hợp một task; before hoặc after có thể là null
+    void applyChange(TaskRollupDTO before, TaskRollupDTO after);
+
+    // Đọc trạng thái hiện tại của các task thuộc dự án, dùng cho các thao tác JDBC hàng loạt
+    List<TaskRollupDTO> loadRollups(Collection<Long> taskIds);
+
+    // Tính lại số liệu của mọi dự án từ bảng tasks
+    void reconcile();
+}
@@ -0,0 +1,15 @@
+package com.net.ken.server.service;
+
+import com.net.ken.server.dto.DashboardStatsDTO;
+
+/**
+ * Số liệu thống kê tổng hợp của người dùng hiện tại
+ */
+public interface StatsService {
+
+    /**
+     * Số task theo trạng thái, ưu tiên, trạng thái hạn chót và dự án.
+     * Kết quả được cache theo người dùng và bị xóa khi task của người dùng thay đổi.
+     */
+    DashboardStatsDTO getDashboardStats();
+}
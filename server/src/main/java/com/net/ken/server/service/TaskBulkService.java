@@ -0,0 +1,20 @@
+package com.net.ken.server.service;
+
+import com.net.ken.server.dto.BulkTaskDTO.BulkCreateDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkDeleteDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkMoveDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkResultDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkRetagDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkUpdateDTO;
+
+public interface TaskBulkService {
+    BulkResultDTO createTasks(BulkCreateDTO request);
+    
+    BulkResultDTO updateTasks(BulkUpdateDTO request);
+    
+    BulkResultDTO moveTasks(BulkMoveDTO request);
+    
+    BulkResultDTO retagTasks(BulkRetagDTO request);
+    
+    BulkResultDTO deleteTasks(BulkDeleteDTO request);
+}
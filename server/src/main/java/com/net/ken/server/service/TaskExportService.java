@@ -0,0 +1,44 @@
+package com.net.ken.server.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Export task ra NDJSON hoặc CSV bằng cách stream trực tiếp từ cơ sở dữ liệu ra response,
+ * bộ nhớ sử dụng không phụ thuộc số lượng task.
+ */
+public interface TaskExportService {
+
+    enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Định dạng dữ liệu không hợp lệ: " + value);
+            }
+        }
+    }
+
+    void exportUserTasks(Long userId, Format format, OutputStream out) throws IOException;
+
+    void exportAllTasks(Format format, OutputStream out) throws IOException;
+}
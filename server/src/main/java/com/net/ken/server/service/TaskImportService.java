@@ -0,0 +1,24 @@
+package com.net.ken.server.service;
+
+import com.net.ken.server.dto.TaskImportDTO;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Import task từ NDJSON hoặc CSV (cùng định dạng với file export).
+ * Dữ liệu được đọc dần từ input và ghi theo từng khối, bộ nhớ sử dụng không phụ thuộc kích thước file.
+ */
+public interface TaskImportService {
+
+    /**
+     * Import task cho người dùng hiện tại, chạy đến khi đọc hết input
+     * @return Kết quả cuối cùng của lần import
+     */
+    TaskImportDTO importTasks(TaskExportService.Format format, InputStream in);
+
+    // Các lần import gần đây của người dùng hiện tại, kể cả lần đang chạy
+    List<TaskImportDTO> getImports();
+
+    TaskImportDTO getImport(String importId);
+}
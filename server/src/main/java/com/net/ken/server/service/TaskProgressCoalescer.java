@@ -0,0 +1,47 @@
+package com.net.ken.server.service;
+
+import com.net.ken.server.dto.TaskDTO;
+import com.net.ken.server.dto.TaskStatusDTO;
+
+import java.util.Collection;
+
+/**
+ * Gộp các lần cập nhật tiến độ liên tiếp của cùng một task (thanh trượt tiến độ gửi nhiều PATCH mỗi giây
+ * khi đang kéo). Chỉ giữ giá trị mới nhất trong bộ nhớ và ghi xuống cơ sở dữ liệu sau một khoảng yên lặng
+ * hoặc khi đã chờ quá thời gian tối đa.
+ */
+public interface TaskProgressCoalescer {
+
+    /**
+     * Nhận tiến độ mới của task và trả về ngay trạng thái sẽ được ghi
+     * @throws jakarta.persistence.EntityNotFoundException nếu task không thuộc người dùng
+     */
+    TaskStatusDTO submit(Long userId, Long taskId, int progress);
+
+    /**
+     * Task với tiến độ đang chờ ghi (cùng trạng thái và due_status suy ra từ tiến độ đó),
+     * trả về chính đối tượng truyền vào nếu task không có gì đang chờ
+     */
+    TaskDTO applyPending(TaskDTO task);
+
+    // Có task nào đang chờ ghi hay không, để bên đọc bỏ qua bước áp dụng khi không cần
+    boolean hasPending();
+
+    /**
+     * Ghi ngay tiến độ đang chờ của các task, dùng trước các thao tác ghi khác lên cùng task
+     * để thứ tự ghi giữ đúng thứ tự yêu cầu. Chạy trong transaction của bên gọi; giá trị chỉ được
+     * bỏ khỏi hàng chờ khi transaction đó commit.
+     * @param userId Người dùng đang thao tác, chỉ ghi các giá trị do chính người dùng đó gửi
+     * @return Số task đã ghi
+     */
+    int flush(Long userId, Collection<Long> taskIds);
+
+    // Bỏ tiến độ đang chờ của các task sắp bị xóa
+    void discard(Collection<Long> taskIds);
+
+    /**
+     * Ghi các task đã yên lặng đủ lâu hoặc đã chờ quá thời gian tối đa
+     * @return Số task đã ghi
+     */
+    int flushDue();
+}
@@ -0,0 +1,46 @@
+package com.net.ken.server.service;
+
+import com.net.ken.server.model.Task;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chỉ mục toàn văn cho task, tách riêng theo từng người dùng.
+ * Nội dung được đánh chỉ mục: tiêu đề, mô tả, tên thẻ và tên dự án của task.
+ */
+public interface TaskSearchIndex {
+
+    /**
+     * Tìm task theo từ khóa (không phân biệt dấu, khớp theo tiền tố), xếp hạng BM25
+     * @param userId ID người dùng sở hữu các task
+     * @param query Từ khóa tìm kiếm
+     * @param limit Số kết quả tối đa
+     * @return ID task theo mức độ liên quan giảm dần
+     */
+    List<Long> search(Long userId, String query, int limit);
+
+    /**
+     * Tất cả các task khớp từ khóa theo cùng điều kiện với {@link #search}, không xếp hạng;
+     * dùng để kết hợp từ khóa với các bộ lọc khác
+     */
+    Set<Long> findMatchingIds(Long userId, String query);
+
+    /**
+     * Cập nhật task vào chỉ mục sau khi transaction hiện tại commit.
+     * Phải gọi bên trong transaction đã nạp tags và project của task.
+     * @param description Mô tả hiện tại của task (lưu ở bảng riêng), null nếu không có
+     */
+    void indexTask(Task task, String description);
+
+    /**
+     * Xóa task khỏi chỉ mục sau khi transaction hiện tại commit
+     */
+    void removeTask(Long userId, Long taskId);
+
+    /**
+     * Bỏ toàn bộ chỉ mục của người dùng (ví dụ khi đổi tên thẻ hoặc dự án),
+     * chỉ mục sẽ được dựng lại ở lần tìm kiếm tiếp theo
+     */
+    void invalidateUser(Long userId);
+}
@@ -1,8 +1,11 @@
 package com.net.ken.server.service;
 
+import com.net.ken.server.dto.CursorPageDTO;
 import com.net.ken.server.dto.TaskDTO;
 import com.net.ken.server.dto.TaskDTO.CreateTaskDTO;
 import com.net.ken.server.dto.TaskDTO.UpdateTaskDTO;
+import com.net.ken.server.dto.TaskSearchCriteria;
+import com.net.ken.server.dto.TaskStatusDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -19,19 +22,34 @@ public interface TaskService {
     
     Page<TaskDTO> getTasksByProjectIdPaged(Long projectId, Pageable pageable);
     
+    CursorPageDTO<TaskDTO> getTasksByProjectIdCursor(Long projectId, String cursor, int size);
+    
     List<TaskDTO> getTasksByStatus(String status);
     
+    Page<TaskDTO> getTasksByStatusPaged(String status, Pageable pageable);
+    
     List<TaskDTO> getTasksByPriority(String priority);
     
+    Page<TaskDTO> getTasksByPriorityPaged(String priority, Pageable pageable);
+    
+    // Task chưa hoàn thành, khẩn cấp trước rồi theo hạn chót (task không có hạn chót đứng cuối mỗi mức)
+    List<TaskDTO> getOpenTasksByPriority();
+    
     List<TaskDTO> getTasksDueWithinDays(int days);
     
+    Page<TaskDTO> getTasksDueWithinDaysPaged(int days, Pageable pageable);
+    
+    CursorPageDTO<TaskDTO> searchTasks(TaskSearchCriteria criteria);
+    
+    List<TaskDTO> searchTasksByText(String query, int limit);
+    
     TaskDTO createTask(CreateTaskDTO createTaskDTO);
     
     TaskDTO updateTask(Long id, UpdateTaskDTO updateTaskDTO);
     
-    TaskDTO updateTaskStatus(Long id, String status);
+    TaskStatusDTO updateTaskStatus(Long id, String status);
     
-    TaskDTO updateTaskProgress(Long id, Integer progress);
+    TaskStatusDTO updateTaskProgress(Long id, Integer progress);
     
     void deleteTask(Long id);
     
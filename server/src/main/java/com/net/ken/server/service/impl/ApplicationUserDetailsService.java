@@ -1,5 +1,6 @@
 package com.net.ken.server.service.impl;
 
+import com.net.ken.server.annotation.ReadOnlyQuery;
 import com.net.ken.server.model.User;
 import com.net.ken.server.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -7,7 +8,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -16,13 +16,13 @@ public class ApplicationUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
 
     @Override
-    @Transactional(readOnly = true)
+    @ReadOnlyQuery
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tồn tại: " + username));
     }
 
-    @Transactional(readOnly = true)
+    @ReadOnlyQuery
     public User findById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tồn tại với ID: " + id));
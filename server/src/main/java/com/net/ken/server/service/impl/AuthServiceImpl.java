@@ -11,6 +11,7 @@ import com.net.ken.server.model.User;
 import com.net.ken.server.repository.UserRepository;
 import com.net.ken.server.service.AuthService;
 import com.net.ken.server.service.JwtTokenService;
+import com.net.ken.server.util.CurrentUserContext;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -19,7 +20,6 @@ import jakarta.persistence.EntityExistsException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -66,7 +66,10 @@ public class AuthServiceImpl implements AuthService {
                 );
             }
             
-            User user = userOpt.get();
+            // Entity đang được quản lý: các thay đổi bên dưới được Hibernate ghi bằng một câu UPDATE lúc commit
+            // và chỉ cập nhật entry của người dùng này trong region user (câu UPDATE hàng loạt bằng JPQL sẽ xóa cả region)
+            User account = userOpt.get();
+            User user = account;
             
             // Kiểm tra xem tài khoản có bị khóa không
             if (!user.isAccountNonLocked()) {
@@ -100,15 +103,14 @@ public class AuthServiceImpl implements AuthService {
                 user = (User) authentication.getPrincipal();
                 
                 // Reset số lần đăng nhập sai khi đăng nhập thành công
-                user.resetFailedLoginAttempts();
-                userRepository.resetFailedLoginAttempts(user.getUsername());
+                account.resetFailedLoginAttempts();
                 
                 // Tạo token
                 String jwt = jwtTokenService.generateToken(user);
                 String refreshToken = jwtTokenService.generateRefreshToken(user);
                 
                 // Cập nhật thời gian đăng nhập cuối
-                updateLastLogin(user.getUsername());
+                account.setLastLogin(LocalDateTime.now());
                 
                 // Kiểm tra xem mật khẩu có quá hạn không
                 boolean isPasswordExpired = user.isPasswordExpired();
@@ -150,19 +152,12 @@ public class AuthServiceImpl implements AuthService {
                 return ResponseDTO.success(message, loginResponse);
                 
             } catch (BadCredentialsException e) {
-                // Tăng số lần đăng nhập sai và kiểm tra xem có cần khóa tài khoản không
-                userRepository.incrementFailedLoginAttempts(user.getUsername());
+                // Đọc lại và khóa dòng để các lần đăng nhập sai đồng thời không làm mất lần đếm
+                userRepository.lockForUpdate(account);
                 
-                // Lấy lại thông tin user sau khi cập nhật số lần đăng nhập sai
-                user = userRepository.findByUsername(user.getUsername()).orElse(user);
-                
-                // Kiểm tra xem có cần khóa tài khoản không
-                boolean isLocked = user.getFailedLoginAttempts() >= 6;
+                // Tăng số lần đăng nhập sai, khóa tài khoản nếu đạt giới hạn
+                boolean isLocked = account.incrementFailedLoginAttempts();
                 if (isLocked) {
-                    // Khóa tài khoản nếu đạt giới hạn đăng nhập sai
-                    LocalDateTime lockDate = LocalDateTime.of(9999, 12, 31, 0, 0, 0);
-                    userRepository.lockUserAccount(user.getUsername(), lockDate);
-                    
                     log.warn("Tài khoản {} đã bị khóa do nhập sai mật khẩu quá nhiều lần", user.getUsername());
                     
                     return ResponseDTO.error(
@@ -368,35 +363,11 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    @Cacheable(value = USER_CACHE, key = "#result != null ? #result.id : 'system'", condition = "#result != null")
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication != null && authentication.getPrincipal() instanceof User) {
-            return (User) authentication.getPrincipal();
-        }
-        
-        // Kiểm tra xem code hiện tại có đang chạy trong scheduled task không
-        String currentThreadName = Thread.currentThread().getName();
-        if (currentThreadName.contains("scheduling") || currentThreadName.contains("scheduled")) {
-            log.debug("Truy cập getCurrentUser trong tác vụ theo lịch, trả về null");
-            return null;
-        }
-        
-        throw new TaskManagerException.ValidationException("Không tìm thấy người dùng hiện tại", "USER_NOT_FOUND");
+        // Đã được gán khi xác thực request; tác vụ theo lịch chạy trong ngữ cảnh hệ thống và nhận null
+        return CurrentUserContext.getUser();
     }
     
-    @Transactional
-    protected void updateLastLogin(String username) {
-        try {
-            log.debug("Đang cập nhật thời gian đăng nhập cho người dùng: {}", username);
-            userRepository.updateLastLoginDate(username, LocalDateTime.now());
-        } catch (Exception e) {
-            log.warn("Không thể cập nhật thời gian đăng nhập cuối cùng cho người dùng {}: {}", username, e.getMessage());
-            // Không ném lỗi vì đây không phải chức năng chính của đăng nhập
-        }
-    }
-
     @Override
     @Transactional
     public ResponseDTO<JwtResponse> refreshToken(String refreshToken) {
@@ -572,8 +543,10 @@ public class AuthServiceImpl implements AuthService {
                 return ResponseDTO.<Void>success("Tài khoản đã được mở khóa", null);
             }
             
-            // Mở khóa tài khoản
-            userRepository.unlockUserAccount(username);
+            // Mở khóa tài khoản trên entity đang được quản lý, ghi lúc commit
+            user.setAccountNonLocked(true);
+            user.setAccountLockedDate(null);
+            user.setFailedLoginAttempts(0);
             
             log.info("Đã mở khóa tài khoản thành công cho người dùng: {}", username);
             
@@ -0,0 +1,140 @@
+package com.net.ken.server.service.impl;
+
+import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.TaskRollupDTO;
+import com.net.ken.server.repository.TaskJdbcRepository;
+import com.net.ken.server.service.DueStatusService;
+import com.net.ken.server.service.ProjectStatsService;
+import com.net.ken.server.util.LogUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class DueStatusServiceImpl implements DueStatusService {
+
+    private static final Logger log = LogUtil.getLogger(DueStatusServiceImpl.class);
+
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final ProjectStatsService projectStatsService;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int windowDays;
+    private final DistributionSummary rowsChanged;
+    private final Timer runTimer;
+
+    // Đầu ngày của lần chạy thành công gần nhất; null cho tới khi lần quét toàn bộ đầu tiên hoàn tất
+    private volatile LocalDateTime lastRunDayStart;
+
+    @Autowired
+    public DueStatusServiceImpl(TaskJdbcRepository taskJdbcRepository,
+                                ProjectStatsService projectStatsService,
+                                CacheManager cacheManager,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${taskmanager.due-status.chunk-size:500}") int chunkSize,
+                                @Value("${taskmanager.due-status.window-days:30}") int windowDays) {
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.projectStatsService = projectStatsService;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.windowDays = windowDays;
+        this.rowsChanged = DistributionSummary.builder("tasks.due.status.changed")
+                .description("Số task đổi due_status trong mỗi lần chạy job tính lại")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("tasks.due.status.recompute")
+                .description("Thời gian một lần chạy job tính lại due_status")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(cron = "${taskmanager.due-status.cron:0 1 * * * *}")
+    public int recomputeDueStatuses() {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime todayStart = now.toLocalDate().atStartOfDay();
+        int changed = 0;
+        try {
+            LocalDateTime from;
+            LocalDateTime to;
+            if (lastRunDayStart != null) {
+                // due_status chỉ phụ thuộc vào ngày: task hạn trước đầu ngày của lần chạy trước đã OVERDUE từ khi đó,
+                // task hạn từ ngày mai trở đi vẫn NORMAL, nên chỉ khoảng ở giữa có thể đổi trạng thái
+                if (!todayStart.isAfter(lastRunDayStart)) {
+                    return 0;
+                }
+                from = lastRunDayStart;
+                to = todayStart.plusDays(1);
+            } else {
+                List<LocalDateTime> range = taskJdbcRepository.findDueDateRange();
+                if (range.isEmpty()) {
+                    lastRunDayStart = todayStart;
+                    return 0;
+                }
+                from = range.get(0);
+                to = range.get(1).plusSeconds(1);
+            }
+
+            for (LocalDateTime windowStart = from; windowStart.isBefore(to); windowStart = windowStart.plusDays(windowDays)) {
+                LocalDateTime windowEnd = windowStart.plusDays(windowDays).isBefore(to) ? windowStart.plusDays(windowDays) : to;
+                changed += recomputeWindow(windowStart, windowEnd, now);
+            }
+            lastRunDayStart = todayStart;
+        } catch (Exception e) {
+            // Log lỗi nhưng không ném ngoại lệ để tránh dừng các tác vụ theo lịch khác;
+            // lastRunDayStart giữ nguyên nên lần chạy sau quét lại khoảng này
+            log.error("Lỗi khi tính lại due_status: ", e);
+        } finally {
+            rowsChanged.record(changed);
+            runTimer.record(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS);
+        }
+
+        if (changed > 0) {
+            // TaskDTO trong cache chứa dueStatus cũ
+            Cache taskCache = cacheManager.getCache(CacheConfig.TASK_CACHE);
+            if (taskCache != null) {
+                taskCache.clear();
+            }
+        }
+        LogUtil.info(log, "Đã tính lại due_status, {} task đổi trạng thái trong {} ms",
+                changed, System.currentTimeMillis() - startTime);
+        return changed;
+    }
+
+    // Mỗi đợt là một transaction ngắn khóa tối đa chunkSize dòng; dòng đã sửa không còn khớp điều kiện nên lặp tới khi hết
+    private int recomputeWindow(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        int changed = 0;
+        while (true) {
+            int[] result = transactionTemplate.execute(status -> {
+                List<Long> ids = taskJdbcRepository.findStaleDueStatusIds(from, to, now, chunkSize);
+                if (ids.isEmpty()) {
+                    return new int[] {0, 0};
+                }
+                // overdue_count của dự án phụ thuộc due_status nên cộng delta trong cùng transaction
+                List<TaskRollupDTO> before = projectStatsService.loadRollups(ids);
+                int updated = taskJdbcRepository.recomputeDueStatus(ids, now);
+                projectStatsService.applyChanges(before, projectStatsService.loadRollups(ids));
+                return new int[] {ids.size(), updated};
+            });
+            changed += result[1];
+            if (result[0] < chunkSize) {
+                return changed;
+            }
+        }
+    }
+}
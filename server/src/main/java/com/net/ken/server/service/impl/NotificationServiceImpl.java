@@ -1,5 +1,6 @@
 package com.net.ken.server.service.impl;
 
+import com.net.ken.server.annotation.ReadOnlyQuery;
 import com.net.ken.server.dto.NotificationDTO;
 import com.net.ken.server.model.Notification;
 import com.net.ken.server.model.Notification.NotificationType;
@@ -16,7 +17,6 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,16 +46,13 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     // Lấy người dùng hiện tại từ AuthService
+    // null khi chạy trong tác vụ theo lịch (ngữ cảnh hệ thống)
     protected User getCurrentUser() {
-        try {
-            return authService.getCurrentUser();
-        } catch (Exception e) {
-            // Trong trường hợp scheduled tasks, trả về null
-            return null;
-        }
+        return authService.getCurrentUser();
     }
 
     @Override
+    @ReadOnlyQuery
     public List<NotificationDTO> getAllNotifications() {
         User currentUser = getCurrentUser();
         return notificationRepository.findByUserOrderByCreatedAtDesc(currentUser).stream()
@@ -64,20 +61,15 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @ReadOnlyQuery
     public NotificationDTO getNotificationById(Long id) {
         User currentUser = getCurrentUser();
-        Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thông báo với ID: " + id));
-        
-        // Kiểm tra quyền truy cập
-        if (notification.getUser() != null && !notification.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền truy cập thông báo này");
-        }
-        
+        Notification notification = findOwnedNotification(id, currentUser);
         return convertToDTO(notification);
     }
 
     @Override
+    @ReadOnlyQuery
     public List<NotificationDTO> getUnreadNotifications() {
         User currentUser = getCurrentUser();
         return notificationRepository.findByUserAndReadOrderByCreatedAtDesc(currentUser, false).stream()
@@ -86,27 +78,22 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @ReadOnlyQuery
     public List<NotificationDTO> getNotificationsByTaskId(Long taskId) {
         User currentUser = getCurrentUser();
         
-        if (!taskRepository.existsById(taskId)) {
+        // Chỉ kiểm tra quyền, không nạp entity Task
+        if (!taskRepository.existsByIdAndUser(taskId, currentUser)) {
             throw new EntityNotFoundException("Không tìm thấy công việc với ID: " + taskId);
         }
         
-        // Kiểm tra quyền truy cập task
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + taskId));
-            
-        if (task.getUser() != null && !task.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền truy cập công việc này");
-        }
-        
         return notificationRepository.findByTaskIdAndUser(taskId, currentUser).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @ReadOnlyQuery
     public List<NotificationDTO> getRecentNotifications(int days) {
         User currentUser = getCurrentUser();
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
@@ -119,14 +106,9 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public NotificationDTO createNotification(String message, String type, Long taskId) {
         User currentUser = getCurrentUser();
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findByIdAndUser(taskId, currentUser)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + taskId));
         
-        // Kiểm tra quyền truy cập task
-        if (task.getUser() != null && !task.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền tạo thông báo cho công việc này");
-        }
-        
         Notification notification = new Notification();
         notification.setMessage(message);
         
@@ -150,14 +132,7 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public NotificationDTO markNotificationAsRead(Long id) {
         User currentUser = getCurrentUser();
-        Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thông báo với ID: " + id));
-        
-        // Kiểm tra quyền truy cập
-        if (notification.getUser() != null && !notification.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền đọc thông báo này");
-        }
-        
+        Notification notification = findOwnedNotification(id, currentUser);
         notification.setRead(true);
         
         Notification updatedNotification = notificationRepository.save(notification);
@@ -168,15 +143,10 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public void deleteNotification(Long id) {
         User currentUser = getCurrentUser();
-        Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thông báo với ID: " + id));
-        
-        // Kiểm tra quyền truy cập
-        if (notification.getUser() != null && !notification.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền xóa thông báo này");
+        // Một câu DELETE có điều kiện theo chủ sở hữu, không nạp entity
+        if (notificationRepository.deleteByIdAndUser(id, currentUser) == 0) {
+            throw new EntityNotFoundException("Không tìm thấy thông báo với ID: " + id);
         }
-        
-        notificationRepository.deleteById(id);
     }
     
     @Override
@@ -405,6 +375,12 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
     
+    // Thông báo không tồn tại hay của người khác đều là 404, một truy vấn theo (id, user_id)
+    private Notification findOwnedNotification(Long id, User user) {
+        return notificationRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thông báo với ID: " + id));
+    }
+    
     private NotificationDTO convertToDTO(Notification notification) {
         NotificationDTO dto = new NotificationDTO();
         dto.setId(notification.getId());
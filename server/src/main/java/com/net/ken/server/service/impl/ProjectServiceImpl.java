@@ -1,20 +1,24 @@
 package com.net.ken.server.service.impl;
 
+import com.net.ken.server.annotation.ReadOnlyQuery;
 import com.net.ken.server.config.CacheConfig;
 import com.net.ken.server.dto.ProjectDTO;
+import com.net.ken.server.dto.ProjectSummaryDTO;
 import com.net.ken.server.model.Project;
-import com.net.ken.server.model.Task;
+import com.net.ken.server.model.ProjectStats;
 import com.net.ken.server.model.User;
 import com.net.ken.server.repository.ProjectRepository;
+import com.net.ken.server.repository.ProjectStatsRepository;
 import com.net.ken.server.repository.UserRepository;
 import com.net.ken.server.service.AuthService;
 import com.net.ken.server.service.ProjectService;
+import com.net.ken.server.service.TaskSearchIndex;
 import com.net.ken.server.util.SecurityUtils;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,14 +29,19 @@ import java.util.stream.Collectors;
 public class ProjectServiceImpl implements ProjectService {
 
     private final ProjectRepository projectRepository;
+    private final ProjectStatsRepository projectStatsRepository;
     private final UserRepository userRepository;
     private final AuthService authService;
+    private final TaskSearchIndex taskSearchIndex;
 
     @Autowired
-    public ProjectServiceImpl(ProjectRepository projectRepository, UserRepository userRepository, AuthService authService) {
+    public ProjectServiceImpl(ProjectRepository projectRepository, ProjectStatsRepository projectStatsRepository,
+                              UserRepository userRepository, AuthService authService, TaskSearchIndex taskSearchIndex) {
         this.projectRepository = projectRepository;
+        this.projectStatsRepository = projectStatsRepository;
         this.userRepository = userRepository;
         this.authService = authService;
+        this.taskSearchIndex = taskSearchIndex;
     }
     
     // Lấy người dùng hiện tại từ AuthService
@@ -41,32 +50,40 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.PROJECT_CACHE, key = "'user-' + #root.target.getCurrentUser().getId()")
+    @Cacheable(value = CacheConfig.PROJECT_CACHE, key = "'user-' + " + CacheConfig.CURRENT_USER_ID)
+    @ReadOnlyQuery
     public List<ProjectDTO> getAllProjects() {
         User currentUser = getCurrentUser();
-        return projectRepository.findByUser(currentUser).stream()
-                .map(this::convertToDTO)
+        // Một truy vấn projects JOIN project_stats, không nạp task của từng dự án
+        return projectRepository.findWithStatsByUser(currentUser).stream()
+                .map(row -> convertToDTO((Project) row[0], (ProjectStats) row[1]))
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Cacheable(value = CacheConfig.PROJECT_CACHE, key = "'project-' + #id + '-user-' + #root.target.getCurrentUser().getId()")
+    @ReadOnlyQuery
+    public List<ProjectSummaryDTO> getProjectSummaries() {
+        return projectRepository.findSummariesByUser(getCurrentUser());
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.PROJECT_CACHE, key = "'project-' + #id + '-user-' + " + CacheConfig.CURRENT_USER_ID)
+    @ReadOnlyQuery
     public ProjectDTO getProjectById(Long id) {
         User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(id)
+        // Quyền truy cập được kiểm tra ngay trong truy vấn: dự án của người khác được coi như không tồn tại
+        return projectRepository.findWithStatsByIdAndUser(id, currentUser).stream()
+                .findFirst()
+                .map(row -> convertToDTO((Project) row[0], (ProjectStats) row[1]))
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy dự án với ID: " + id));
-                
-        // Kiểm tra quyền truy cập
-        if (project.getUser() != null && !project.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền truy cập dự án này");
-        }
-        
-        return convertToDTO(project);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.PROJECT_CACHE}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.PROJECT_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
     public ProjectDTO createProject(ProjectDTO projectDTO) {
         User currentUser = getCurrentUser();
         
@@ -76,70 +93,73 @@ public class ProjectServiceImpl implements ProjectService {
         project.setUser(currentUser);
         
         Project savedProject = projectRepository.save(project);
-        return convertToDTO(savedProject);
+        return convertToDTO(savedProject, null);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.PROJECT_CACHE}, 
-                key = "'project-' + #id + '-user-' + #root.target.getCurrentUser().getId()")
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.PROJECT_CACHE},
+                    key = "'project-' + #id + '-user-' + " + CacheConfig.CURRENT_USER_ID),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
     public ProjectDTO updateProject(Long id, ProjectDTO projectDTO) {
         User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(id)
+        // Dự án không tồn tại hay của người khác đều là 404, một truy vấn theo (id, user_id)
+        Project project = projectRepository.findByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy dự án với ID: " + id));
-                
-        // Kiểm tra quyền truy cập
-        if (project.getUser() != null && !project.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền chỉnh sửa dự án này");
-        }
         
         project.setName(projectDTO.getName());
         project.setDescription(projectDTO.getDescription());
         
         Project updatedProject = projectRepository.save(project);
-        return convertToDTO(updatedProject);
+        // Tên dự án nằm trong chỉ mục tìm kiếm của các task thuộc dự án
+        taskSearchIndex.invalidateUser(currentUser.getId());
+        return convertToDTO(updatedProject, projectStatsRepository.findById(id).orElse(null));
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.PROJECT_CACHE}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.PROJECT_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
     public void deleteProject(Long id) {
         User currentUser = getCurrentUser();
-        Project project = projectRepository.findById(id)
+        Project project = projectRepository.findByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy dự án với ID: " + id));
-                
-        // Kiểm tra quyền truy cập
-        if (project.getUser() != null && !project.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền xóa dự án này");
-        }
         
-        projectRepository.deleteById(id);
+        projectRepository.delete(project);
+        taskSearchIndex.invalidateUser(currentUser.getId());
     }
     
-    private ProjectDTO convertToDTO(Project project) {
+    private ProjectDTO convertToDTO(Project project, ProjectStats stats) {
         ProjectDTO dto = new ProjectDTO();
         dto.setId(project.getId());
         dto.setName(project.getName());
         dto.setDescription(project.getDescription());
         dto.setCreatedAt(project.getCreatedAt());
         dto.setUpdatedAt(project.getUpdatedAt());
-        
-        // Chuyển đổi danh sách Task thành TaskSummaryDTO
-        List<ProjectDTO.TaskSummaryDTO> taskSummaries = project.getTasks().stream()
-                .map(this::convertToTaskSummaryDTO)
-                .collect(Collectors.toList());
-        dto.setTasks(taskSummaries);
-        
+        dto.setStats(convertToStatsDTO(stats));
         return dto;
     }
     
-    private ProjectDTO.TaskSummaryDTO convertToTaskSummaryDTO(Task task) {
-        return new ProjectDTO.TaskSummaryDTO(
-                task.getId(),
-                task.getTitle(),
-                task.getDueDate(),
-                task.getStatus().name(),
-                task.getProgress()
+    // Dự án chưa có dòng project_stats (vừa tạo, chưa có task) được coi là rỗng
+    private ProjectDTO.StatsDTO convertToStatsDTO(ProjectStats stats) {
+        if (stats == null) {
+            return new ProjectDTO.StatsDTO();
+        }
+        int averageProgress = stats.getTaskCount() > 0
+                ? (int) Math.round((double) stats.getProgressSum() / stats.getTaskCount()) : 0;
+        return new ProjectDTO.StatsDTO(
+                stats.getTaskCount(),
+                stats.getNotStartedCount(),
+                stats.getInProgressCount(),
+                stats.getCompletedCount(),
+                stats.getOnHoldCount(),
+                averageProgress,
+                stats.getOverdueCount(),
+                stats.getNextDueDate()
         );
     }
-} 
\ No newline at end of file
+}
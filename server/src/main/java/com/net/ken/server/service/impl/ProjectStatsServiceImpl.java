@@ -0,0 +1,180 @@
+package com.net.ken.server.service.impl;
+
+import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.TaskRollupDTO;
+import com.net.ken.server.model.Task.Status;
+import com.net.ken.server.repository.ProjectStatsJdbcRepository;
+import com.net.ken.server.repository.ProjectStatsJdbcRepository.Delta;
+import com.net.ken.server.repository.TaskJdbcRepository;
+import com.net.ken.server.service.ProjectStatsService;
+import com.net.ken.server.util.LogUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+public class ProjectStatsServiceImpl implements ProjectStatsService {
+
+    private static final Logger log = LogUtil.getLogger(ProjectStatsServiceImpl.class);
+
+    // Số dự án được tính lại trong mỗi transaction khi đối soát
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    private final ProjectStatsJdbcRepository projectStatsJdbcRepository;
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ProjectStatsServiceImpl(ProjectStatsJdbcRepository projectStatsJdbcRepository,
+                                   TaskJdbcRepository taskJdbcRepository,
+                                   CacheManager cacheManager,
+                                   PlatformTransactionManager transactionManager) {
+        this.projectStatsJdbcRepository = projectStatsJdbcRepository;
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChanges(Collection<TaskRollupDTO> before, Collection<TaskRollupDTO> after) {
+        // Sắp theo ID dự án để các transaction đồng thời khóa dòng project_stats theo cùng thứ tự
+        Map<Long, Delta> deltas = new TreeMap<>();
+        Set<String> projectCacheKeys = new HashSet<>();
+        for (TaskRollupDTO rollup : before) {
+            accumulate(deltas, projectCacheKeys, rollup, -1);
+        }
+        for (TaskRollupDTO rollup : after) {
+            accumulate(deltas, projectCacheKeys, rollup, 1);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> missing = new ArrayList<>();
+        List<Delta> removedDueDates = new ArrayList<>();
+        for (Delta delta : deltas.values()) {
+            if (delta.isEmpty()) {
+                continue;
+            }
+            if (projectStatsJdbcRepository.applyDelta(delta, now) == 0) {
+                missing.add(delta.getProjectId());
+            } else if (delta.getRemovedDueDate() != null
+                    && (delta.getAddedDueDate() == null || delta.getAddedDueDate().isAfter(delta.getRemovedDueDate()))) {
+                removedDueDates.add(delta);
+            }
+        }
+
+        // Hai trường hợp dưới đọc bảng tasks nên cần đẩy các thay đổi đang chờ của JPA xuống trước
+        if (!missing.isEmpty() || !removedDueDates.isEmpty()) {
+            entityManager.flush();
+        }
+        for (Delta delta : removedDueDates) {
+            projectStatsJdbcRepository.recomputeNextDueDate(delta.getProjectId(), delta.getRemovedDueDate());
+        }
+        if (!missing.isEmpty()) {
+            LogUtil.debug(log, "Chưa có số liệu cho các dự án {}, tính lại từ bảng tasks", missing);
+            projectStatsJdbcRepository.reconcile(missing, now);
+        }
+
+        Cache projectCache = cacheManager.getCache(CacheConfig.PROJECT_CACHE);
+        if (projectCache != null) {
+            projectCacheKeys.forEach(projectCache::evict);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChange(TaskRollupDTO before, TaskRollupDTO after) {
+        applyChanges(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+
+    @Override
+    public List<TaskRollupDTO> loadRollups(Collection<Long> taskIds) {
+        return taskJdbcRepository.findRollups(taskIds);
+    }
+
+    private void accumulate(Map<Long, Delta> deltas, Set<String> projectCacheKeys, TaskRollupDTO rollup, int sign) {
+        if (rollup == null || rollup.getProjectId() == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(rollup.getProjectId(), Delta::new);
+        delta.setTaskCount(delta.getTaskCount() + sign);
+        delta.setProgressSum(delta.getProgressSum() + (long) sign * rollup.getProgress());
+        if (rollup.isOverdue()) {
+            delta.setOverdueCount(delta.getOverdueCount() + sign);
+        }
+        if (rollup.getStatus() != null) {
+            switch (rollup.getStatus()) {
+                case NOT_STARTED -> delta.setNotStartedCount(delta.getNotStartedCount() + sign);
+                case IN_PROGRESS -> delta.setInProgressCount(delta.getInProgressCount() + sign);
+                case COMPLETED -> delta.setCompletedCount(delta.getCompletedCount() + sign);
+                case ON_HOLD -> delta.setOnHoldCount(delta.getOnHoldCount() + sign);
+            }
+        }
+        if (rollup.getDueDate() != null && rollup.getStatus() != Status.COMPLETED) {
+            if (sign > 0) {
+                delta.setAddedDueDate(earliest(delta.getAddedDueDate(), rollup.getDueDate()));
+            } else {
+                delta.setRemovedDueDate(earliest(delta.getRemovedDueDate(), rollup.getDueDate()));
+            }
+        }
+        if (rollup.getUserId() != null) {
+            projectCacheKeys.add("user-" + rollup.getUserId());
+            projectCacheKeys.add("project-" + rollup.getProjectId() + "-user-" + rollup.getUserId());
+        }
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    @Override
+    @Scheduled(cron = "${taskmanager.project-stats.reconcile-cron:0 5 * * * *}")
+    public void reconcile() {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0;
+        int projects = 0;
+        try {
+            while (true) {
+                List<Long> projectIds = projectStatsJdbcRepository.findProjectIdsAfter(lastId, RECONCILE_CHUNK_SIZE);
+                if (projectIds.isEmpty()) {
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> projectStatsJdbcRepository.reconcile(projectIds, now));
+                projects += projectIds.size();
+                lastId = projectIds.get(projectIds.size() - 1);
+            }
+        } catch (Exception e) {
+            // Log lỗi nhưng không ném ngoại lệ để tránh dừng các tác vụ theo lịch khác
+            log.error("Lỗi khi đối soát số liệu dự án: ", e);
+        }
+
+        Cache projectCache = cacheManager.getCache(CacheConfig.PROJECT_CACHE);
+        if (projectCache != null) {
+            projectCache.clear();
+        }
+        LogUtil.info(log, "Đã đối soát số liệu của {} dự án trong {} ms", projects, System.currentTimeMillis() - startTime);
+    }
+}
@@ -0,0 +1,105 @@
+package com.net.ken.server.service.impl;
+
+import com.net.ken.server.annotation.ReadOnlyQuery;
+import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.DashboardStatsDTO;
+import com.net.ken.server.dto.DashboardStatsDTO.ProjectCountDTO;
+import com.net.ken.server.model.Task.DueStatus;
+import com.net.ken.server.model.Task.Priority;
+import com.net.ken.server.model.Task.Status;
+import com.net.ken.server.model.User;
+import com.net.ken.server.repository.ProjectRepository;
+import com.net.ken.server.repository.TaskRepository;
+import com.net.ken.server.service.AuthService;
+import com.net.ken.server.service.StatsService;
+import com.net.ken.server.util.LogUtil;
+import com.net.ken.server.util.PerformanceUtil;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class StatsServiceImpl implements StatsService {
+
+    private static final Logger log = LogUtil.getLogger(StatsServiceImpl.class);
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final AuthService authService;
+
+    @Autowired
+    public StatsServiceImpl(TaskRepository taskRepository, ProjectRepository projectRepository, AuthService authService) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.authService = authService;
+    }
+
+    // Lấy người dùng hiện tại từ AuthService
+    public User getCurrentUser() {
+        return authService.getCurrentUser();
+    }
+
+    @Override
+    @ReadOnlyQuery
+    @Cacheable(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    public DashboardStatsDTO getDashboardStats() {
+        User currentUser = getCurrentUser();
+        LogUtil.debug(log, "Đang tính số liệu Dashboard cho người dùng {}", currentUser.getUsername());
+
+        return PerformanceUtil.measureExecutionTime(log, "getDashboardStats", () -> {
+            DashboardStatsDTO stats = new DashboardStatsDTO();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime todayStart = LocalDate.now().atStartOfDay();
+
+            List<Object[]> statusRows = taskRepository.countByUserGroupByStatus(currentUser);
+            stats.setByStatus(toCounts(Status.values(), statusRows));
+            stats.setByPriority(toCounts(Priority.values(), taskRepository.countByUserGroupByPriority(currentUser)));
+            stats.setTotalTasks(statusRows.stream().mapToLong(row -> ((Number) row[1]).longValue()).sum());
+
+            for (Object[] row : taskRepository.countByUserGroupByProject(currentUser)) {
+                stats.getByProject().add(new ProjectCountDTO((Long) row[0], (String) row[1], ((Number) row[2]).longValue()));
+            }
+            stats.setTotalProjects(projectRepository.countByUser(currentUser));
+
+            List<Object[]> dueTotals = taskRepository.countDueTotalsByUser(
+                    currentUser, Status.COMPLETED, todayStart, todayStart.plusDays(1));
+            if (!dueTotals.isEmpty()) {
+                stats.setOverdue(((Number) dueTotals.get(0)[0]).longValue());
+                stats.setDueToday(((Number) dueTotals.get(0)[1]).longValue());
+            }
+
+            // Trạng thái hạn chót suy ra từ hai tổng trên thay vì cột due_status, vốn chỉ được
+            // job DueStatusService tính lại mỗi giờ nên có thể trễ vài phút sau nửa đêm
+            Map<String, Long> byDueStatus = new LinkedHashMap<>();
+            byDueStatus.put(DueStatus.NORMAL.name(), stats.getTotalTasks() - stats.getOverdue() - stats.getDueToday());
+            byDueStatus.put(DueStatus.DUE_SOON.name(), stats.getDueToday());
+            byDueStatus.put(DueStatus.OVERDUE.name(), stats.getOverdue());
+            stats.setByDueStatus(byDueStatus);
+
+            stats.setGeneratedAt(now);
+            return stats;
+        });
+    }
+
+    // Chuyển các dòng [enum, số lượng] thành map đủ mọi giá trị enum theo thứ tự khai báo
+    private static <E extends Enum<E>> Map<String, Long> toCounts(E[] values, List<Object[]> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (E value : values) {
+            counts.put(value.name(), 0L);
+        }
+        for (Object[] row : rows) {
+            // Nhóm null (task cũ chưa có ưu tiên) chỉ được tính vào tổng số task
+            if (row[0] != null) {
+                counts.put(((Enum<?>) row[0]).name(), ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+}
@@ -1,17 +1,17 @@
 package com.net.ken.server.service.impl;
 
+import com.net.ken.server.annotation.ReadOnlyQuery;
 import com.net.ken.server.dto.TagDTO;
 import com.net.ken.server.dto.TagDTO.CreateTagDTO;
 import com.net.ken.server.model.Tag;
 import com.net.ken.server.model.User;
 import com.net.ken.server.repository.TagRepository;
-import com.net.ken.server.repository.UserRepository;
 import com.net.ken.server.service.TagService;
-import com.net.ken.server.util.SecurityUtils;
+import com.net.ken.server.service.TaskSearchIndex;
+import com.net.ken.server.util.CurrentUserContext;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,23 +22,21 @@ import java.util.stream.Collectors;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
-    private final UserRepository userRepository;
+    private final TaskSearchIndex taskSearchIndex;
 
     @Autowired
-    public TagServiceImpl(TagRepository tagRepository, UserRepository userRepository) {
+    public TagServiceImpl(TagRepository tagRepository, TaskSearchIndex taskSearchIndex) {
         this.tagRepository = tagRepository;
-        this.userRepository = userRepository;
+        this.taskSearchIndex = taskSearchIndex;
     }
     
-    // Lấy người dùng hiện tại từ context bảo mật
+    // Người dùng đã được gán khi xác thực request, không truy vấn lại theo username
     private User getCurrentUser() {
-        String username = SecurityUtils.getCurrentUsername()
-            .orElseThrow(() -> new AccessDeniedException("Không tìm thấy thông tin người dùng hiện tại"));
-        return userRepository.findByUsername(username)
-            .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy người dùng: " + username));
+        return CurrentUserContext.getUser();
     }
 
     @Override
+    @ReadOnlyQuery
     public List<TagDTO> getAllTags() {
         User currentUser = getCurrentUser();
         return tagRepository.findByUser(currentUser).stream()
@@ -47,16 +45,10 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @ReadOnlyQuery
     public TagDTO getTagById(Long id) {
         User currentUser = getCurrentUser();
-        Tag tag = tagRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thẻ với ID: " + id));
-                
-        // Kiểm tra quyền truy cập
-        if (tag.getUser() != null && !tag.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền truy cập thẻ này");
-        }
-        
+        Tag tag = findOwnedTag(id, currentUser);
         return convertToDTO(tag);
     }
 
@@ -83,13 +75,7 @@ public class TagServiceImpl implements TagService {
     @Transactional
     public TagDTO updateTag(Long id, CreateTagDTO updateTagDTO) {
         User currentUser = getCurrentUser();
-        Tag tag = tagRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thẻ với ID: " + id));
-        
-        // Kiểm tra quyền truy cập
-        if (tag.getUser() != null && !tag.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền cập nhật thẻ này");
-        }
+        Tag tag = findOwnedTag(id, currentUser);
         
         // Kiểm tra xem tên mới đã tồn tại chưa nếu tên đang thay đổi
         if (!tag.getName().equals(updateTagDTO.getName()) && 
@@ -101,6 +87,8 @@ public class TagServiceImpl implements TagService {
         tag.setColor(updateTagDTO.getColor());
         
         Tag updatedTag = tagRepository.save(tag);
+        // Tên thẻ nằm trong chỉ mục tìm kiếm của các task được gắn thẻ
+        taskSearchIndex.invalidateUser(currentUser.getId());
         return convertToDTO(updatedTag);
     }
 
@@ -108,15 +96,15 @@ public class TagServiceImpl implements TagService {
     @Transactional
     public void deleteTag(Long id) {
         User currentUser = getCurrentUser();
-        Tag tag = tagRepository.findById(id)
+        Tag tag = findOwnedTag(id, currentUser);
+        tagRepository.delete(tag);
+        taskSearchIndex.invalidateUser(currentUser.getId());
+    }
+    
+    // Thẻ không tồn tại hay của người khác đều là 404, một truy vấn theo (id, user_id)
+    private Tag findOwnedTag(Long id, User user) {
+        return tagRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thẻ với ID: " + id));
-                
-        // Kiểm tra quyền truy cập
-        if (tag.getUser() != null && !tag.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền xóa thẻ này");
-        }
-        
-        tagRepository.deleteById(id);
     }
     
     private TagDTO convertToDTO(Tag tag) {
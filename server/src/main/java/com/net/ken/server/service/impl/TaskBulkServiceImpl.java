@@ -0,0 +1,438 @@
+package com.net.ken.server.service.impl;
+
+import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.BulkTaskDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkCreateDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkDeleteDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkItemResultDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkMoveDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkResultDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkRetagDTO;
+import com.net.ken.server.dto.BulkTaskDTO.BulkUpdateDTO;
+import com.net.ken.server.dto.TaskDTO.CreateTaskDTO;
+import com.net.ken.server.dto.TaskRollupDTO;
+import com.net.ken.server.model.Project;
+import com.net.ken.server.model.Tag;
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.Task.Priority;
+import com.net.ken.server.model.Task.Status;
+import com.net.ken.server.model.User;
+import com.net.ken.server.repository.ProjectRepository;
+import com.net.ken.server.repository.TagRepository;
+import com.net.ken.server.repository.TaskJdbcRepository;
+import com.net.ken.server.service.AuthService;
+import com.net.ken.server.service.ProjectStatsService;
+import com.net.ken.server.service.TaskProgressCoalescer;
+import com.net.ken.server.service.TaskBulkService;
+import com.net.ken.server.service.TaskSearchIndex;
+import com.net.ken.server.util.LogUtil;
+import com.net.ken.server.util.PerformanceUtil;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thao tác hàng loạt trên task: mỗi lời gọi là một transaction, INSERT theo lô và UPDATE/DELETE theo tập hợp.
+ * Phần tử không hợp lệ hoặc không thuộc người dùng được báo lỗi riêng, các phần tử còn lại vẫn được xử lý.
+ */
+@Service
+public class TaskBulkServiceImpl implements TaskBulkService {
+
+    private static final Logger log = LogUtil.getLogger(TaskBulkServiceImpl.class);
+
+    // Giới hạn độ dài danh sách IN; số phần tử tối đa của một yêu cầu là BulkTaskDTO.MAX_ITEMS
+    private static final int BATCH_SIZE = 500;
+    // Giới hạn giống TaskImportServiceImpl: tasks.title là VARCHAR(255)
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 10_000;
+
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final ProjectRepository projectRepository;
+    private final TagRepository tagRepository;
+    private final AuthService authService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ProjectStatsService projectStatsService;
+    private final TaskProgressCoalescer progressCoalescer;
+
+    @Autowired
+    public TaskBulkServiceImpl(TaskJdbcRepository taskJdbcRepository,
+                               ProjectRepository projectRepository,
+                               TagRepository tagRepository,
+                               AuthService authService,
+                               TaskSearchIndex taskSearchIndex,
+                               ProjectStatsService projectStatsService,
+                               TaskProgressCoalescer progressCoalescer) {
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.projectRepository = projectRepository;
+        this.tagRepository = tagRepository;
+        this.authService = authService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.projectStatsService = projectStatsService;
+        this.progressCoalescer = progressCoalescer;
+    }
+
+    // Lấy người dùng hiện tại từ AuthService
+    public User getCurrentUser() {
+        return authService.getCurrentUser();
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
+    public BulkResultDTO createTasks(BulkCreateDTO request) {
+        User currentUser = getCurrentUser();
+        List<CreateTaskDTO> items = request.getTasks();
+        checkSize(items);
+        LogUtil.debug(log, "Đang tạo {} task hàng loạt cho người dùng {}", items.size(), currentUser.getUsername());
+
+        return PerformanceUtil.measureExecutionTime(log, "bulkCreateTasks", () -> {
+            // Nạp trước tất cả dự án và thẻ được tham chiếu bằng hai truy vấn
+            Set<Long> projectIds = new HashSet<>();
+            Set<Long> tagIds = new HashSet<>();
+            for (CreateTaskDTO item : items) {
+                if (item.getProjectId() != null) {
+                    projectIds.add(item.getProjectId());
+                }
+                if (item.getTagIds() != null) {
+                    tagIds.addAll(item.getTagIds());
+                }
+            }
+            // Chỉ nạp dự án và thẻ của người dùng; ID của người khác coi như không tồn tại
+            Map<Long, Project> projects = new HashMap<>();
+            if (!projectIds.isEmpty()) {
+                for (Project project : projectRepository.findByIdInAndUser(projectIds, currentUser)) {
+                    projects.put(project.getId(), project);
+                }
+            }
+            Set<Long> ownedTagIds = new HashSet<>();
+            if (!tagIds.isEmpty()) {
+                for (Tag tag : tagRepository.findByIdInAndUser(tagIds, currentUser)) {
+                    ownedTagIds.add(tag.getId());
+                }
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<BulkItemResultDTO> results = new ArrayList<>(items.size());
+            List<Task> tasks = new ArrayList<>();
+            List<String> descriptions = new ArrayList<>();
+            List<BulkItemResultDTO> insertedResults = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                CreateTaskDTO item = items.get(i);
+                String error = validate(item, projects, ownedTagIds);
+                if (error != null) {
+                    results.add(new BulkItemResultDTO(i, null, false, error));
+                    continue;
+                }
+                tasks.add(toTask(item, projects, currentUser, now));
+                descriptions.add(item.getDescription());
+                BulkItemResultDTO result = new BulkItemResultDTO(i, null, true, null);
+                insertedResults.add(result);
+                results.add(result);
+            }
+
+            taskJdbcRepository.insertTasks(tasks, BATCH_SIZE);
+            taskJdbcRepository.insertDescriptions(tasks, descriptions, BATCH_SIZE);
+            projectStatsService.applyChanges(List.of(), tasks.stream().map(TaskRollupDTO::of).toList());
+
+            List<long[]> taskTags = new ArrayList<>();
+            int taskIndex = 0;
+            for (BulkItemResultDTO result : insertedResults) {
+                Long taskId = tasks.get(taskIndex++).getId();
+                result.setTaskId(taskId);
+                Set<Long> itemTagIds = items.get(result.getIndex()).getTagIds();
+                if (itemTagIds != null) {
+                    for (Long tagId : itemTagIds) {
+                        taskTags.add(new long[]{taskId, tagId});
+                    }
+                }
+            }
+            taskJdbcRepository.insertTaskTags(taskTags, BATCH_SIZE);
+
+            taskSearchIndex.invalidateUser(currentUser.getId());
+            LogUtil.info(log, "Đã tạo {} / {} task hàng loạt", tasks.size(), items.size());
+            return summarize(results);
+        });
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
+    public BulkResultDTO updateTasks(BulkUpdateDTO request) {
+        User currentUser = getCurrentUser();
+        checkSize(request.getTaskIds());
+
+        Map<String, Object> columns = new LinkedHashMap<>();
+        Status status = null;
+        if (request.getStatus() != null) {
+            status = parseStatus(request.getStatus());
+            if (status == null) {
+                throw new IllegalArgumentException("Trạng thái không hợp lệ: " + request.getStatus());
+            }
+        }
+        if (request.getPriority() != null) {
+            Priority priority = parsePriority(request.getPriority());
+            if (priority == null) {
+                throw new IllegalArgumentException("Mức ưu tiên không hợp lệ: " + request.getPriority());
+            }
+            columns.put("priority", priority);
+        }
+        Integer progress = request.getProgress();
+        if (progress != null && (progress < 0 || progress > 100)) {
+            throw new IllegalArgumentException("Tiến độ phải nằm trong khoảng từ 0 đến 100");
+        }
+
+        // Giữ liên kết trạng thái - tiến độ giống updateTaskStatus/updateTaskProgress
+        if (status != null && progress == null) {
+            if (status == Status.COMPLETED) {
+                progress = 100;
+            } else if (status == Status.NOT_STARTED) {
+                progress = 0;
+            }
+        } else if (status == null && progress != null) {
+            status = progress == 100 ? Status.COMPLETED : progress == 0 ? Status.NOT_STARTED : Status.IN_PROGRESS;
+        }
+        if (status != null) {
+            columns.put("status", status);
+        }
+        if (progress != null) {
+            columns.put("progress", progress);
+        }
+        if (request.getStartDate() != null) {
+            columns.put("start_date", request.getStartDate());
+        }
+        if (request.getDueDate() != null) {
+            columns.put("due_date", request.getDueDate());
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Không có trường nào để cập nhật");
+        }
+
+        return PerformanceUtil.measureExecutionTime(log, "bulkUpdateTasks", () -> {
+            Set<Long> owned = new HashSet<>(taskJdbcRepository.findOwnedTaskIds(request.getTaskIds(), currentUser.getId()));
+            // Ghi tiến độ đang chờ trước để nó không ghi đè giá trị của lần cập nhật hàng loạt này
+            progressCoalescer.flush(currentUser.getId(), owned);
+            List<TaskRollupDTO> before = projectStatsService.loadRollups(owned);
+            int updated = taskJdbcRepository.updateColumns(owned, currentUser.getId(), columns, LocalDateTime.now());
+            projectStatsService.applyChanges(before, projectStatsService.loadRollups(owned));
+            LogUtil.info(log, "Đã cập nhật {} task hàng loạt, các trường: {}", updated, columns.keySet());
+            return summarize(resultsFor(request.getTaskIds(), owned));
+        });
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
+    public BulkResultDTO moveTasks(BulkMoveDTO request) {
+        User currentUser = getCurrentUser();
+        checkSize(request.getTaskIds());
+
+        if (request.getProjectId() != null) {
+            if (!projectRepository.existsByIdAndUser(request.getProjectId(), currentUser)) {
+                throw new EntityNotFoundException("Không tìm thấy dự án với ID: " + request.getProjectId());
+            }
+        }
+
+        return PerformanceUtil.measureExecutionTime(log, "bulkMoveTasks", () -> {
+            Set<Long> owned = new HashSet<>(taskJdbcRepository.findOwnedTaskIds(request.getTaskIds(), currentUser.getId()));
+            Map<String, Object> columns = new HashMap<>();
+            columns.put("project_id", request.getProjectId());
+            List<TaskRollupDTO> before = projectStatsService.loadRollups(owned);
+            int moved = taskJdbcRepository.updateColumns(owned, currentUser.getId(), columns, LocalDateTime.now());
+            projectStatsService.applyChanges(before, projectStatsService.loadRollups(owned));
+
+            taskSearchIndex.invalidateUser(currentUser.getId());
+            LogUtil.info(log, "Đã chuyển {} task sang dự án {}", moved, request.getProjectId());
+            return summarize(resultsFor(request.getTaskIds(), owned));
+        });
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
+    public BulkResultDTO retagTasks(BulkRetagDTO request) {
+        User currentUser = getCurrentUser();
+        checkSize(request.getTaskIds());
+
+        Set<Long> addTagIds = request.getAddTagIds() != null ? request.getAddTagIds() : Set.of();
+        Set<Long> removeTagIds = request.getRemoveTagIds() != null ? request.getRemoveTagIds() : Set.of();
+        if (addTagIds.isEmpty() && removeTagIds.isEmpty()) {
+            throw new IllegalArgumentException("Không có thẻ nào để thêm hoặc bỏ");
+        }
+        checkTagsOwned(addTagIds, currentUser);
+
+        return PerformanceUtil.measureExecutionTime(log, "bulkRetagTasks", () -> {
+            List<Long> owned = taskJdbcRepository.findOwnedTaskIds(request.getTaskIds(), currentUser.getId());
+
+            taskJdbcRepository.deleteTaskTags(owned, removeTagIds);
+            List<long[]> taskTags = new ArrayList<>(owned.size() * addTagIds.size());
+            for (Long taskId : owned) {
+                for (Long tagId : addTagIds) {
+                    taskTags.add(new long[]{taskId, tagId});
+                }
+            }
+            taskJdbcRepository.insertTaskTags(taskTags, BATCH_SIZE);
+            taskJdbcRepository.touch(owned, currentUser.getId(), LocalDateTime.now());
+
+            taskSearchIndex.invalidateUser(currentUser.getId());
+            LogUtil.info(log, "Đã đổi thẻ cho {} task", owned.size());
+            return summarize(resultsFor(request.getTaskIds(), new HashSet<>(owned)));
+        });
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
+    public BulkResultDTO deleteTasks(BulkDeleteDTO request) {
+        User currentUser = getCurrentUser();
+        checkSize(request.getTaskIds());
+
+        return PerformanceUtil.measureExecutionTime(log, "bulkDeleteTasks", () -> {
+            Set<Long> owned = new HashSet<>(taskJdbcRepository.findOwnedTaskIds(request.getTaskIds(), currentUser.getId()));
+            List<TaskRollupDTO> before = projectStatsService.loadRollups(owned);
+            int deleted = taskJdbcRepository.deleteTasks(owned, currentUser.getId());
+            progressCoalescer.discard(owned);
+            projectStatsService.applyChanges(before, List.of());
+
+            for (Long taskId : owned) {
+                taskSearchIndex.removeTask(currentUser.getId(), taskId);
+            }
+            LogUtil.info(log, "Đã xóa {} task hàng loạt", deleted);
+            return summarize(resultsFor(request.getTaskIds(), owned));
+        });
+    }
+
+    private void checkSize(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Danh sách phần tử không được để trống");
+        }
+        if (items.size() > BulkTaskDTO.MAX_ITEMS) {
+            throw new IllegalArgumentException("Mỗi yêu cầu chỉ được tối đa " + BulkTaskDTO.MAX_ITEMS + " phần tử");
+        }
+    }
+
+    private void checkTagsOwned(Set<Long> tagIds, User currentUser) {
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        // Thẻ không tồn tại hay của người khác đều không có trong kết quả
+        List<Tag> tags = tagRepository.findByIdInAndUser(tagIds, currentUser);
+        if (tags.size() != tagIds.size()) {
+            throw new EntityNotFoundException("Không tìm thấy một hoặc nhiều thẻ trong danh sách");
+        }
+    }
+
+    // Kiểm tra một phần tử tạo mới, trả về thông báo lỗi hoặc null nếu hợp lệ
+    private String validate(CreateTaskDTO item, Map<Long, Project> projects, Set<Long> ownedTagIds) {
+        if (item.getTitle() == null || item.getTitle().isBlank()) {
+            return "Tiêu đề không được để trống";
+        }
+        // Một giá trị quá dài làm INSERT theo lô lỗi và rollback cả yêu cầu: báo lỗi riêng phần tử này
+        if (item.getTitle().length() > MAX_TEXT_LENGTH) {
+            return "Tiêu đề không được vượt quá " + MAX_TEXT_LENGTH + " ký tự";
+        }
+        if (item.getDescription() != null && item.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Mô tả không được vượt quá " + MAX_DESCRIPTION_LENGTH + " ký tự";
+        }
+        if (item.getPriority() != null && parsePriority(item.getPriority()) == null) {
+            return "Mức độ ưu tiên không hợp lệ: " + item.getPriority();
+        }
+        if (item.getStatus() != null && !item.getStatus().isEmpty() && parseStatus(item.getStatus()) == null) {
+            return "Trạng thái không hợp lệ: " + item.getStatus();
+        }
+        if (item.getProgress() != null && (item.getProgress() < 0 || item.getProgress() > 100)) {
+            return "Tiến độ phải từ 0-100%";
+        }
+        if (item.getProjectId() != null && !projects.containsKey(item.getProjectId())) {
+            return "Không tìm thấy dự án với ID: " + item.getProjectId();
+        }
+        if (item.getTagIds() != null) {
+            for (Long tagId : item.getTagIds()) {
+                if (!ownedTagIds.contains(tagId)) {
+                    return "Không tìm thấy thẻ với ID: " + tagId;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Giá trị mặc định giống TaskServiceImpl.createTask và Task.onCreate
+    private Task toTask(CreateTaskDTO item, Map<Long, Project> projects, User currentUser, LocalDateTime now) {
+        Task task = new Task();
+        task.setTitle(item.getTitle());
+        task.setStartDate(item.getStartDate() != null ? item.getStartDate() : now);
+        task.setDueDate(item.getDueDate());
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        task.setPriority(item.getPriority() != null ? parsePriority(item.getPriority()) : Priority.MEDIUM);
+        task.setStatus(item.getStatus() != null && !item.getStatus().isEmpty()
+                ? parseStatus(item.getStatus()) : Status.NOT_STARTED);
+        task.setProgress(item.getProgress() != null ? item.getProgress() : 0);
+        task.setDueStatus(Task.computeDueStatus(task.getDueDate(), task.getStatus(), now));
+        task.setProject(item.getProjectId() != null ? projects.get(item.getProjectId()) : null);
+        task.setUser(currentUser);
+        return task;
+    }
+
+    private List<BulkItemResultDTO> resultsFor(List<Long> taskIds, Set<Long> owned) {
+        List<BulkItemResultDTO> results = new ArrayList<>(taskIds.size());
+        for (int i = 0; i < taskIds.size(); i++) {
+            Long taskId = taskIds.get(i);
+            if (owned.contains(taskId)) {
+                results.add(new BulkItemResultDTO(i, taskId, true, null));
+            } else {
+                results.add(new BulkItemResultDTO(i, taskId, false, "Không tìm thấy công việc với ID: " + taskId));
+            }
+        }
+        return results;
+    }
+
+    private BulkResultDTO summarize(List<BulkItemResultDTO> results) {
+        int succeeded = (int) results.stream().filter(BulkItemResultDTO::isSuccess).count();
+        return new BulkResultDTO(results.size(), succeeded, results.size() - succeeded, results);
+    }
+
+    private Priority parsePriority(String value) {
+        try {
+            return Priority.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Status parseStatus(String value) {
+        try {
+            return Status.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
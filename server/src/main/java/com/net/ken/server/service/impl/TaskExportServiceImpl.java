@@ -0,0 +1,149 @@
+package com.net.ken.server.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.net.ken.server.annotation.ReadOnlyQuery;
+import com.net.ken.server.dto.TaskExportDTO;
+import com.net.ken.server.repository.TaskRepository;
+import com.net.ken.server.service.TaskExportService;
+import com.net.ken.server.util.CsvReader;
+import com.net.ken.server.util.LogUtil;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class TaskExportServiceImpl implements TaskExportService {
+
+    private static final Logger log = LogUtil.getLogger(TaskExportServiceImpl.class);
+
+    private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String CSV_HEADER = "id,title,description,status,priority,progress,dueStatus,"
+            + "startDate,dueDate,createdAt,updatedAt,project,tags";
+
+    // Đẩy dữ liệu đã ghi xuống client sau mỗi chừng này task
+    private static final int FLUSH_EVERY = 1000;
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public TaskExportServiceImpl(TaskRepository taskRepository, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public void exportUserTasks(Long userId, Format format, OutputStream out) throws IOException {
+        LogUtil.info(log, "Bắt đầu export task của người dùng {} dạng {}", userId, format);
+        try (Stream<TaskExportDTO> rows = taskRepository.streamExportRowsByUserId(userId)) {
+            long count = write(rows.iterator(), format, false, out);
+            LogUtil.info(log, "Đã export {} task của người dùng {}", count, userId);
+        }
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public void exportAllTasks(Format format, OutputStream out) throws IOException {
+        LogUtil.info(log, "Bắt đầu export task của toàn hệ thống dạng {}", format);
+        try (Stream<TaskExportDTO> rows = taskRepository.streamAllExportRows()) {
+            long count = write(rows.iterator(), format, true, out);
+            LogUtil.info(log, "Đã export {} task của toàn hệ thống", count);
+        }
+    }
+
+    /**
+     * Gộp các dòng (task, tag) liên tiếp thành một task rồi ghi ngay ra output,
+     * tại mỗi thời điểm chỉ giữ một task trong bộ nhớ
+     */
+    private long write(Iterator<TaskExportDTO> rows, Format format, boolean includeUsername, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(includeUsername ? CSV_HEADER + ",username" : CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        TaskExportDTO current = null;
+        while (rows.hasNext()) {
+            TaskExportDTO row = rows.next();
+            if (current != null && current.getId().equals(row.getId())) {
+                if (row.getTagName() != null) {
+                    current.getTags().add(row.getTagName());
+                }
+                continue;
+            }
+            if (current != null) {
+                writeRecord(writer, current, format, includeUsername);
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            current = row;
+        }
+        if (current != null) {
+            writeRecord(writer, current, format, includeUsername);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeRecord(Writer writer, TaskExportDTO task, Format format, boolean includeUsername)
+            throws IOException {
+        if (!includeUsername) {
+            task.setUsername(null);
+        }
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(task));
+            writer.write('\n');
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(256);
+        line.append(task.getId()).append(',')
+                .append(csv(task.getTitle())).append(',')
+                .append(csv(task.getDescription())).append(',')
+                .append(csv(task.getStatus())).append(',')
+                .append(csv(task.getPriority())).append(',')
+                .append(task.getProgress()).append(',')
+                .append(csv(task.getDueStatus())).append(',')
+                .append(csv(task.getStartDate())).append(',')
+                .append(csv(task.getDueDate())).append(',')
+                .append(csv(task.getCreatedAt())).append(',')
+                .append(csv(task.getUpdatedAt())).append(',')
+                .append(csv(task.getProjectName())).append(',')
+                .append(csv(CsvReader.joinList(task.getTags())));
+        if (includeUsername) {
+            line.append(',').append(csv(task.getUsername()));
+        }
+        writer.write(line.append('\n').toString());
+    }
+
+    private static String csv(LocalDateTime value) {
+        return value != null ? DATETIME_FORMAT.format(value) : "";
+    }
+
+    // Bọc giá trị trong dấu nháy kép khi có dấu phẩy, nháy kép hoặc xuống dòng (RFC 4180)
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
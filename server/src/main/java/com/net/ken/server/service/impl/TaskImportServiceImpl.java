@@ -0,0 +1,575 @@
+package com.net.ken.server.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.TaskImportDTO;
+import com.net.ken.server.dto.TaskImportDTO.ImportRowDTO;
+import com.net.ken.server.dto.TaskImportDTO.RowErrorDTO;
+import com.net.ken.server.dto.TaskRollupDTO;
+import com.net.ken.server.model.Project;
+import com.net.ken.server.model.Tag;
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.Task.Priority;
+import com.net.ken.server.model.Task.Status;
+import com.net.ken.server.model.User;
+import com.net.ken.server.repository.ProjectRepository;
+import com.net.ken.server.repository.TagRepository;
+import com.net.ken.server.repository.TaskJdbcRepository;
+import com.net.ken.server.service.AuthService;
+import com.net.ken.server.service.ProjectStatsService;
+import com.net.ken.server.service.TaskExportService.Format;
+import com.net.ken.server.service.TaskImportService;
+import com.net.ken.server.service.TaskSearchIndex;
+import com.net.ken.server.util.CsvReader;
+import com.net.ken.server.util.LogUtil;
+import com.net.ken.server.util.PerformanceUtil;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import task theo luồng: đọc từng dòng từ input, kiểm tra, gom thành khối CHUNK_SIZE dòng
+ * rồi ghi mỗi khối trong một transaction riêng bằng INSERT theo lô.
+ * Dự án và thẻ được tra theo tên trong từ điển nạp một lần lúc bắt đầu; tên chưa có sẽ được tạo mới.
+ * Khối bị lỗi khi ghi được rollback riêng, các khối khác vẫn giữ nguyên.
+ */
+@Service
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final Logger log = LogUtil.getLogger(TaskImportServiceImpl.class);
+
+    private static final int CHUNK_SIZE = 500;
+    // Số lỗi chi tiết giữ lại cho mỗi lần import, rowsFailed vẫn đếm đủ
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // Độ dài tối đa của các cột VARCHAR(255)
+    private static final int MAX_TEXT_LENGTH = 255;
+    // Mô tả nằm ở bảng riêng (task_descriptions), được nén khi lưu
+    private static final int MAX_DESCRIPTION_LENGTH = 10_000;
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final ProjectRepository projectRepository;
+    private final TagRepository tagRepository;
+    private final AuthService authService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ProjectStatsService projectStatsService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Ảnh chụp tiến độ các lần import, khóa "userId:importId"; giữ lại một thời gian sau khi kết thúc để client tra cứu
+    private final Cache<String, TaskImportDTO> imports = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .maximumSize(1000)
+            .build();
+
+    @Autowired
+    public TaskImportServiceImpl(TaskJdbcRepository taskJdbcRepository,
+                                 ProjectRepository projectRepository,
+                                 TagRepository tagRepository,
+                                 AuthService authService,
+                                 TaskSearchIndex taskSearchIndex,
+                                 ProjectStatsService projectStatsService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.projectRepository = projectRepository;
+        this.tagRepository = tagRepository;
+        this.authService = authService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.projectStatsService = projectStatsService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Lấy người dùng hiện tại từ AuthService
+    public User getCurrentUser() {
+        return authService.getCurrentUser();
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE, CacheConfig.PROJECT_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
+    public TaskImportDTO importTasks(Format format, InputStream in) {
+        ImportJob job = new ImportJob(getCurrentUser(), format);
+        publish(job);
+        LogUtil.info(log, "Bắt đầu import {} dạng {} cho người dùng {}", job.progress.getId(), format, job.user.getUsername());
+
+        return PerformanceUtil.measureExecutionTime(log, "importTasks", () -> run(job, in));
+    }
+
+    @Override
+    public List<TaskImportDTO> getImports() {
+        String prefix = getCurrentUser().getId() + ":";
+        List<TaskImportDTO> result = new ArrayList<>();
+        imports.asMap().forEach((key, value) -> {
+            if (key.startsWith(prefix)) {
+                result.add(value);
+            }
+        });
+        result.sort(Comparator.comparing(TaskImportDTO::getStartedAt).reversed());
+        return result;
+    }
+
+    @Override
+    public TaskImportDTO getImport(String importId) {
+        TaskImportDTO result = imports.getIfPresent(getCurrentUser().getId() + ":" + importId);
+        if (result == null) {
+            throw new EntityNotFoundException("Không tìm thấy lần import với ID: " + importId);
+        }
+        return result;
+    }
+
+    private TaskImportDTO run(ImportJob job, InputStream in) {
+        TaskImportDTO progress = job.progress;
+        try {
+            loadDictionaries(job);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            if (job.format == Format.CSV) {
+                readCsv(job, reader);
+            } else {
+                readNdjson(job, reader);
+            }
+            flush(job);
+            progress.setStatus(STATUS_COMPLETED);
+            LogUtil.info(log, "Hoàn tất import {}: {} dòng, {} thành công, {} lỗi",
+                    progress.getId(), progress.getRowsRead(), progress.getRowsImported(), progress.getRowsFailed());
+        } catch (IOException | RuntimeException e) {
+            // Lỗi đọc input hoặc file sai cấu trúc: dừng lại, các khối đã ghi vẫn được giữ
+            LogUtil.error(log, "Import {} bị dừng ở dòng thứ {}", e, progress.getId(), progress.getRowsRead());
+            progress.setStatus(STATUS_FAILED);
+            progress.setMessage(e.getMessage());
+        } finally {
+            progress.setFinishedAt(LocalDateTime.now());
+            publish(job);
+            if (progress.getRowsImported() > 0 || progress.getProjectsCreated() > 0 || progress.getTagsCreated() > 0) {
+                taskSearchIndex.invalidateUser(job.user.getId());
+            }
+        }
+        return snapshot(progress);
+    }
+
+    private void loadDictionaries(ImportJob job) {
+        for (Project project : projectRepository.findByUser(job.user)) {
+            job.projects.putIfAbsent(project.getName(), project);
+        }
+        for (Tag tag : tagRepository.findByUser(job.user)) {
+            job.tags.put(tag.getName(), tag.getId());
+        }
+    }
+
+    private void readCsv(ImportJob job, BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            // Bỏ BOM do Excel thêm vào đầu file UTF-8
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("File CSV thiếu cột title");
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long line = csv.getRecordLineNumber();
+            countRow(job);
+            try {
+                addRow(job, line, toRow(record, columns));
+            } catch (IllegalArgumentException e) {
+                fail(job, line, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(ImportJob job, BufferedReader reader) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            countRow(job);
+            ImportRowDTO row;
+            try {
+                row = objectMapper.readValue(text, ImportRowDTO.class);
+            } catch (JsonProcessingException e) {
+                fail(job, line, "Dòng JSON không hợp lệ: " + e.getOriginalMessage());
+                continue;
+            }
+            addRow(job, line, row);
+        }
+    }
+
+    // Các cột CSV cùng tên với file export; cột không có trong header được bỏ qua
+    private ImportRowDTO toRow(List<String> record, Map<String, Integer> columns) {
+        ImportRowDTO row = new ImportRowDTO();
+        row.setTitle(column(record, columns, "title"));
+        row.setDescription(column(record, columns, "description"));
+        row.setStatus(column(record, columns, "status"));
+        row.setPriority(column(record, columns, "priority"));
+        String progress = column(record, columns, "progress");
+        if (progress != null) {
+            try {
+                row.setProgress(Integer.valueOf(progress.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Tiến độ không hợp lệ: " + progress);
+            }
+        }
+        row.setStartDate(parseDateTime(column(record, columns, "startDate"), "startDate"));
+        row.setDueDate(parseDateTime(column(record, columns, "dueDate"), "dueDate"));
+        row.setProjectName(column(record, columns, "project"));
+        String tags = column(record, columns, "tags");
+        if (tags != null) {
+            row.setTags(CsvReader.splitList(tags));
+        }
+        return row;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    // Chấp nhận cả dạng yyyy-MM-dd'T'HH:mm:ss của file export và dạng chỉ có ngày
+    private static LocalDateTime parseDateTime(String value, String column) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(text).atStartOfDay();
+            } catch (DateTimeParseException ignored) {
+                throw new IllegalArgumentException("Giá trị ngày giờ không hợp lệ ở cột " + column + ": " + value);
+            }
+        }
+    }
+
+    private void countRow(ImportJob job) {
+        job.progress.setRowsRead(job.progress.getRowsRead() + 1);
+        if (job.progress.getRowsRead() % CHUNK_SIZE == 0) {
+            publish(job);
+        }
+    }
+
+    private void addRow(ImportJob job, long line, ImportRowDTO row) {
+        normalize(row);
+        String error = validate(row);
+        if (error != null) {
+            fail(job, line, error);
+            return;
+        }
+        job.chunk.add(new PendingRow(line, row));
+        if (job.chunk.size() >= CHUNK_SIZE) {
+            flush(job);
+        }
+    }
+
+    private void normalize(ImportRowDTO row) {
+        if (row.getTitle() != null) {
+            row.setTitle(row.getTitle().trim());
+        }
+        if (row.getProjectName() != null) {
+            String projectName = row.getProjectName().trim();
+            row.setProjectName(projectName.isEmpty() ? null : projectName);
+        }
+        Set<String> tags = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        if (row.getTags() != null) {
+            for (String tag : row.getTags()) {
+                if (tag != null && !tag.isBlank()) {
+                    tags.add(tag.trim());
+                }
+            }
+        }
+        row.setTags(new ArrayList<>(tags));
+    }
+
+    // Kiểm tra một dòng, trả về thông báo lỗi hoặc null nếu hợp lệ
+    private String validate(ImportRowDTO row) {
+        if (row.getTitle() == null || row.getTitle().isEmpty()) {
+            return "Tiêu đề không được để trống";
+        }
+        if (row.getTitle().length() > MAX_TEXT_LENGTH) {
+            return "Tiêu đề không được vượt quá " + MAX_TEXT_LENGTH + " ký tự";
+        }
+        if (row.getDescription() != null && row.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Mô tả không được vượt quá " + MAX_DESCRIPTION_LENGTH + " ký tự";
+        }
+        if (row.getPriority() != null && !row.getPriority().isBlank() && parsePriority(row.getPriority()) == null) {
+            return "Mức độ ưu tiên không hợp lệ: " + row.getPriority();
+        }
+        if (row.getStatus() != null && !row.getStatus().isBlank() && parseStatus(row.getStatus()) == null) {
+            return "Trạng thái không hợp lệ: " + row.getStatus();
+        }
+        if (row.getProgress() != null && (row.getProgress() < 0 || row.getProgress() > 100)) {
+            return "Tiến độ phải từ 0-100%";
+        }
+        if (row.getProjectName() != null && row.getProjectName().length() > MAX_TEXT_LENGTH) {
+            return "Tên dự án không được vượt quá " + MAX_TEXT_LENGTH + " ký tự";
+        }
+        for (String tag : row.getTags()) {
+            if (tag.length() > MAX_TEXT_LENGTH) {
+                return "Tên thẻ không được vượt quá " + MAX_TEXT_LENGTH + " ký tự";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ghi khối đang gom trong một transaction. Dự án và thẻ mới chỉ được đưa vào từ điển
+     * sau khi transaction commit, để khối bị rollback không để lại ID không tồn tại.
+     */
+    private void flush(ImportJob job) {
+        if (job.chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> rows = job.chunk;
+        job.chunk = new ArrayList<>(CHUNK_SIZE);
+        Map<String, Project> createdProjects = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, Long> createdTags = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        TaskImportDTO progress = job.progress;
+        try {
+            List<RowErrorDTO> rowErrors = transactionTemplate.execute(
+                    status -> writeChunk(job, rows, createdProjects, createdTags));
+            job.projects.putAll(createdProjects);
+            job.tags.putAll(createdTags);
+            progress.setProjectsCreated(progress.getProjectsCreated() + createdProjects.size());
+            progress.setTagsCreated(progress.getTagsCreated() + createdTags.size());
+            progress.setRowsImported(progress.getRowsImported() + rows.size() - rowErrors.size());
+            for (RowErrorDTO rowError : rowErrors) {
+                fail(job, rowError.getLine(), rowError.getError());
+            }
+        } catch (RuntimeException e) {
+            LogUtil.warn(log, "Import {}: không ghi được khối {} dòng bắt đầu ở dòng {}: {}",
+                    progress.getId(), rows.size(), rows.get(0).line, e.getMessage());
+            for (PendingRow row : rows) {
+                fail(job, row.line, "Không ghi được dữ liệu: " + e.getMessage());
+            }
+        }
+        LogUtil.debug(log, "Import {}: đã đọc {} dòng, ghi {} dòng",
+                progress.getId(), progress.getRowsRead(), progress.getRowsImported());
+        publish(job);
+    }
+
+    private List<RowErrorDTO> writeChunk(ImportJob job, List<PendingRow> rows,
+                                         Map<String, Project> createdProjects, Map<String, Long> createdTags) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RowErrorDTO> rowErrors = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>(rows.size());
+        List<List<Long>> tasksTagIds = new ArrayList<>(rows.size());
+        List<String> descriptions = new ArrayList<>(rows.size());
+        for (PendingRow pending : rows) {
+            ImportRowDTO row = pending.row;
+            List<Long> tagIds = new ArrayList<>(row.getTags().size());
+            String error = null;
+            for (String tagName : row.getTags()) {
+                Long tagId = resolveTag(job, tagName, createdTags);
+                if (tagId == null) {
+                    error = "Tên thẻ đã được người dùng khác sử dụng: " + tagName;
+                    break;
+                }
+                tagIds.add(tagId);
+            }
+            if (error != null) {
+                rowErrors.add(new RowErrorDTO(pending.line, error));
+                continue;
+            }
+            Project project = row.getProjectName() != null
+                    ? resolveProject(job, row.getProjectName(), createdProjects) : null;
+            tasks.add(toTask(row, project, job.user, now));
+            tasksTagIds.add(tagIds);
+            descriptions.add(row.getDescription());
+        }
+
+        taskJdbcRepository.insertTasks(tasks, CHUNK_SIZE);
+        taskJdbcRepository.insertDescriptions(tasks, descriptions, CHUNK_SIZE);
+        projectStatsService.applyChanges(List.of(), tasks.stream().map(TaskRollupDTO::of).toList());
+
+        List<long[]> taskTags = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Long taskId = tasks.get(i).getId();
+            for (Long tagId : tasksTagIds.get(i)) {
+                taskTags.add(new long[]{taskId, tagId});
+            }
+        }
+        taskJdbcRepository.insertTaskTags(taskTags, CHUNK_SIZE);
+        return rowErrors;
+    }
+
+    private Project resolveProject(ImportJob job, String name, Map<String, Project> createdProjects) {
+        Project project = job.projects.get(name);
+        if (project == null) {
+            project = createdProjects.get(name);
+        }
+        if (project == null) {
+            project = new Project();
+            project.setName(name);
+            project.setUser(job.user);
+            project = projectRepository.save(project);
+            createdProjects.put(name, project);
+        }
+        return project;
+    }
+
+    // Trả về ID thẻ của người dùng, tạo mới nếu chưa có; null nếu tên đã thuộc về người dùng khác
+    private Long resolveTag(ImportJob job, String name, Map<String, Long> createdTags) {
+        Long tagId = job.tags.get(name);
+        if (tagId == null) {
+            tagId = createdTags.get(name);
+        }
+        if (tagId != null) {
+            return tagId;
+        }
+        if (job.unavailableTags.contains(name)) {
+            return null;
+        }
+        if (tagRepository.existsByName(name)) {
+            job.unavailableTags.add(name);
+            return null;
+        }
+        Tag tag = new Tag();
+        tag.setName(name);
+        tag.setUser(job.user);
+        tagId = tagRepository.save(tag).getId();
+        createdTags.put(name, tagId);
+        return tagId;
+    }
+
+    // Giá trị mặc định giống TaskServiceImpl.createTask và Task.onCreate
+    private Task toTask(ImportRowDTO row, Project project, User user, LocalDateTime now) {
+        Task task = new Task();
+        task.setTitle(row.getTitle());
+        task.setStartDate(row.getStartDate() != null ? row.getStartDate() : now);
+        task.setDueDate(row.getDueDate());
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        task.setPriority(row.getPriority() != null && !row.getPriority().isBlank()
+                ? parsePriority(row.getPriority()) : Priority.MEDIUM);
+        task.setStatus(row.getStatus() != null && !row.getStatus().isBlank()
+                ? parseStatus(row.getStatus()) : Status.NOT_STARTED);
+        task.setProgress(row.getProgress() != null ? row.getProgress() : 0);
+        task.setDueStatus(Task.computeDueStatus(task.getDueDate(), task.getStatus(), now));
+        task.setProject(project);
+        task.setUser(user);
+        return task;
+    }
+
+    private void fail(ImportJob job, long line, String error) {
+        TaskImportDTO progress = job.progress;
+        progress.setRowsFailed(progress.getRowsFailed() + 1);
+        if (progress.getErrors().size() < MAX_REPORTED_ERRORS) {
+            progress.getErrors().add(new RowErrorDTO(line, error));
+        }
+    }
+
+    // Tiến độ chỉ được sửa trên luồng import; luồng khác đọc bản sao đã đưa vào cache
+    private void publish(ImportJob job) {
+        imports.put(job.key, snapshot(job.progress));
+    }
+
+    private static TaskImportDTO snapshot(TaskImportDTO progress) {
+        return new TaskImportDTO(progress.getId(), progress.getStatus(), progress.getFormat(),
+                progress.getStartedAt(), progress.getFinishedAt(), progress.getRowsRead(),
+                progress.getRowsImported(), progress.getRowsFailed(), progress.getProjectsCreated(),
+                progress.getTagsCreated(), progress.getMessage(), new ArrayList<>(progress.getErrors()));
+    }
+
+    private Priority parsePriority(String value) {
+        try {
+            return Priority.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Status parseStatus(String value) {
+        try {
+            return Status.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Trạng thái của một lần import đang chạy
+    private static final class ImportJob {
+        private final String key;
+        private final User user;
+        private final Format format;
+        private final TaskImportDTO progress = new TaskImportDTO();
+        // Từ điển tên -> dự án/thẻ của người dùng, không phân biệt hoa thường giống collation của MySQL
+        private final Map<String, Project> projects = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final Map<String, Long> tags = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final Set<String> unavailableTags = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        private List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        private ImportJob(User user, Format format) {
+            String id = UUID.randomUUID().toString();
+            this.key = user.getId() + ":" + id;
+            this.user = user;
+            this.format = format;
+            progress.setId(id);
+            progress.setStatus(STATUS_RUNNING);
+            progress.setFormat(format.getExtension());
+            progress.setStartedAt(LocalDateTime.now());
+        }
+    }
+
+    private static final class PendingRow {
+        private final long line;
+        private final ImportRowDTO row;
+
+        private PendingRow(long line, ImportRowDTO row) {
+            this.line = line;
+            this.row = row;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.net.ken.server.service.impl;
+
+import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.TaskDTO;
+import com.net.ken.server.dto.TaskStatusDTO;
+import com.net.ken.server.repository.TaskJdbcRepository;
+import com.net.ken.server.service.ProjectStatsService;
+import com.net.ken.server.service.TaskProgressCoalescer;
+import com.net.ken.server.util.CurrentUserContext;
+import com.net.ken.server.util.LogUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Giữ tiến độ đang chờ trong bộ nhớ của từng instance: phía đọc chỉ thấy giá trị chưa ghi
+ * nếu request đi vào cùng instance đã nhận PATCH.
+ */
+@Service
+public class TaskProgressCoalescerImpl implements TaskProgressCoalescer {
+
+    private static final Logger log = LogUtil.getLogger(TaskProgressCoalescerImpl.class);
+
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final ProjectStatsService projectStatsService;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final long quietNanos;
+    private final long maxDelayNanos;
+    private final long tickMs;
+    // Luồng quét riêng: bộ lập lịch mặc định chỉ có một luồng, dùng chung với các job nặng (reconcile số liệu dự án,
+    // tính lại due_status, quét thông báo, ghi chỉ mục tìm kiếm) nên có thể giữ giá trị quá thời gian chờ tối đa
+    private final ScheduledExecutorService flushExecutor;
+    private final Counter submitted;
+    private final Counter written;
+
+    // taskId -> tiến độ mới nhất chưa ghi; mỗi lần nhận thay bằng đối tượng mới để bên ghi
+    // chỉ xóa đúng giá trị mình vừa ghi (remove(key, value))
+    private final Map<Long, PendingProgress> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TaskProgressCoalescerImpl(TaskJdbcRepository taskJdbcRepository,
+                                     ProjectStatsService projectStatsService,
+                                     CacheManager cacheManager,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${taskmanager.progress-coalescing.quiet-ms:300}") long quietMs,
+                                     @Value("${taskmanager.progress-coalescing.max-delay-ms:2000}") long maxDelayMs,
+                                     @Value("${taskmanager.progress-coalescing.tick-ms:100}") long tickMs) {
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.projectStatsService = projectStatsService;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMs);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.tickMs = tickMs;
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.submitted = Counter.builder("tasks.progress.submitted")
+                .description("Số lần cập nhật tiến độ đã nhận")
+                .register(meterRegistry);
+        this.written = Counter.builder("tasks.progress.written")
+                .description("Số lần ghi tiến độ xuống cơ sở dữ liệu sau khi gộp")
+                .register(meterRegistry);
+    }
+
+    // Chạy trong ngữ cảnh hệ thống giống các tác vụ của bộ lập lịch (SchedulingConfig)
+    @PostConstruct
+    public void start() {
+        flushExecutor.scheduleWithFixedDelay(CurrentUserContext.systemTask(this::flushDue),
+                tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public TaskStatusDTO submit(Long userId, Long taskId, int progress) {
+        if (progress < 0 || progress > 100) {
+            throw new IllegalArgumentException("Tiến độ phải nằm trong khoảng từ 0 đến 100");
+        }
+
+        // Chỉ lần nhận đầu tiên của một đợt kéo cần đọc dòng (kiểm tra quyền sở hữu, lấy dự án và hạn chót)
+        PendingProgress current = pending.get(taskId);
+        TaskStatusDTO base = current != null && current.userId.equals(userId)
+                ? current.base
+                : taskJdbcRepository.findStatus(taskId, userId, false)
+                        .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + taskId));
+
+        long nowNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        PendingProgress next = pending.compute(taskId, (id, existing) ->
+                existing != null && existing.userId.equals(userId)
+                        ? new PendingProgress(userId, existing.base, progress, existing.firstNanos, nowNanos, now)
+                        : new PendingProgress(userId, base, progress, nowNanos, nowNanos, now));
+        submitted.increment();
+        return next.toStatus();
+    }
+
+    @Override
+    public TaskDTO applyPending(TaskDTO task) {
+        PendingProgress p = task != null && task.getId() != null ? pending.get(task.getId()) : null;
+        if (p == null) {
+            return task;
+        }
+        // Không sửa trực tiếp vì TaskDTO có thể đang nằm trong cache
+        TaskStatusDTO status = p.toStatus();
+        return new TaskDTO(task.getId(), task.getTitle(), task.getDescription(),
+                task.getStartDate(), task.getDueDate(), task.getCreatedAt(), status.getUpdatedAt(),
+                task.getPriority(), status.getStatus(), status.getProgress(), status.getDueStatus(),
+                task.getProjectId(), task.getProjectName(), task.getTags());
+    }
+
+    @Override
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public int flush(Long userId, Collection<Long> taskIds) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        for (Long taskId : taskIds) {
+            PendingProgress p = pending.get(taskId);
+            // Giá trị đang chờ chỉ do chủ task gửi (submit đã kiểm tra quyền sở hữu):
+            // người khác dò ID của task không kích hoạt được việc ghi
+            if (p != null && p.userId.equals(userId)) {
+                write(taskId, p);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void discard(Collection<Long> taskIds) {
+        if (!pending.isEmpty()) {
+            taskIds.forEach(pending::remove);
+        }
+    }
+
+    @Override
+    public int flushDue() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long nowNanos = System.nanoTime();
+        int count = 0;
+        for (Map.Entry<Long, PendingProgress> entry : pending.entrySet()) {
+            PendingProgress p = entry.getValue();
+            if (nowNanos - p.lastNanos >= quietNanos || nowNanos - p.firstNanos >= maxDelayNanos) {
+                try {
+                    write(entry.getKey(), p);
+                    count++;
+                } catch (Exception e) {
+                    // Giữ lại giá trị để lần quét sau ghi lại, không ném ngoại lệ để các task khác vẫn được ghi
+                    log.error("Lỗi khi ghi tiến độ của task {}: ", entry.getKey(), e);
+                }
+            }
+        }
+        return count;
+    }
+
+    // Dừng luồng quét rồi ghi nốt các giá trị đang chờ trước khi tắt ứng dụng
+    @PreDestroy
+    public void flushAll() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Long> taskIds = new ArrayList<>(pending.keySet());
+        for (Long taskId : taskIds) {
+            PendingProgress p = pending.get(taskId);
+            try {
+                if (p != null) {
+                    write(taskId, p);
+                }
+            } catch (Exception e) {
+                log.error("Lỗi khi ghi tiến độ của task {} lúc tắt ứng dụng: ", taskId, e);
+            }
+        }
+    }
+
+    /**
+     * Khóa dòng lấy ảnh trước, một câu UPDATE có điều kiện, cộng delta với ảnh sau suy ra từ ảnh trước.
+     * Chạy trong transaction của bên gọi nếu có (updateTask, updateTaskStatus, cập nhật hàng loạt), vì vậy chỉ xóa
+     * giá trị khỏi pending và xóa cache sau khi transaction đó commit; rollback thì giá trị vẫn chờ để lần quét sau ghi lại.
+     */
+    private void write(Long taskId, PendingProgress p) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    written(taskId, p);
+                }
+            });
+
+            TaskStatusDTO before = taskJdbcRepository.findStatus(taskId, p.userId, true).orElse(null);
+            if (before == null) {
+                // Task đã bị xóa trong lúc chờ
+                return;
+            }
+            if (before.getUpdatedAt() != null && before.getUpdatedAt().isAfter(p.acceptedAt)) {
+                // Dòng đã được sửa bởi một thay đổi nhận sau giá trị này (ví dụ PATCH trạng thái đã flush giá trị này
+                // rồi commit trong lúc lần quét định kỳ chờ khóa dòng): ghi lại sẽ đè lên thay đổi mới hơn
+                return;
+            }
+            // updated_at là lúc nhận giá trị (trùng với phản hồi của submit), nhờ đó điều kiện trên so đúng thứ tự nhận
+            taskJdbcRepository.updateProgress(taskId, p.userId, p.progress, p.acceptedAt);
+            projectStatsService.applyChange(before.toRollup(p.userId),
+                    before.withProgress(p.progress, p.acceptedAt).toRollup(p.userId));
+        });
+    }
+
+    private void written(Long taskId, PendingProgress p) {
+        // Chỉ xóa nếu không có giá trị mới hơn được nhận trong lúc ghi
+        pending.remove(taskId, p);
+        written.increment();
+
+        // Sau khi xóa khỏi pending không còn gì để phủ lên danh sách đã cache (getAllTasks, theo dự án, theo trang):
+        // xóa cả TASK_CACHE như createTask/deleteTask để danh sách đọc lại giá trị vừa ghi
+        Cache taskCache = cacheManager.getCache(CacheConfig.TASK_CACHE);
+        if (taskCache != null) {
+            taskCache.clear();
+        }
+        evict(CacheConfig.STATS_CACHE, "dashboard-user-" + p.userId);
+        LogUtil.debug(log, "Đã ghi tiến độ {}% cho task {}", p.progress, taskId);
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private static final class PendingProgress {
+        private final Long userId;
+        // Dòng đọc được ở lần nhận đầu tiên; dự án và hạn chót không đổi qua PATCH tiến độ
+        private final TaskStatusDTO base;
+        private final int progress;
+        private final long firstNanos;
+        private final long lastNanos;
+        private final LocalDateTime acceptedAt;
+
+        private PendingProgress(Long userId, TaskStatusDTO base, int progress,
+                                long firstNanos, long lastNanos, LocalDateTime acceptedAt) {
+            this.userId = userId;
+            this.base = base;
+            this.progress = progress;
+            this.firstNanos = firstNanos;
+            this.lastNanos = lastNanos;
+            this.acceptedAt = acceptedAt;
+        }
+
+        // Trạng thái sau khi ghi, suy ra giống câu UPDATE của TaskJdbcRepository.updateProgress
+        private TaskStatusDTO toStatus() {
+            return base.withProgress(progress, acceptedAt);
+        }
+    }
+}
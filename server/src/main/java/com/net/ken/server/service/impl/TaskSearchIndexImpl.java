@@ -0,0 +1,364 @@
+package com.net.ken.server.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.net.ken.server.dto.TaskDTO;
+import com.net.ken.server.dto.TaskTagDTO;
+import com.net.ken.server.model.Tag;
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.TaskDescription;
+import com.net.ken.server.repository.TaskDescriptionRepository;
+import com.net.ken.server.repository.TaskRepository;
+import com.net.ken.server.service.TaskSearchIndex;
+import com.net.ken.server.util.LogUtil;
+import com.net.ken.server.util.PerformanceUtil;
+import com.net.ken.server.util.TextFoldingUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Chỉ mục toàn văn trong tiến trình, mỗi người dùng một {@link UserTaskIndex}.
+ * Chỉ mục được nạp khi người dùng tìm kiếm lần đầu: đọc segment trên đĩa nếu còn khớp với cơ sở dữ liệu
+ * (cùng số task và cùng updatedAt lớn nhất), ngược lại dựng lại bằng truy vấn projection.
+ * Thay đổi của task được áp dụng sau commit; segment được ghi lại định kỳ và khi tắt ứng dụng.
+ * Số task giữ trong bộ nhớ có giới hạn: chỉ mục của người dùng lâu không tìm kiếm bị bỏ và nạp lại từ segment khi cần.
+ */
+@Service
+public class TaskSearchIndexImpl implements TaskSearchIndex {
+
+    private static final Logger log = LogUtil.getLogger(TaskSearchIndexImpl.class);
+
+    // Trọng số theo trường: từ trong tiêu đề quan trọng hơn trong mô tả
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int PROJECT_WEIGHT = 1;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int TAG_BATCH_SIZE = 1000;
+
+    private static final int MISSED_CHANGE_STRIPES = 1024;
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final TaskRepository taskRepository;
+    private final TaskDescriptionRepository taskDescriptionRepository;
+    private final Path indexDirectory;
+    // Trọng số là số task của chỉ mục lúc được nạp
+    private final Cache<Long, UserTaskIndex> indexes;
+    // Số thay đổi không áp dụng được vì chỉ mục của người dùng chưa nằm trong bộ nhớ, đếm theo nhóm người dùng.
+    // Lần nạp so sánh giá trị trước và sau khi đọc cơ sở dữ liệu để biết chỉ mục vừa dựng đã cũ hay chưa.
+    private final AtomicLongArray missedChanges = new AtomicLongArray(MISSED_CHANGE_STRIPES);
+
+    @Autowired
+    public TaskSearchIndexImpl(TaskRepository taskRepository,
+                               TaskDescriptionRepository taskDescriptionRepository,
+                               @Value("${taskmanager.search.index-dir:data/search-index}") String indexDirectory,
+                               @Value("${taskmanager.search.max-indexed-tasks:500000}") long maxIndexedTasks,
+                               @Value("${taskmanager.search.idle-expiry-minutes:60}") long idleExpiryMinutes) {
+        this.taskRepository = taskRepository;
+        this.taskDescriptionRepository = taskDescriptionRepository;
+        this.indexDirectory = Paths.get(indexDirectory);
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxIndexedTasks)
+                .weigher((Long userId, UserTaskIndex index) -> Math.max(1, index.size()))
+                .expireAfterAccess(Duration.ofMinutes(idleExpiryMinutes))
+                // Ghi nốt thay đổi chưa lưu để lần nạp sau đọc segment thay vì dựng lại
+                .evictionListener((Long userId, UserTaskIndex index, RemovalCause cause) -> {
+                    if (userId != null && index != null && index.isDirty()) {
+                        writeSegment(userId, index);
+                    }
+                })
+                .build();
+        LogUtil.info(log, "TaskSearchIndexImpl đã được khởi tạo, thư mục segment: {}", this.indexDirectory.toAbsolutePath());
+    }
+
+    @Override
+    public List<Long> search(Long userId, String query, int limit) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TextFoldingUtil.tokenize(query)) {
+            tokens.add(truncate(token));
+        }
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return index(userId).search(tokens, limit);
+    }
+
+    @Override
+    public Set<Long> findMatchingIds(Long userId, String query) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TextFoldingUtil.tokenize(query)) {
+            tokens.add(truncate(token));
+        }
+        if (tokens.isEmpty()) {
+            return Set.of();
+        }
+        return index(userId).matching(tokens);
+    }
+
+    @Override
+    public void indexTask(Task task, String description) {
+        if (task.getUser() == null || task.getId() == null) {
+            return;
+        }
+        Long userId = task.getUser().getId();
+        Long taskId = task.getId();
+
+        // Đọc nội dung ngay trong transaction vì tags và project là lazy
+        List<String> tagNames = new ArrayList<>();
+        for (Tag tag : task.getTags()) {
+            tagNames.add(tag.getName());
+        }
+        String projectName = task.getProject() != null ? task.getProject().getName() : null;
+        Map<String, Integer> terms = buildTerms(task.getTitle(), description, projectName, tagNames);
+
+        // updatedAt do @PreUpdate gán lúc flush nên chỉ đọc sau commit
+        afterCommit(() -> apply(userId, index -> index.put(taskId, terms, task.getUpdatedAt())));
+    }
+
+    @Override
+    public void removeTask(Long userId, Long taskId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> apply(userId, index -> index.remove(taskId)));
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> indexes.asMap().compute(userId, (id, index) -> {
+            deleteSegment(id);
+            missedChanges.incrementAndGet(stripe(id));
+            return null;
+        }));
+    }
+
+    /**
+     * Ghi segment của các chỉ mục có thay đổi
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.search.flush-interval-ms:30000}")
+    public void flushDirtySegments() {
+        indexes.asMap().forEach((userId, index) -> {
+            if (index.isDirty()) {
+                writeSegment(userId, index);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDirtySegments();
+    }
+
+    /**
+     * Thay đổi và bước cài chỉ mục trong {@link #index} cùng chạy trong compute theo key: thay đổi hoặc đi vào
+     * chỉ mục đã cài, hoặc được đếm vào missedChanges để lần nạp đang chạy biết kết quả của nó đã cũ
+     */
+    private void apply(Long userId, Consumer<UserTaskIndex> change) {
+        AtomicBoolean becameDirty = new AtomicBoolean();
+        indexes.asMap().compute(userId, (id, index) -> {
+            if (index == null) {
+                // Chưa nạp vào bộ nhớ: segment trên đĩa đã cũ, lần nạp sau sẽ dựng lại
+                deleteSegment(id);
+                missedChanges.incrementAndGet(stripe(id));
+                return null;
+            }
+            becameDirty.set(!index.isDirty());
+            change.accept(index);
+            return index;
+        });
+        if (becameDirty.get()) {
+            // Segment trên đĩa không còn đúng cho tới lần ghi tiếp theo; xóa để nếu tiến trình dừng đột ngột
+            // thì lần khởi động sau sẽ dựng lại thay vì đọc segment cũ
+            deleteSegment(userId);
+        }
+    }
+
+    /**
+     * Chỉ mục của người dùng, nạp nếu chưa có. Việc đọc segment và cơ sở dữ liệu chạy ngoài compute để không giữ
+     * khóa của map trong lúc truy vấn; kết quả chỉ được cài nếu không có thay đổi nào bị bỏ qua trong lúc nạp.
+     */
+    private UserTaskIndex index(Long userId) {
+        UserTaskIndex index = indexes.getIfPresent(userId);
+        if (index != null) {
+            return index;
+        }
+        for (int attempt = 1; ; attempt++) {
+            long missedBefore = missedChanges.get(stripe(userId));
+            UserTaskIndex loaded = load(userId);
+            UserTaskIndex installed = indexes.asMap().compute(userId, (id, current) ->
+                    current != null ? current : missedChanges.get(stripe(id)) == missedBefore ? loaded : null);
+            if (installed != null) {
+                return installed;
+            }
+            if (attempt == MAX_LOAD_ATTEMPTS) {
+                // Task của người dùng thay đổi liên tục: dùng kết quả cho lần tìm này nhưng không giữ lại
+                LogUtil.warn(log, "Chỉ mục của người dùng {} thay đổi trong lúc nạp, không giữ lại", userId);
+                return loaded;
+            }
+        }
+    }
+
+    // Chỉ mục dựng lại có trạng thái dirty nên được ghi ra segment ở lần flushDirtySegments tiếp theo
+    private UserTaskIndex load(Long userId) {
+        return PerformanceUtil.measureExecutionTime(log, "loadTaskSearchIndex", () -> {
+            long taskCount = taskRepository.countByUserId(userId);
+            LocalDateTime maxUpdatedAt = taskRepository.findMaxUpdatedAtByUserId(userId);
+
+            UserTaskIndex index = readSegment(userId);
+            if (index != null && index.size() == taskCount
+                    && Objects.equals(truncate(index.maxUpdatedAt()), truncate(maxUpdatedAt))) {
+                LogUtil.debug(log, "Đã nạp segment chỉ mục của người dùng {} ({} task)", userId, taskCount);
+                return index;
+            }
+
+            if (index != null) {
+                deleteSegment(userId);
+            }
+            index = rebuild(userId);
+            LogUtil.info(log, "Đã dựng lại chỉ mục tìm kiếm của người dùng {} ({} task)", userId, index.size());
+            return index;
+        });
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), MISSED_CHANGE_STRIPES);
+    }
+
+    private UserTaskIndex rebuild(Long userId) {
+        List<TaskDTO> tasks = taskRepository.findDtoByUserId(userId);
+
+        Map<Long, List<String>> tagNamesByTask = new HashMap<>(tasks.size() * 2);
+        Map<Long, String> descriptionsByTask = new HashMap<>(tasks.size() * 2);
+        List<Long> taskIds = tasks.stream().map(TaskDTO::getId).toList();
+        for (int from = 0; from < taskIds.size(); from += TAG_BATCH_SIZE) {
+            List<Long> batch = taskIds.subList(from, Math.min(from + TAG_BATCH_SIZE, taskIds.size()));
+            for (TaskTagDTO row : taskRepository.findTagRowsByTaskIds(batch)) {
+                tagNamesByTask.computeIfAbsent(row.getTaskId(), id -> new ArrayList<>()).add(row.getName());
+            }
+            // Danh sách projection không có mô tả, đọc (và giải nén) theo cùng lô
+            for (TaskDescription description : taskDescriptionRepository.findAllById(batch)) {
+                descriptionsByTask.put(description.getTaskId(), description.getContent());
+            }
+        }
+
+        UserTaskIndex index = new UserTaskIndex();
+        for (TaskDTO task : tasks) {
+            index.put(task.getId(),
+                    buildTerms(task.getTitle(), descriptionsByTask.get(task.getId()), task.getProjectName(),
+                            tagNamesByTask.getOrDefault(task.getId(), List.of())),
+                    task.getUpdatedAt());
+        }
+        return index;
+    }
+
+    private Map<String, Integer> buildTerms(String title, String description, String projectName, List<String> tagNames) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        addTerms(terms, projectName, PROJECT_WEIGHT);
+        for (String tagName : tagNames) {
+            addTerms(terms, tagName, TAG_WEIGHT);
+        }
+        return terms;
+    }
+
+    private void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : TextFoldingUtil.tokenize(text)) {
+            terms.merge(truncate(token), weight, Integer::sum);
+        }
+    }
+
+    private UserTaskIndex readSegment(Long userId) {
+        Path segment = segmentPath(userId);
+        if (!Files.exists(segment)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            return UserTaskIndex.readFrom(in);
+        } catch (IOException e) {
+            LogUtil.warn(log, "Không đọc được segment {}: {}", segment, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeSegment(Long userId, UserTaskIndex index) {
+        Path segment = segmentPath(userId);
+        Path temp = indexDirectory.resolve(segment.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(indexDirectory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                index.writeTo(out);
+            }
+            Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LogUtil.warn(log, "Không ghi được segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    private void deleteSegment(Long userId) {
+        try {
+            Files.deleteIfExists(segmentPath(userId));
+        } catch (IOException e) {
+            LogUtil.warn(log, "Không xóa được segment của người dùng {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private Path segmentPath(Long userId) {
+        return indexDirectory.resolve("user-" + userId + ".seg");
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String truncate(String token) {
+        return token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token;
+    }
+
+    // MySQL lưu DATETIME(6), so sánh ở mức mili giây để tránh lệch phần nano của LocalDateTime.now()
+    private static LocalDateTime truncate(LocalDateTime value) {
+        return value != null ? value.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+}
@@ -1,24 +1,37 @@
 package com.net.ken.server.service.impl;
 
+import com.net.ken.server.annotation.ReadOnlyQuery;
 import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.CursorPageDTO;
 import com.net.ken.server.dto.TagDTO;
 import com.net.ken.server.dto.TaskDTO;
 import com.net.ken.server.dto.TaskDTO.CreateTaskDTO;
 import com.net.ken.server.dto.TaskDTO.UpdateTaskDTO;
+import com.net.ken.server.dto.TaskRollupDTO;
+import com.net.ken.server.dto.TaskSearchCriteria;
+import com.net.ken.server.dto.TaskStatusDTO;
+import com.net.ken.server.dto.TaskTagDTO;
 import com.net.ken.server.exception.TaskManagerException;
 import com.net.ken.server.model.Notification;
 import com.net.ken.server.model.Project;
 import com.net.ken.server.model.Tag;
 import com.net.ken.server.model.Task;
+import com.net.ken.server.model.TaskDescription;
 import com.net.ken.server.model.Task.Priority;
 import com.net.ken.server.model.Task.Status;
 import com.net.ken.server.model.User;
 import com.net.ken.server.repository.NotificationRepository;
 import com.net.ken.server.repository.ProjectRepository;
 import com.net.ken.server.repository.TagRepository;
+import com.net.ken.server.repository.TaskDescriptionRepository;
+import com.net.ken.server.repository.TaskJdbcRepository;
 import com.net.ken.server.repository.TaskRepository;
+import com.net.ken.server.repository.TaskSearchFilter;
 import com.net.ken.server.repository.UserRepository;
 import com.net.ken.server.service.AuthService;
+import com.net.ken.server.service.ProjectStatsService;
+import com.net.ken.server.service.TaskProgressCoalescer;
+import com.net.ken.server.service.TaskSearchIndex;
 import com.net.ken.server.service.TaskService;
 import com.net.ken.server.util.LogUtil;
 import com.net.ken.server.util.PerformanceUtil;
@@ -28,42 +41,77 @@ import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.cache.annotation.Cacheable;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final TaskDescriptionRepository taskDescriptionRepository;
     private final ProjectRepository projectRepository;
     private final TagRepository tagRepository;
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final AuthService authService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ProjectStatsService projectStatsService;
+    private final TaskProgressCoalescer progressCoalescer;
     private static final Logger log = LogUtil.getLogger(TaskServiceImpl.class);
+    
+    // Số task tối đa trong một truy vấn IN khi nạp tags theo lô
+    private static final int TAG_BATCH_SIZE = 1000;
+    
+    // Kích thước trang tối đa cho tìm kiếm theo cursor
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final Set<String> SEARCH_SORT_FIELDS = Set.of("dueDate", "createdAt");
+
+    private static final int MAX_TEXT_SEARCH_RESULTS = 100;
 
     @Autowired
     public TaskServiceImpl(TaskRepository taskRepository, 
+                         TaskJdbcRepository taskJdbcRepository,
+                         TaskDescriptionRepository taskDescriptionRepository,
                          ProjectRepository projectRepository, 
                          TagRepository tagRepository,
                          NotificationRepository notificationRepository,
                          UserRepository userRepository,
-                         AuthService authService) {
+                         AuthService authService,
+                         TaskSearchIndex taskSearchIndex,
+                         ProjectStatsService projectStatsService,
+                         TaskProgressCoalescer progressCoalescer) {
         this.taskRepository = taskRepository;
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.taskDescriptionRepository = taskDescriptionRepository;
         this.projectRepository = projectRepository;
         this.tagRepository = tagRepository;
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
         this.authService = authService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.projectStatsService = projectStatsService;
+        this.progressCoalescer = progressCoalescer;
         LogUtil.info(log, "TaskServiceImpl đã được khởi tạo");
     }
 
@@ -73,68 +121,45 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'user-' + #root.target.getCurrentUser().getId()")
+    @ReadOnlyQuery
+    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'user-' + " + CacheConfig.CURRENT_USER_ID)
     public List<TaskDTO> getAllTasks() {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang lấy tất cả các task cho người dùng {}", currentUser.getUsername());
         
         return PerformanceUtil.measureExecutionTime(log, "getAllTasks", () -> {
-            List<TaskDTO> tasks = taskRepository.findByUser(currentUser).stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<TaskDTO> tasks = attachTags(taskRepository.findDtoByUser(currentUser));
             LogUtil.debug(log, "Đã tìm thấy {} tasks", tasks.size());
             return tasks;
         });
     }
 
     @Override
-    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'task-' + #id + '-user-' + #root.target.getCurrentUser().getId()")
+    @ReadOnlyQuery
+    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'task-' + #id + '-user-' + " + CacheConfig.CURRENT_USER_ID)
     public TaskDTO getTaskById(Long id) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang tìm task với ID: {}", id);
         
         return PerformanceUtil.measureExecutionTime(log, "getTaskById", () -> {
-            Task task = taskRepository.findById(id)
-                    .orElseThrow(() -> {
-                        LogUtil.warn(log, "Không tìm thấy task với ID: {}", id);
-                        return new EntityNotFoundException("Không tìm thấy công việc với ID: " + id);
-                    });
-            
-            // Kiểm tra quyền truy cập
-            if (task.getUser() != null && !task.getUser().getId().equals(currentUser.getId())) {
-                LogUtil.warn(log, "Người dùng {} không có quyền truy cập task với ID: {}", 
-                        currentUser.getUsername(), id);
-                throw new AccessDeniedException("Không có quyền truy cập công việc này");
-            }
+            Task task = findOwnedTask(id, currentUser);
             
             LogUtil.debug(log, "Đã tìm thấy task: {}", task.getTitle());
-            return convertToDTO(task);
+            return convertToDTO(task, findDescription(id));
         });
     }
 
     @Override
-    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'projectTasks-' + #projectId + '-user-' + #root.target.getCurrentUser().getId()")
+    @ReadOnlyQuery
+    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'projectTasks-' + #projectId + '-user-' + " + CacheConfig.CURRENT_USER_ID)
     public List<TaskDTO> getTasksByProjectId(Long projectId) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang lấy các task theo projectId: {}", projectId);
         
         return PerformanceUtil.measureExecutionTime(log, "getTasksByProjectId", () -> {
-            Project project = projectRepository.findById(projectId)
-                    .orElseThrow(() -> {
-                        LogUtil.warn(log, "Không tìm thấy project với ID: {}", projectId);
-                        return new EntityNotFoundException("Không tìm thấy dự án với ID: " + projectId);
-                    });
-            
-            // Kiểm tra quyền truy cập
-            if (project.getUser() != null && !project.getUser().getId().equals(currentUser.getId())) {
-                LogUtil.warn(log, "Người dùng {} không có quyền truy cập project với ID: {}", 
-                        currentUser.getUsername(), projectId);
-                throw new AccessDeniedException("Không có quyền truy cập dự án này");
-            }
+            checkProjectOwned(projectId, currentUser);
             
-            List<TaskDTO> tasks = taskRepository.findByProjectIdAndUser(projectId, currentUser).stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<TaskDTO> tasks = attachTags(taskRepository.findDtoByProjectIdAndUser(projectId, currentUser));
             
             LogUtil.debug(log, "Đã tìm thấy {} tasks cho projectId: {}", tasks.size(), projectId);
             return tasks;
@@ -142,41 +167,295 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @ReadOnlyQuery
     public List<TaskDTO> getTasksByStatus(String status) {
+        User currentUser = getCurrentUser();
+        Status taskStatus = parseStatus(status);
+        LogUtil.debug(log, "Đang lấy các task trạng thái {} của người dùng {}", taskStatus, currentUser.getUsername());
+        
+        return PerformanceUtil.measureExecutionTime(log, "getTasksByStatus",
+                () -> attachTags(taskRepository.findDtoByUserAndStatus(currentUser, taskStatus)));
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public Page<TaskDTO> getTasksByStatusPaged(String status, Pageable pageable) {
+        User currentUser = getCurrentUser();
+        Status taskStatus = parseStatus(status);
+        
+        return PerformanceUtil.measureExecutionTime(log, "getTasksByStatusPaged", () -> {
+            Page<TaskDTO> taskPage = taskRepository.findDtoByUserAndStatus(currentUser, taskStatus, pageable);
+            attachTags(taskPage.getContent());
+            return taskPage;
+        });
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public List<TaskDTO> getTasksByPriority(String priority) {
+        User currentUser = getCurrentUser();
+        Priority taskPriority = parsePriority(priority);
+        LogUtil.debug(log, "Đang lấy các task ưu tiên {} của người dùng {}", taskPriority, currentUser.getUsername());
+        
+        return PerformanceUtil.measureExecutionTime(log, "getTasksByPriority",
+                () -> attachTags(taskRepository.findDtoByUserAndPriority(currentUser, taskPriority)));
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public Page<TaskDTO> getTasksByPriorityPaged(String priority, Pageable pageable) {
+        User currentUser = getCurrentUser();
+        Priority taskPriority = parsePriority(priority);
+        
+        return PerformanceUtil.measureExecutionTime(log, "getTasksByPriorityPaged", () -> {
+            Page<TaskDTO> taskPage = taskRepository.findDtoByUserAndPriority(currentUser, taskPriority, pageable);
+            attachTags(taskPage.getContent());
+            return taskPage;
+        });
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public List<TaskDTO> getOpenTasksByPriority() {
+        User currentUser = getCurrentUser();
+
+        return PerformanceUtil.measureExecutionTime(log, "getOpenTasksByPriority", () -> {
+            List<TaskDTO> tasks = taskRepository.findDtoByUserAndStatusNotOrderByRank(currentUser, Status.COMPLETED);
+            // Chỉ mục đặt task không có hạn chót (NULL) lên đầu mỗi mức ưu tiên; dời chúng xuống cuối nhóm
+            // bằng một lượt duyệt thay vì sắp xếp lại
+            List<TaskDTO> ordered = new ArrayList<>(tasks.size());
+            List<TaskDTO> undated = new ArrayList<>();
+            String priority = null;
+            for (TaskDTO task : tasks) {
+                if (!Objects.equals(task.getPriority(), priority)) {
+                    ordered.addAll(undated);
+                    undated.clear();
+                    priority = task.getPriority();
+                }
+                (task.getDueDate() == null ? undated : ordered).add(task);
+            }
+            ordered.addAll(undated);
+            return attachTags(ordered);
+        });
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public List<TaskDTO> getTasksDueWithinDays(int days) {
+        User currentUser = getCurrentUser();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime endDate = now.plusDays(days);
+        
+        return PerformanceUtil.measureExecutionTime(log, "getTasksDueWithinDays",
+                () -> attachTags(taskRepository.findDtoByUserAndDueDateBetween(currentUser, now, endDate)));
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public Page<TaskDTO> getTasksDueWithinDaysPaged(int days, Pageable pageable) {
+        User currentUser = getCurrentUser();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime endDate = now.plusDays(days);
+        
+        return PerformanceUtil.measureExecutionTime(log, "getTasksDueWithinDaysPaged", () -> {
+            Page<TaskDTO> taskPage = taskRepository.findDtoByUserAndDueDateBetween(currentUser, now, endDate, pageable);
+            attachTags(taskPage.getContent());
+            return taskPage;
+        });
+    }
+
+    private Status parseStatus(String status) {
         try {
-            Status taskStatus = Status.valueOf(status.toUpperCase());
-            return taskRepository.findByProjectIdAndStatus(null, taskStatus).stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return Status.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Trạng thái không hợp lệ: " + status);
         }
     }
 
-    @Override
-    public List<TaskDTO> getTasksByPriority(String priority) {
+    private Priority parsePriority(String priority) {
         try {
-            Priority taskPriority = Priority.valueOf(priority.toUpperCase());
-            return taskRepository.findByPriority(taskPriority).stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return Priority.valueOf(priority.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Mức ưu tiên không hợp lệ: " + priority);
         }
     }
 
     @Override
-    public List<TaskDTO> getTasksDueWithinDays(int days) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime endDate = now.plusDays(days);
-        return taskRepository.findTasksWithDueDateBetween(now, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @ReadOnlyQuery
+    public CursorPageDTO<TaskDTO> searchTasks(TaskSearchCriteria criteria) {
+        User currentUser = getCurrentUser();
+        LogUtil.debug(log, "Đang tìm kiếm tasks của người dùng {} với điều kiện: {}", 
+                currentUser.getUsername(), criteria);
+        
+        return PerformanceUtil.measureExecutionTime(log, "searchTasks", () -> {
+            TaskSearchFilter filter = buildSearchFilter(criteria, currentUser);
+            int size = filter.getLimit();
+            
+            // Lấy dư một dòng để biết còn trang sau hay không mà không cần COUNT
+            filter.setLimit(size + 1);
+            List<TaskDTO> rows = taskRepository.search(filter);
+            
+            boolean hasMore = rows.size() > size;
+            List<TaskDTO> content = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+            attachTags(content);
+            
+            String nextCursor = null;
+            if (hasMore) {
+                TaskDTO last = content.get(content.size() - 1);
+                LocalDateTime key = "createdAt".equals(filter.getSortBy()) ? last.getCreatedAt() : last.getDueDate();
+                nextCursor = encodeCursor(cursorScope(filter, criteria.getQ()), key, last.getId());
+            }
+            
+            LogUtil.debug(log, "Tìm thấy {} tasks, còn trang sau: {}", content.size(), hasMore);
+            return new CursorPageDTO<>(content, content.size(), hasMore, nextCursor);
+        });
+    }
+
+    @Override
+    @ReadOnlyQuery
+    public List<TaskDTO> searchTasksByText(String query, int limit) {
+        User currentUser = getCurrentUser();
+        LogUtil.debug(log, "Đang tìm kiếm toàn văn '{}' cho người dùng {}", query, currentUser.getUsername());
+        
+        return PerformanceUtil.measureExecutionTime(log, "searchTasksByText", () -> {
+            int size = Math.max(1, Math.min(limit, MAX_TEXT_SEARCH_RESULTS));
+            List<Long> rankedIds = taskSearchIndex.search(currentUser.getId(), query, size);
+            if (rankedIds.isEmpty()) {
+                return new ArrayList<TaskDTO>();
+            }
+            
+            // Truy vấn IN không giữ thứ tự, sắp xếp lại theo thứ hạng của chỉ mục
+            Map<Long, TaskDTO> tasksById = new HashMap<>();
+            for (TaskDTO task : taskRepository.findDtoByIdInAndUser(rankedIds, currentUser)) {
+                tasksById.put(task.getId(), task);
+            }
+            List<TaskDTO> tasks = new ArrayList<>(tasksById.size());
+            for (Long id : rankedIds) {
+                TaskDTO task = tasksById.get(id);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+            return attachTags(tasks);
+        });
+    }
+
+    /**
+     * Kiểm tra tham số tìm kiếm và chuyển sang bộ lọc kiểu entity.
+     * Giá trị enum, cột sắp xếp hoặc cursor không hợp lệ đều trả về IllegalArgumentException (400).
+     */
+    private TaskSearchFilter buildSearchFilter(TaskSearchCriteria criteria, User currentUser) {
+        String sortBy = criteria.getSortBy() != null ? criteria.getSortBy() : "dueDate";
+        if (!SEARCH_SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Không hỗ trợ sắp xếp theo: " + sortBy);
+        }
+        if (criteria.getDueFrom() != null && criteria.getDueTo() != null 
+                && criteria.getDueFrom().isAfter(criteria.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom phải trước dueTo");
+        }
+        
+        TaskSearchFilter.TaskSearchFilterBuilder filter = TaskSearchFilter.builder()
+                .user(currentUser)
+                .statuses(parseEnums(criteria.getStatus(), Status.class, Status::valueOf, "Trạng thái không hợp lệ: "))
+                .priorities(parseEnums(criteria.getPriority(), Priority.class, Priority::valueOf, "Mức ưu tiên không hợp lệ: "))
+                .dueStatuses(parseEnums(criteria.getDueStatus(), Task.DueStatus.class, Task.DueStatus::valueOf, 
+                        "Trạng thái hạn không hợp lệ: "))
+                .projectId(criteria.getProjectId())
+                .tagIds(criteria.getTagIds())
+                .matchAllTags("all".equalsIgnoreCase(criteria.getTagMatch()))
+                .dueFrom(criteria.getDueFrom())
+                .dueTo(criteria.getDueTo())
+                .sortBy(sortBy)
+                .descending("desc".equalsIgnoreCase(criteria.getDirection()))
+                .limit(Math.max(1, Math.min(criteria.getSize(), MAX_SEARCH_PAGE_SIZE)));
+        
+        if (criteria.getQ() != null && !criteria.getQ().isBlank()) {
+            // Từ khóa luôn đi qua chỉ mục toàn văn (tiêu đề, mô tả, thẻ, dự án) dù khớp ít hay nhiều task
+            filter.taskIds(taskSearchIndex.findMatchingIds(currentUser.getId(), criteria.getQ()));
+        }
+        
+        TaskSearchFilter result = filter.build();
+        if (criteria.getCursor() != null && !criteria.getCursor().isBlank()) {
+            decodeCursor(criteria.getCursor(), cursorScope(result, criteria.getQ()), result);
+        }
+        return result;
+    }
+
+    private <E extends Enum<E>> Set<E> parseEnums(Set<String> values, Class<E> type, 
+                                                  Function<String, E> parser, String errorMessage) {
+        Set<E> result = EnumSet.noneOf(type);
+        if (values == null) {
+            return result;
+        }
+        for (String value : values) {
+            try {
+                result.add(parser.apply(value.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(errorMessage + value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Phạm vi của cursor: cột và chiều sắp xếp cùng mã băm của các bộ lọc (kể cả từ khóa).
+     * Cursor chỉ có nghĩa với đúng thứ tự và tập dòng đã tạo ra nó; dùng lại với điều kiện khác sẽ bỏ sót
+     * hoặc lặp dòng. Mã băm tính trên chuỗi chuẩn hóa nên giống nhau giữa các instance.
+     */
+    private static String cursorScope(TaskSearchFilter filter, String q) {
+        String criteria = String.join("|",
+                String.valueOf(filter.getStatuses()),
+                String.valueOf(filter.getPriorities()),
+                String.valueOf(filter.getDueStatuses()),
+                String.valueOf(filter.getProjectId()),
+                String.valueOf(filter.getTagIds() != null ? new TreeSet<>(filter.getTagIds()) : new TreeSet<Long>()),
+                String.valueOf(filter.isMatchAllTags()),
+                String.valueOf(filter.getDueFrom()),
+                String.valueOf(filter.getDueTo()),
+                q != null ? q.trim() : "");
+        return filter.getSortBy() + "." + (filter.isDescending() ? "desc" : "asc")
+                + "." + Integer.toHexString(criteria.hashCode());
+    }
+
+    // Cursor = base64url("<phạm vi>~<giá trị cột sắp xếp ISO hoặc rỗng nếu null>~<id>")
+    private String encodeCursor(String scope, LocalDateTime key, Long id) {
+        String raw = scope + "~" + (key != null ? key.toString() : "") + "~" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, String expectedScope, TaskSearchFilter filter) {
+        String raw;
+        int scopeEnd;
+        int keyEnd;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            scopeEnd = raw.indexOf('~');
+            keyEnd = raw.lastIndexOf('~');
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+        if (scopeEnd < 0 || keyEnd <= scopeEnd) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+        if (!raw.substring(0, scopeEnd).equals(expectedScope)) {
+            throw new IllegalArgumentException("Cursor không khớp với cách sắp xếp hoặc bộ lọc của yêu cầu");
+        }
+        try {
+            String key = raw.substring(scopeEnd + 1, keyEnd);
+            filter.setAfterCursor(true);
+            filter.setAfterKey(key.isEmpty() ? null : LocalDateTime.parse(key));
+            filter.setAfterId(Long.parseLong(raw.substring(keyEnd + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
     public TaskDTO createTask(CreateTaskDTO createTaskDTO) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang tạo task mới: {}", createTaskDTO.getTitle());
@@ -184,23 +463,11 @@ public class TaskServiceImpl implements TaskService {
         return PerformanceUtil.measureExecutionTime(log, "createTask", () -> {
             Project project = null;
             if (createTaskDTO.getProjectId() != null) {
-                project = projectRepository.findById(createTaskDTO.getProjectId())
-                        .orElseThrow(() -> {
-                            LogUtil.warn(log, "Không tìm thấy project với ID: {}", createTaskDTO.getProjectId());
-                            return new EntityNotFoundException("Không tìm thấy dự án với ID: " + createTaskDTO.getProjectId());
-                        });
-                
-                // Kiểm tra quyền truy cập vào project
-                if (project.getUser() != null && !project.getUser().getId().equals(currentUser.getId())) {
-                    LogUtil.warn(log, "Người dùng {} không có quyền tạo task trong project với ID: {}", 
-                            currentUser.getUsername(), createTaskDTO.getProjectId());
-                    throw new AccessDeniedException("Không có quyền thêm task vào dự án này");
-                }
+                project = findOwnedProject(createTaskDTO.getProjectId(), currentUser);
             }
             
             Task task = new Task();
             task.setTitle(createTaskDTO.getTitle());
-            task.setDescription(createTaskDTO.getDescription());
             
             // Thiết lập ngày tháng
             if (createTaskDTO.getStartDate() != null) {
@@ -256,25 +523,14 @@ public class TaskServiceImpl implements TaskService {
             
             // Xử lý tags (nếu có)
             if (createTaskDTO.getTagIds() != null && !createTaskDTO.getTagIds().isEmpty()) {
-                Set<Tag> tags = new HashSet<>();
-                for (Long tagId : createTaskDTO.getTagIds()) {
-                    Tag tag = tagRepository.findById(tagId)
-                            .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thẻ với ID: " + tagId));
-                    
-                    // Kiểm tra quyền truy cập vào tag
-                    if (tag.getUser() != null && !tag.getUser().getId().equals(currentUser.getId())) {
-                        LogUtil.warn(log, "Người dùng {} không có quyền sử dụng tag với ID: {}", 
-                                currentUser.getUsername(), tagId);
-                        throw new AccessDeniedException("Không có quyền sử dụng thẻ này");
-                    }
-                    
-                    tags.add(tag);
-                }
-                task.setTags(tags);
+                task.setTags(findOwnedTags(createTaskDTO.getTagIds(), currentUser));
             }
             
             // Lưu task
             Task savedTask = taskRepository.save(task);
+            String description = saveDescription(savedTask.getId(), createTaskDTO.getDescription());
+            taskSearchIndex.indexTask(savedTask, description);
+            projectStatsService.applyChange(null, TaskRollupDTO.of(savedTask));
             LogUtil.info(log, "Đã tạo task mới với ID: {}", savedTask.getId());
             
             // Tạo thông báo task mới nếu có deadline
@@ -282,28 +538,29 @@ public class TaskServiceImpl implements TaskService {
                 createDueStatusNotification(savedTask);
             }
             
-            return convertToDTO(savedTask);
+            return convertToDTO(savedTask, description);
         });
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.TASK_CACHE}, key = "'task-' + #id + '-user-' + #root.target.getCurrentUser().getId()")
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, key = "'task-' + #id + '-user-' + " + CacheConfig.CURRENT_USER_ID),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
     public TaskDTO updateTask(Long id, UpdateTaskDTO updateTaskDTO) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang cập nhật task với ID: {}", id);
         
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + id));
+        // Tiến độ đang chờ ghi phải xuống trước để thay đổi này không bị nó ghi đè sau đó
+        progressCoalescer.flush(currentUser.getId(), List.of(id));
+        Task task = findOwnedTask(id, currentUser);
+        TaskRollupDTO before = TaskRollupDTO.of(task);
         
         if (updateTaskDTO.getTitle() != null) {
             task.setTitle(updateTaskDTO.getTitle());
         }
         
-        if (updateTaskDTO.getDescription() != null) {
-            task.setDescription(updateTaskDTO.getDescription());
-        }
-        
         // Xử lý startDate
         if (updateTaskDTO.getStartDate() != null) {
             task.setStartDate(updateTaskDTO.getStartDate());
@@ -338,96 +595,153 @@ public class TaskServiceImpl implements TaskService {
         }
         
         if (updateTaskDTO.getProjectId() != null) {
-            Project project = projectRepository.findById(updateTaskDTO.getProjectId())
-                    .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy dự án với ID: " + updateTaskDTO.getProjectId()));
-            task.setProject(project);
+            task.setProject(findOwnedProject(updateTaskDTO.getProjectId(), currentUser));
         }
         
         // Cập nhật tags
         if (updateTaskDTO.getTagIds() != null) {
-            Set<Tag> tags = new HashSet<>();
-            for (Long tagId : updateTaskDTO.getTagIds()) {
-                Tag tag = tagRepository.findById(tagId)
-                        .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thẻ với ID: " + tagId));
-                tags.add(tag);
-            }
-            task.setTags(tags);
+            task.setTags(findOwnedTags(updateTaskDTO.getTagIds(), currentUser));
         }
         
         Task updatedTask = taskRepository.save(task);
+        String description = updateTaskDTO.getDescription() != null
+                ? saveDescription(id, updateTaskDTO.getDescription())
+                : findDescription(id);
+        taskSearchIndex.indexTask(updatedTask, description);
+        projectStatsService.applyChange(before, TaskRollupDTO.afterChange(updatedTask, LocalDateTime.now()));
         
         // Tạo thông báo dựa trên dueStatus
         createDueStatusNotification(updatedTask);
         
-        return convertToDTO(updatedTask);
+        return convertToDTO(updatedTask, description);
     }
 
     @Override
     @Transactional
-    public TaskDTO updateTaskStatus(Long id, String status) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + id));
-        
-        try {
-            task.setStatus(Status.valueOf(status.toUpperCase()));
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Trạng thái không hợp lệ: " + status);
-        }
-        
-        // Tự động cập nhật tiến độ
-        if (Status.COMPLETED.name().equals(status.toUpperCase())) {
-            task.setProgress(100);
-        } else if (Status.NOT_STARTED.name().equals(status.toUpperCase())) {
-            task.setProgress(0);
-        }
-        
-        Task updatedTask = taskRepository.save(task);
-        return convertToDTO(updatedTask);
+    // Trạng thái và tiến độ cũng nằm trong các danh sách đã cache (theo người dùng, theo dự án, theo trang)
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
+    public TaskStatusDTO updateTaskStatus(Long id, String status) {
+        Long userId = getCurrentUser().getId();
+        Status newStatus = parseStatus(status);
+        
+        // Không nạp entity Task và không khóa dòng trước: đọc ảnh trước (đồng thời kiểm tra quyền sở hữu),
+        // một câu UPDATE có điều kiện theo chủ sở hữu và ảnh trước đó, ảnh sau suy ra từ ảnh trước,
+        // rồi cộng delta vào số liệu dự án. Tiêu đề, mô tả, thẻ và dự án không đổi nên không cần cập nhật chỉ mục tìm kiếm.
+        return PerformanceUtil.measureExecutionTime(log, "updateTaskStatus", () -> {
+            TaskStatusDTO before = findStatus(id, userId, false);
+            // Tiến độ đang chờ ghi xuống trước, câu UPDATE trạng thái sau đó mới là giá trị cuối cùng
+            if (progressCoalescer.flush(userId, List.of(id)) > 0) {
+                before = findStatus(id, userId, false);
+            }
+            
+            LocalDateTime now = LocalDateTime.now();
+            if (taskJdbcRepository.updateStatus(id, userId, newStatus, before, now) == 0) {
+                // Dòng bị sửa giữa lúc đọc và lúc ghi: đọc lại có khóa để lần ghi thứ hai chắc chắn khớp
+                before = findStatus(id, userId, true);
+                taskJdbcRepository.updateStatus(id, userId, newStatus, before, now);
+            }
+            TaskStatusDTO after = before.withStatus(newStatus, now);
+            
+            projectStatsService.applyChange(before.toRollup(userId), after.toRollup(userId));
+            LogUtil.debug(log, "Task {}: {}/{}% -> {}/{}%", id,
+                    before.getStatus(), before.getProgress(), after.getStatus(), after.getProgress());
+            return after;
+        });
     }
 
     @Override
-    @Transactional
-    public TaskDTO updateTaskProgress(Long id, Integer progress) {
-        if (progress < 0 || progress > 100) {
-            throw new IllegalArgumentException("Tiến độ phải nằm trong khoảng từ 0 đến 100");
-        }
-        
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + id));
-        
-        task.setProgress(progress);
-        
-        // Tự động cập nhật trạng thái
-        if (progress == 100) {
-            task.setStatus(Status.COMPLETED);
-        } else if (progress == 0) {
-            task.setStatus(Status.NOT_STARTED);
-        } else if (progress > 0) {
-            task.setStatus(Status.IN_PROGRESS);
-        }
-        
-        Task updatedTask = taskRepository.save(task);
-        return convertToDTO(updatedTask);
+    public TaskStatusDTO updateTaskProgress(Long id, Integer progress) {
+        // Chỉ ghi nhận giá trị mới nhất, TaskProgressCoalescer ghi xuống (và xóa cache) khi thanh trượt ngừng kéo
+        return progressCoalescer.submit(getCurrentUser().getId(), id, progress);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = {CacheConfig.TASK_CACHE}, allEntries = true),
+            @CacheEvict(value = CacheConfig.STATS_CACHE, key = CacheConfig.DASHBOARD_STATS_KEY)
+    })
     public void deleteTask(Long id) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang xóa task với ID: {}", id);
         
-        if (!taskRepository.existsById(id)) {
-            throw new EntityNotFoundException("Không tìm thấy công việc với ID: " + id);
+        Task task = findOwnedTask(id, currentUser);
+        TaskRollupDTO before = TaskRollupDTO.of(task);
+        taskRepository.delete(task);
+        progressCoalescer.discard(List.of(id));
+        taskSearchIndex.removeTask(currentUser.getId(), id);
+        projectStatsService.applyChange(before, null);
+    }
+    
+    /**
+     * Task của người dùng theo ID. Task không tồn tại hay thuộc người khác đều là 404
+     * và chỉ tốn một truy vấn theo (id, user_id), không nạp entity của người khác vào bộ nhớ.
+     */
+    private Task findOwnedTask(Long id, User user) {
+        return taskRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> {
+                    LogUtil.warn(log, "Không tìm thấy task {} của người dùng {}", id, user.getUsername());
+                    return new EntityNotFoundException("Không tìm thấy công việc với ID: " + id);
+                });
+    }
+
+    // Trạng thái của task thuộc người dùng, không tồn tại hay thuộc người khác đều là 404
+    private TaskStatusDTO findStatus(Long id, Long userId, boolean forUpdate) {
+        return taskJdbcRepository.findStatus(id, userId, forUpdate)
+                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + id));
+    }
+
+    private Project findOwnedProject(Long projectId, User user) {
+        return projectRepository.findByIdAndUser(projectId, user)
+                .orElseThrow(() -> {
+                    LogUtil.warn(log, "Không tìm thấy project {} của người dùng {}", projectId, user.getUsername());
+                    return new EntityNotFoundException("Không tìm thấy dự án với ID: " + projectId);
+                });
+    }
+
+    // Chỉ kiểm tra quyền, không cần nạp entity Project
+    private void checkProjectOwned(Long projectId, User user) {
+        if (!projectRepository.existsByIdAndUser(projectId, user)) {
+            LogUtil.warn(log, "Không tìm thấy project {} của người dùng {}", projectId, user.getUsername());
+            throw new EntityNotFoundException("Không tìm thấy dự án với ID: " + projectId);
         }
-        taskRepository.deleteById(id);
+    }
+
+    // Nạp các thẻ của người dùng bằng một truy vấn IN; thiếu thẻ nào (không tồn tại hoặc của người khác) là 404
+    private Set<Tag> findOwnedTags(Collection<Long> tagIds, User user) {
+        Set<Tag> tags = new HashSet<>(tagRepository.findByIdInAndUser(tagIds, user));
+        if (tags.size() < new HashSet<>(tagIds).size()) {
+            Set<Long> found = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+            Long missing = tagIds.stream().filter(tagId -> !found.contains(tagId)).findFirst().orElse(null);
+            throw new EntityNotFoundException("Không tìm thấy thẻ với ID: " + missing);
+        }
+        return tags;
     }
     
-    private TaskDTO convertToDTO(Task task) {
+    private String findDescription(Long taskId) {
+        return taskDescriptionRepository.findContentByTaskId(taskId).orElse(null);
+    }
+
+    // Ghi mô tả vào bảng task_descriptions; chuỗi rỗng xóa dòng để task không có mô tả không chiếm chỗ
+    private String saveDescription(Long taskId, String description) {
+        if (description == null || description.isEmpty()) {
+            if (description != null) {
+                taskDescriptionRepository.deleteById(taskId);
+            }
+            return null;
+        }
+        taskDescriptionRepository.save(new TaskDescription(taskId, description));
+        return description;
+    }
+    
+    private TaskDTO convertToDTO(Task task, String description) {
         TaskDTO dto = new TaskDTO();
         dto.setId(task.getId());
         dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
+        dto.setDescription(description);
         dto.setStartDate(task.getStartDate());
         dto.setDueDate(task.getDueDate());
         dto.setCreatedAt(task.getCreatedAt());
@@ -469,6 +783,32 @@ public class TaskServiceImpl implements TaskService {
         return dto;
     }
 
+    /**
+     * Gắn tags cho danh sách TaskDTO lấy từ truy vấn projection.
+     * Tags của cả lô được nạp bằng một truy vấn IN (chia nhỏ theo TAG_BATCH_SIZE),
+     * tránh tích Descartes khi fetch-join tags cùng phân trang.
+     */
+    private List<TaskDTO> attachTags(List<TaskDTO> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        
+        Map<Long, TaskDTO> tasksById = new HashMap<>(tasks.size() * 2);
+        for (TaskDTO task : tasks) {
+            tasksById.put(task.getId(), task);
+        }
+        
+        List<Long> taskIds = new ArrayList<>(tasksById.keySet());
+        for (int from = 0; from < taskIds.size(); from += TAG_BATCH_SIZE) {
+            List<Long> batch = taskIds.subList(from, Math.min(from + TAG_BATCH_SIZE, taskIds.size()));
+            for (TaskTagDTO row : taskRepository.findTagRowsByTaskIds(batch)) {
+                tasksById.get(row.getTaskId()).getTags()
+                        .add(new TagDTO(row.getTagId(), row.getName(), row.getColor()));
+            }
+        }
+        return tasks;
+    }
+
     /**
      * Tạo thông báo dựa trên trạng thái hạn mức của công việc
      */
@@ -497,92 +837,89 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'user-' + #root.target.getCurrentUser().getId() + '-paged-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @ReadOnlyQuery
+    @Cacheable(value = CacheConfig.TASK_CACHE, key = "'user-' + " + CacheConfig.CURRENT_USER_ID + " + '-paged-' + #pageable.pageNumber + '-' + #pageable.pageSize")
     public Page<TaskDTO> getAllTasksPaged(Pageable pageable) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang lấy trang {} của tasks với kích thước trang {} cho người dùng {}", 
                 pageable.getPageNumber(), pageable.getPageSize(), currentUser.getUsername());
         
         return PerformanceUtil.measureExecutionTime(log, "getAllTasksPaged", () -> {
-            Page<Task> taskPage = taskRepository.findByUser(currentUser, pageable);
-            return taskPage.map(this::convertToDTO);
+            Page<TaskDTO> taskPage = taskRepository.findDtoByUser(currentUser, pageable);
+            attachTags(taskPage.getContent());
+            return taskPage;
         });
     }
     
     @Override
+    @ReadOnlyQuery
     @Cacheable(value = CacheConfig.TASK_CACHE, 
-            key = "'projectTasks-' + #projectId + '-user-' + #root.target.getCurrentUser().getId() + '-paged-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+            key = "'projectTasks-' + #projectId + '-user-' + " + CacheConfig.CURRENT_USER_ID + " + '-paged-' + #pageable.pageNumber + '-' + #pageable.pageSize")
     public Page<TaskDTO> getTasksByProjectIdPaged(Long projectId, Pageable pageable) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang lấy trang {} của tasks theo projectId {} với kích thước trang {}", 
                 pageable.getPageNumber(), projectId, pageable.getPageSize());
         
         return PerformanceUtil.measureExecutionTime(log, "getTasksByProjectIdPaged", () -> {
-            // Kiểm tra quyền truy cập dự án
-            Project project = projectRepository.findById(projectId)
-                    .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy dự án với ID: " + projectId));
-            
-            if (project.getUser() != null && !project.getUser().getId().equals(currentUser.getId())) {
-                throw new AccessDeniedException("Không có quyền truy cập dự án này");
-            }
+            checkProjectOwned(projectId, currentUser);
             
-            Page<Task> taskPage = taskRepository.findByProjectIdAndUser(projectId, currentUser, pageable);
-            return taskPage.map(this::convertToDTO);
+            Page<TaskDTO> taskPage = taskRepository.findDtoByProjectIdAndUser(projectId, currentUser, pageable);
+            attachTags(taskPage.getContent());
+            return taskPage;
         });
     }
 
+    @Override
+    @ReadOnlyQuery
+    public CursorPageDTO<TaskDTO> getTasksByProjectIdCursor(Long projectId, String cursor, int size) {
+        User currentUser = getCurrentUser();
+        checkProjectOwned(projectId, currentUser);
+        
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setProjectId(projectId);
+        criteria.setSortBy("dueDate");
+        criteria.setCursor(cursor);
+        criteria.setSize(size);
+        return searchTasks(criteria);
+    }
+
     // Thêm tag vào task
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.TASK_CACHE}, key = "'task-' + #taskId + '-user-' + #root.target.getCurrentUser().getId()")
+    @CacheEvict(value = {CacheConfig.TASK_CACHE}, key = "'task-' + #taskId + '-user-' + " + CacheConfig.CURRENT_USER_ID)
     public TaskDTO addTagToTask(Long taskId, Long tagId) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang thêm tag {} vào task {}", tagId, taskId);
         
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + taskId));
-        
-        // Kiểm tra quyền truy cập
-        if (task.getUser() != null && !task.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền truy cập công việc này");
-        }
-        
-        Tag tag = tagRepository.findById(tagId)
+        Task task = findOwnedTask(taskId, currentUser);
+        Tag tag = tagRepository.findByIdAndUser(tagId, currentUser)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thẻ với ID: " + tagId));
         
-        // Kiểm tra quyền truy cập tag
-        if (tag.getUser() != null && !tag.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền sử dụng thẻ này");
-        }
-        
         task.getTags().add(tag);
         Task updatedTask = taskRepository.save(task);
+        String description = findDescription(taskId);
+        taskSearchIndex.indexTask(updatedTask, description);
         
-        return convertToDTO(updatedTask);
+        return convertToDTO(updatedTask, description);
     }
     
     // Xóa tag khỏi task
     @Override
     @Transactional
-    @CacheEvict(value = {CacheConfig.TASK_CACHE}, key = "'task-' + #taskId + '-user-' + #root.target.getCurrentUser().getId()")
+    @CacheEvict(value = {CacheConfig.TASK_CACHE}, key = "'task-' + #taskId + '-user-' + " + CacheConfig.CURRENT_USER_ID)
     public TaskDTO removeTagFromTask(Long taskId, Long tagId) {
         User currentUser = getCurrentUser();
         LogUtil.debug(log, "Đang xóa tag {} khỏi task {}", tagId, taskId);
         
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy công việc với ID: " + taskId));
-        
-        // Kiểm tra quyền truy cập
-        if (task.getUser() != null && !task.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Không có quyền truy cập công việc này");
+        Task task = findOwnedTask(taskId, currentUser);
+        // Thẻ đã gắn vào task của người dùng thì cũng thuộc người dùng, không cần nạp riêng
+        if (!task.getTags().removeIf(tag -> tag.getId().equals(tagId))) {
+            throw new EntityNotFoundException("Không tìm thấy thẻ với ID: " + tagId);
         }
-        
-        Tag tag = tagRepository.findById(tagId)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thẻ với ID: " + tagId));
-        
-        task.getTags().remove(tag);
         Task updatedTask = taskRepository.save(task);
+        String description = findDescription(taskId);
+        taskSearchIndex.indexTask(updatedTask, description);
         
-        return convertToDTO(updatedTask);
+        return convertToDTO(updatedTask, description);
     }
 }
\ No newline at end of file
@@ -0,0 +1,262 @@
+package com.net.ken.server.service.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục đảo ngược (inverted index) trong bộ nhớ cho các task của một người dùng.
+ * Gồm chỉ mục thuận (task -> tần suất từ) để cập nhật/xóa từng task
+ * và danh sách posting (từ -> task -> tần suất) sắp theo từ để tìm theo tiền tố.
+ * Xếp hạng theo BM25; mọi từ trong câu truy vấn đều phải khớp (AND).
+ */
+final class UserTaskIndex {
+
+    private static final int SEGMENT_MAGIC = 0x544B4958;
+    private static final int SEGMENT_VERSION = 1;
+
+    // Tham số BM25 chuẩn
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Từ chỉ khớp theo tiền tố được tính điểm thấp hơn từ khớp chính xác
+    private static final double PREFIX_WEIGHT = 0.6;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    private volatile boolean dirty;
+
+    /**
+     * Thêm mới hoặc thay thế task trong chỉ mục
+     * @param taskId ID task
+     * @param termFrequencies Tần suất (đã nhân trọng số trường) của từng từ
+     * @param updatedAt Thời điểm cập nhật của task, dùng để đối chiếu segment với cơ sở dữ liệu
+     */
+    void put(Long taskId, Map<String, Integer> termFrequencies, LocalDateTime updatedAt) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(taskId);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(taskId, entry.getValue());
+                length += entry.getValue();
+            }
+            documents.put(taskId, new Document(termFrequencies, length, updatedAt));
+            totalLength += length;
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            if (removeInternal(taskId)) {
+                dirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeInternal(Long taskId) {
+        Document previous = documents.remove(taskId);
+        if (previous == null) {
+            return false;
+        }
+        for (String term : previous.termFrequencies().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(taskId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length();
+        return true;
+    }
+
+    /**
+     * Tìm các task khớp tất cả các từ trong truy vấn, từ nào cũng được khớp theo tiền tố
+     * @param queryTokens Các từ đã chuẩn hóa
+     * @param limit Số kết quả tối đa
+     * @return ID task theo điểm BM25 giảm dần
+     */
+    List<Long> search(Collection<String> queryTokens, int limit) {
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty() || queryTokens.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / documents.size());
+
+            Map<Long, Double> scores = null;
+            for (String token : new LinkedHashSet<>(queryTokens)) {
+                Map<Long, Double> tokenScores = scoreToken(token, averageLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((taskId, score) -> score + tokenScores.get(taskId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tất cả các task khớp mọi từ trong truy vấn (cùng điều kiện với {@link #search}), không tính điểm
+     * @param queryTokens Các từ đã chuẩn hóa
+     */
+    Set<Long> matching(Collection<String> queryTokens) {
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String token : new LinkedHashSet<>(queryTokens)) {
+                Set<Long> tokenMatches = new HashSet<>();
+                for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(token, true).entrySet()) {
+                    if (!entry.getKey().startsWith(token)) {
+                        break;
+                    }
+                    tokenMatches.addAll(entry.getValue().keySet());
+                }
+                if (result == null) {
+                    result = tokenMatches;
+                } else {
+                    result.retainAll(tokenMatches);
+                }
+                if (result.isEmpty()) {
+                    return Set.of();
+                }
+            }
+            return result != null ? result : Set.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Điểm của một từ truy vấn cho từng task: lấy điểm cao nhất giữa từ khớp chính xác và các từ mở rộng theo tiền tố
+    private Map<Long, Double> scoreToken(String token, double averageLength) {
+        Map<Long, Double> result = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(token, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(token)) {
+                break;
+            }
+            double weight = term.length() == token.length() ? 1.0 : PREFIX_WEIGHT;
+            Map<Long, Integer> posting = entry.getValue();
+            double idf = Math.log(1 + (documents.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+            for (Map.Entry<Long, Integer> hit : posting.entrySet()) {
+                int tf = hit.getValue();
+                int length = documents.get(hit.getKey()).length();
+                double score = weight * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                result.merge(hit.getKey(), score, Math::max);
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    LocalDateTime maxUpdatedAt() {
+        lock.readLock().lock();
+        try {
+            LocalDateTime max = null;
+            for (Document document : documents.values()) {
+                if (document.updatedAt() != null && (max == null || document.updatedAt().isAfter(max))) {
+                    max = document.updatedAt();
+                }
+            }
+            return max;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Ghi chỉ mục thuận ra segment; danh sách posting được dựng lại khi đọc
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            // Đánh dấu sạch trước khi ghi: thay đổi xen vào trong lúc ghi sẽ làm dirty lại
+            dirty = false;
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            out.writeInt(documents.size());
+            for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+                Document document = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeUTF(document.updatedAt() != null ? document.updatedAt().toString() : "");
+                out.writeInt(document.termFrequencies().size());
+                for (Map.Entry<String, Integer> term : document.termFrequencies().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeInt(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static UserTaskIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+            throw new IOException("Segment không đúng định dạng");
+        }
+        UserTaskIndex index = new UserTaskIndex();
+        int documentCount = in.readInt();
+        for (int i = 0; i < documentCount; i++) {
+            long taskId = in.readLong();
+            String updatedAt = in.readUTF();
+            int termCount = in.readInt();
+            Map<String, Integer> termFrequencies = new HashMap<>(termCount * 2);
+            for (int j = 0; j < termCount; j++) {
+                termFrequencies.put(in.readUTF(), in.readInt());
+            }
+            index.put(taskId, termFrequencies, updatedAt.isEmpty() ? null : LocalDateTime.parse(updatedAt));
+        }
+        index.dirty = false;
+        return index;
+    }
+
+    private record Document(Map<String, Integer> termFrequencies, int length, LocalDateTime updatedAt) {
+    }
+}
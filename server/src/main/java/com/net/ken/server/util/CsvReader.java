@@ -0,0 +1,155 @@
+package com.net.ken.server.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Đọc CSV (RFC 4180) theo từng bản ghi từ một Reader, không nạp cả file vào bộ nhớ.
+ * Hỗ trợ trường trong dấu nháy kép chứa dấu phẩy, xuống dòng và nháy kép được nhân đôi.
+ */
+public class CsvReader implements Closeable {
+
+    // Phân tách các phần tử của danh sách trong một trường (cột tags); dấu gạch chéo ngược thoát chính nó và dấu phân tách
+    public static final char LIST_SEPARATOR = ';';
+    private static final char LIST_ESCAPE = '\\';
+
+    // Giới hạn độ dài một bản ghi để file lỗi (thiếu dấu nháy đóng) không làm tràn bộ nhớ
+    private static final int MAX_RECORD_LENGTH = 1_000_000;
+
+    private final Reader reader;
+    private int pending = -2;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Đọc bản ghi tiếp theo
+     * @return Danh sách trường, null nếu đã hết dữ liệu
+     * @throws IOException nếu lỗi đọc hoặc bản ghi vượt quá giới hạn độ dài
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IOException("Bản ghi bắt đầu ở dòng " + recordLineNumber + " vượt quá " + MAX_RECORD_LENGTH + " ký tự");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Thiếu dấu nháy đóng cho bản ghi bắt đầu ở dòng " + recordLineNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                if (c != -1) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Dòng bắt đầu của bản ghi vừa đọc (tính từ 1)
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * Ghép danh sách thành một trường, thoát dấu phân tách và dấu thoát trong từng phần tử.
+     * Kết quả tách lại được bằng {@link #splitList(String)}.
+     */
+    public static String joinList(Collection<String> values) {
+        StringBuilder field = new StringBuilder();
+        for (String value : values) {
+            if (!field.isEmpty()) {
+                field.append(LIST_SEPARATOR);
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == LIST_SEPARATOR || c == LIST_ESCAPE) {
+                    field.append(LIST_ESCAPE);
+                }
+                field.append(c);
+            }
+        }
+        return field.toString();
+    }
+
+    /**
+     * Tách trường do {@link #joinList(Collection)} tạo ra; dấu phân tách đứng sau dấu thoát thuộc về phần tử
+     */
+    public static List<String> splitList(String field) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == LIST_ESCAPE && i + 1 < field.length()) {
+                value.append(field.charAt(++i));
+            } else if (c == LIST_SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,91 @@
+package com.net.ken.server.util;
+
+import com.net.ken.server.exception.TaskManagerException;
+import com.net.ken.server.model.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * Người dùng của request hoặc tác vụ nền đang chạy trên thread hiện tại.
+ * JwtAuthenticationFilter gán một lần sau khi xác thực token và xóa khi request kết thúc, các service đọc lại
+ * không tốn truy vấn nào. Tác vụ theo lịch chạy trong ngữ cảnh hệ thống (SchedulingConfig) và nhận null.
+ */
+public final class CurrentUserContext {
+
+    private static final ThreadLocal<User> USER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> SYSTEM = new ThreadLocal<>();
+
+    private CurrentUserContext() {
+        // Không cho phép khởi tạo
+    }
+
+    public static void set(User user) {
+        USER.set(user);
+    }
+
+    public static void clear() {
+        USER.remove();
+    }
+
+    /**
+     * Người dùng hiện tại, null nếu đang chạy trong ngữ cảnh hệ thống
+     * @throws TaskManagerException.ValidationException nếu thread không có người dùng nào
+     */
+    public static User getUser() {
+        User user = USER.get();
+        if (user != null) {
+            return user;
+        }
+        if (isSystem()) {
+            return null;
+        }
+        // Xác thực không đi qua JwtAuthenticationFilter (ví dụ @WithUserDetails trong test):
+        // principal vẫn là entity User nên đọc trực tiếp, không truy vấn lại
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User principal) {
+            return principal;
+        }
+        throw new TaskManagerException.ValidationException("Không tìm thấy người dùng hiện tại", "USER_NOT_FOUND");
+    }
+
+    // Người dùng đã gán cho thread, null nếu chưa gán; không đọc SecurityContext và không ném lỗi
+    public static User peekUser() {
+        return USER.get();
+    }
+
+    // Dùng trong khóa cache (SpEL): T(com.net.ken.server.util.CurrentUserContext).requireUserId()
+    public static Long requireUserId() {
+        User user = getUser();
+        if (user == null) {
+            throw new TaskManagerException.ValidationException("Không tìm thấy người dùng hiện tại", "USER_NOT_FOUND");
+        }
+        return user.getId();
+    }
+
+    public static boolean isSystem() {
+        return SYSTEM.get() != null;
+    }
+
+    // Chạy action trong ngữ cảnh hệ thống: getUser() trả về null thay vì ném lỗi
+    public static <T> T callAsSystem(Supplier<T> action) {
+        Boolean previous = SYSTEM.get();
+        SYSTEM.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                SYSTEM.remove();
+            }
+        }
+    }
+
+    // Bọc tác vụ nền (TaskDecorator của bộ lập lịch) để nó chạy trong ngữ cảnh hệ thống
+    public static Runnable systemTask(Runnable task) {
+        return () -> callAsSystem(() -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.net.ken.server.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Ghi nhớ những người dùng vừa ghi dữ liệu để các lần đọc ngay sau đó không đi vào replica còn trễ.
+ * Trạng thái "chỉ dùng primary" của thread hiện tại được ReplicaDataSourceRouter đọc khi chọn kết nối.
+ * Danh sách người dùng nằm trong bộ nhớ của từng instance.
+ */
+public class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesContext(long windowMs) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    public boolean hasRecentWrite(String username) {
+        return recentWriters.getIfPresent(username) != null;
+    }
+
+    public static void setPrimaryOnly(boolean primaryOnly) {
+        if (primaryOnly) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        } else {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    public static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.net.ken.server.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Giữ các pool kết nối của primary và replica, chọn replica cho kết nối chỉ đọc.
+ * Các pool không phải là bean DataSource để datasource-proxy chỉ bọc DataSource ngoài cùng một lần
+ * (mỗi câu lệnh chỉ được đếm một lần); router đóng chúng khi ứng dụng dừng.
+ */
+public class ReplicaDataSourceRouter implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    // Replica chưa qua lần kiểm tra độ trễ đầu tiên được coi là chưa sẵn sàng
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final RoutingDataSource readDataSource;
+
+    public ReplicaDataSourceRouter(HikariDataSource primary, Map<String, HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        this.readDataSource = new RoutingDataSource();
+        this.readDataSource.setTargetDataSources(targets);
+        this.readDataSource.setDefaultTargetDataSource(primary);
+        this.readDataSource.afterPropertiesSet();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    // DataSource cho kết nối chỉ đọc: một replica còn khỏe, hoặc primary nếu không có
+    public DataSource getReadDataSource() {
+        return readDataSource;
+    }
+
+    public Map<String, HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    public void setHealthy(String replica, boolean value) {
+        healthy.put(replica, value);
+    }
+
+    public boolean isHealthy(String replica) {
+        return Boolean.TRUE.equals(healthy.get(replica));
+    }
+
+    /**
+     * Tên nguồn dữ liệu cho lần đọc hiện tại; xoay vòng giữa các replica còn khỏe
+     */
+    public String selectReadTarget() {
+        if (ReadYourWritesContext.isPrimaryOnly()) {
+            return PRIMARY;
+        }
+        List<String> candidates = new ArrayList<>(replicas.size());
+        for (String name : replicas.keySet()) {
+            if (isHealthy(name)) {
+                candidates.add(name);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private class RoutingDataSource extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return selectReadTarget();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.net.ken.server.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Đo độ trễ nhân bản của từng replica bằng SHOW REPLICA STATUS và loại tạm thời replica trễ quá ngưỡng.
+ * Metric db.replica.lag (giây, -1 khi không đo được) và db.replica.healthy theo tag replica.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LogUtil.getLogger(ReplicaLagMonitor.class);
+
+    private final ReplicaDataSourceRouter router;
+    private final long maxLagMs;
+    private final boolean allowUnreplicated;
+    private final Map<String, Long> lagSeconds = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaDataSourceRouter router, long maxLagMs, boolean allowUnreplicated,
+                             MeterRegistry meterRegistry) {
+        this.router = router;
+        this.maxLagMs = maxLagMs;
+        this.allowUnreplicated = allowUnreplicated;
+        for (String name : router.getReplicas().keySet()) {
+            lagSeconds.put(name, -1L);
+            Gauge.builder("db.replica.lag", lagSeconds, lags -> lags.get(name))
+                    .description("Độ trễ nhân bản của replica tính bằng giây, -1 khi không đo được")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.healthy", router, r -> r.isHealthy(name) ? 1 : 0)
+                    .description("1 nếu replica đang nhận truy vấn đọc")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.datasource.lag-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Map.Entry<String, HikariDataSource> replica : router.getReplicas().entrySet()) {
+            String name = replica.getKey();
+            Long lag = measureLag(name, replica.getValue());
+            lagSeconds.put(name, lag != null ? lag : -1L);
+
+            boolean healthy = lag != null && lag * 1000 <= maxLagMs;
+            if (healthy != router.isHealthy(name)) {
+                if (healthy) {
+                    LogUtil.info(log, "Replica {} hoạt động trở lại (trễ {} giây)", name, lag);
+                } else {
+                    LogUtil.warn(log, "Tạm ngừng đọc từ replica {} (trễ: {} giây, ngưỡng {} ms)", name, lag, maxLagMs);
+                }
+            }
+            router.setHealthy(name, healthy);
+        }
+    }
+
+    // Số giây trễ, null nếu không kết nối được, luồng nhân bản đang dừng (Seconds_Behind_Source = NULL)
+    // hoặc máy chủ không nhân bản từ đâu cả
+    private Long measureLag(String name, HikariDataSource dataSource) {
+        try {
+            List<Long> rows = new JdbcTemplate(dataSource).query("SHOW REPLICA STATUS",
+                    (rs, rowNum) -> {
+                        long seconds = rs.getLong("Seconds_Behind_Source");
+                        return rs.wasNull() ? null : seconds;
+                    });
+            if (rows.isEmpty()) {
+                // Nhân bản đã bị RESET REPLICA hoặc cấu hình sai: dữ liệu đứng yên, đọc từ đó sẽ cũ mãi mãi
+                if (allowUnreplicated) {
+                    LogUtil.debug(log, "Replica {} không có trạng thái nhân bản, coi độ trễ là 0 (allow-unreplicated)", name);
+                    return 0L;
+                }
+                LogUtil.warn(log, "Replica {} không có trạng thái nhân bản", name);
+                return null;
+            }
+            return rows.get(0);
+        } catch (Exception e) {
+            LogUtil.warn(log, "Không kiểm tra được replica {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.net.ken.server.util;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Đếm số câu lệnh SQL gửi tới cơ sở dữ liệu trên luồng hiện tại.
+ * Mỗi lần thực thi (kể cả một lô executeBatch) được tính là một câu lệnh.
+ * Các bộ đếm có thể lồng nhau: bộ đếm của request và của test cùng nhận mọi câu lệnh trên luồng.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<List<Counter>> ACTIVE = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Bắt đầu đếm trên luồng hiện tại, cần gọi close() khi kết thúc
+     */
+    public static Counter start() {
+        Counter counter = new Counter();
+        ACTIVE.get().add(counter);
+        return counter;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<Counter> counters = ACTIVE.get();
+        if (counters.isEmpty()) {
+            ACTIVE.remove();
+            return;
+        }
+        for (Counter counter : counters) {
+            counter.count++;
+        }
+    }
+
+    public static final class Counter implements AutoCloseable {
+        private int count;
+
+        private Counter() {
+        }
+
+        // Số câu lệnh đã đếm, vẫn đọc được sau khi close()
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            List<Counter> counters = ACTIVE.get();
+            counters.remove(this);
+            if (counters.isEmpty()) {
+                ACTIVE.remove();
+            }
+        }
+    }
+}
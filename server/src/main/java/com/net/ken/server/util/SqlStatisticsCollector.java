@@ -0,0 +1,287 @@
+package com.net.ken.server.util;
+
+import com.net.ken.server.dto.SqlStatementStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Thống kê độ trễ theo mẫu câu lệnh SQL ở tầng DataSource và ghi slow-query log bất đồng bộ.
+ * Mẫu câu lệnh (fingerprint) là SQL đã thay literal bằng ? và gộp danh sách IN, nên các lần gọi
+ * cùng một truy vấn với tham số khác nhau được cộng dồn vào một dòng.
+ * Số dòng của lệnh ghi là số dòng bị ảnh hưởng. Số dòng SELECT trả về chỉ được đếm khi bật
+ * taskmanager.sql.count-result-rows (DataSource được proxy cả ResultSet, mọi lời gọi JDBC đi qua
+ * {@link #afterMethod}), nên chỉ nên bật khi phát triển; mặc định rows của SELECT là 0.
+ */
+public class SqlStatisticsCollector implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final Logger log = LogUtil.getLogger(SqlStatisticsCollector.class);
+    private static final Logger slowQueryLog = LoggerFactory.getLogger(SqlStatisticsCollector.class.getName() + ".SlowQuery");
+
+    // Giới hạn số mẫu câu lệnh để SQL sinh động (ví dụ IN không dùng tham số) không làm tràn bộ nhớ
+    private static final int MAX_FINGERPRINTS = 2000;
+    private static final String OVERFLOW_FINGERPRINT = "<các câu lệnh khác>";
+    private static final int MAX_FINGERPRINT_LENGTH = 2000;
+    // Số statement đang mở tối đa được theo dõi để đếm dòng; vượt quá thì bỏ statement cũ nhất
+    private static final int MAX_OPEN_STATEMENTS = 10_000;
+
+    // Cận trên (mili giây) của các khoảng histogram độ trễ; khoảng cuối không giới hạn
+    private static final double[] BUCKET_BOUNDS_MS = {
+            0.1, 0.25, 0.5, 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000
+    };
+
+    private static final String START_NANOS = SqlStatisticsCollector.class.getName() + ".startNanos";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, StatementStats> statistics = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprintCache = new ConcurrentHashMap<>();
+    // Khóa yếu (so sánh theo định danh): statement không được đóng qua proxy vẫn bị thu hồi khi GC
+    private final Cache<Statement, StatementStats> openStatements = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_OPEN_STATEMENTS)
+            .build();
+    private final long slowQueryThresholdNanos;
+    private final boolean countResultRows;
+    private final ThreadPoolExecutor slowQueryExecutor;
+    private final LongAdder droppedSlowQueries = new LongAdder();
+    private volatile LocalDateTime since = LocalDateTime.now();
+
+    /**
+     * @param countResultRows true nếu DataSource được proxy cả ResultSet với collector này làm method listener
+     */
+    public SqlStatisticsCollector(long slowQueryThresholdMs, boolean countResultRows) {
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs);
+        this.countResultRows = countResultRows;
+        // Một luồng ghi log với hàng đợi giới hạn: khi log không theo kịp thì bỏ bớt, không chặn luồng truy vấn
+        this.slowQueryExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(1000), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> droppedSlowQueries.increment());
+    }
+
+    // ExecutionInfo chỉ đo theo mili giây, tự đo lại theo nano giây để phân biệt các câu lệnh dưới 1 ms
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        StatementStats stats = statsFor(fingerprint(sql));
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsedNanos = startNanos != null
+                ? System.nanoTime() - startNanos
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        stats.record(elapsedNanos, execInfo.isSuccess());
+
+        Object result = execInfo.getResult();
+        if (result instanceof Integer updated) {
+            stats.rows.add(Math.max(updated, 0));
+        } else if (result instanceof int[] batchUpdated) {
+            for (int updated : batchUpdated) {
+                stats.rows.add(Math.max(updated, 0));
+            }
+        } else if (countResultRows && result instanceof ResultSet && execInfo.getStatement() != null) {
+            openStatements.put(execInfo.getStatement(), stats);
+        }
+
+        if (elapsedNanos >= slowQueryThresholdNanos) {
+            logSlowQuery(stats.fingerprint, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), queryInfoList.size());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        Object target = executionContext.getTarget();
+        String method = executionContext.getMethod().getName();
+        if (target instanceof ResultSet resultSet) {
+            if ("next".equals(method) && Boolean.TRUE.equals(executionContext.getResult())) {
+                Statement statement = statementOf(resultSet);
+                StatementStats stats = statement != null ? openStatements.getIfPresent(statement) : null;
+                if (stats != null) {
+                    stats.rows.increment();
+                }
+            }
+        } else if (target instanceof Statement statement && "close".equals(method)) {
+            openStatements.invalidate(statement);
+        }
+    }
+
+    private static Statement statementOf(ResultSet resultSet) {
+        try {
+            return resultSet.getStatement();
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    // Chỉ ghi mẫu câu lệnh, không ghi giá trị tham số để log không chứa dữ liệu người dùng
+    private void logSlowQuery(String fingerprint, long elapsedMs, int batchSize) {
+        String requestId = MDC.get("requestId");
+        slowQueryExecutor.execute(() -> LogUtil.warn(slowQueryLog, "[{}] Câu lệnh chậm {} ms{}: {}",
+                requestId != null ? requestId : "SYSTEM", elapsedMs,
+                batchSize > 1 ? " (lô " + batchSize + " câu)" : "", fingerprint));
+    }
+
+    private StatementStats statsFor(String fingerprint) {
+        StatementStats stats = statistics.get(fingerprint);
+        if (stats != null) {
+            return stats;
+        }
+        if (statistics.size() >= MAX_FINGERPRINTS) {
+            return statistics.computeIfAbsent(OVERFLOW_FINGERPRINT, StatementStats::new);
+        }
+        return statistics.computeIfAbsent(fingerprint, StatementStats::new);
+    }
+
+    /**
+     * Chuẩn hóa câu lệnh: thay literal chuỗi và số bằng ?, gộp IN (?, ?, ...) thành IN (?), rút gọn khoảng trắng
+     */
+    public String fingerprint(String sql) {
+        String cached = fingerprintCache.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        if (normalized.length() > MAX_FINGERPRINT_LENGTH) {
+            normalized = normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "...";
+        }
+        if (fingerprintCache.size() < MAX_FINGERPRINTS * 4) {
+            fingerprintCache.put(sql, normalized);
+        }
+        return normalized;
+    }
+
+    /**
+     * Ảnh chụp thống kê hiện tại
+     * @param limit Số mẫu câu lệnh tối đa, sắp theo tổng thời gian giảm dần
+     */
+    public List<SqlStatementStatsDTO> snapshot(int limit) {
+        List<SqlStatementStatsDTO> result = new ArrayList<>(statistics.size());
+        for (StatementStats stats : statistics.values()) {
+            result.add(stats.toDTO());
+        }
+        result.sort(Comparator.comparingDouble(SqlStatementStatsDTO::getTotalMs).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public boolean isCountResultRows() {
+        return countResultRows;
+    }
+
+    public long getDroppedSlowQueries() {
+        return droppedSlowQueries.sum();
+    }
+
+    public void reset() {
+        statistics.clear();
+        since = LocalDateTime.now();
+        LogUtil.info(log, "Đã xóa thống kê câu lệnh SQL");
+    }
+
+    public void shutdown() {
+        slowQueryExecutor.shutdown();
+    }
+
+    private static final class StatementStats {
+        private final String fingerprint;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+
+        private StatementStats(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private void record(long elapsedNanos, boolean success) {
+            count.increment();
+            if (!success) {
+                errors.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            double elapsedMs = elapsedNanos / 1_000_000.0;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && elapsedMs > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+        }
+
+        private SqlStatementStatsDTO toDTO() {
+            long n = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            double maxMs = maxNanos.get() / 1_000_000.0;
+            return new SqlStatementStatsDTO(fingerprint, n, errors.sum(), totalMs, n > 0 ? totalMs / n : 0,
+                    percentile(0.50, maxMs), percentile(0.99, maxMs), maxMs, rows.sum());
+        }
+
+        // Cận trên của khoảng chứa phân vị, không vượt quá giá trị lớn nhất đã gặp
+        private double percentile(double quantile, double maxMs) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return i < BUCKET_BOUNDS_MS.length ? Math.min(BUCKET_BOUNDS_MS[i], maxMs) : maxMs;
+                }
+            }
+            return maxMs;
+        }
+    }
+}
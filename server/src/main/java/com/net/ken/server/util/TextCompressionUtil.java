@@ -0,0 +1,80 @@
+package com.net.ken.server.util;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Mã hóa văn bản dài để lưu dạng nhị phân, byte đầu cho biết cách mã hóa:
+ * <ul>
+ *     <li>{@link #RAW}: phần còn lại là UTF-8</li>
+ *     <li>{@link #LZ4}: 4 byte độ dài UTF-8 gốc rồi đến khối LZ4</li>
+ * </ul>
+ * Chỉ nén khi văn bản đủ dài và kết quả thực sự nhỏ hơn.
+ */
+public final class TextCompressionUtil {
+
+    public static final byte RAW = 0;
+    public static final byte LZ4 = 1;
+
+    // Dưới ngưỡng này phần đầu khối LZ4 thường lớn hơn phần tiết kiệm được
+    public static final int MIN_COMPRESS_BYTES = 256;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private TextCompressionUtil() {
+        // Không cho phép khởi tạo
+    }
+
+    /**
+     * @param text Văn bản gốc, có thể null
+     * @return Dữ liệu đã mã hóa, null nếu text null
+     */
+    public static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= MIN_COMPRESS_BYTES) {
+            byte[] compressed = new byte[5 + COMPRESSOR.maxCompressedLength(utf8.length)];
+            int length = COMPRESSOR.compress(utf8, 0, utf8.length, compressed, 5);
+            if (5 + length < 1 + utf8.length) {
+                ByteBuffer.wrap(compressed).put(LZ4).putInt(utf8.length);
+                return Arrays.copyOf(compressed, 5 + length);
+            }
+        }
+        byte[] raw = new byte[1 + utf8.length];
+        raw[0] = RAW;
+        System.arraycopy(utf8, 0, raw, 1, utf8.length);
+        return raw;
+    }
+
+    /**
+     * @param data Dữ liệu do {@link #encode(String)} tạo ra, có thể null
+     * @return Văn bản gốc, null nếu data null
+     */
+    public static String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            return "";
+        }
+        switch (data[0]) {
+            case RAW:
+                return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case LZ4:
+                int length = ByteBuffer.wrap(data, 1, 4).getInt();
+                byte[] utf8 = new byte[length];
+                DECOMPRESSOR.decompress(data, 5, utf8, 0, length);
+                return new String(utf8, StandardCharsets.UTF_8);
+            default:
+                throw new IllegalArgumentException("Không hỗ trợ kiểu mã hóa văn bản: " + data[0]);
+        }
+    }
+}
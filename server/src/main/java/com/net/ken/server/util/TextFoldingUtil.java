@@ -0,0 +1,50 @@
+package com.net.ken.server.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hóa văn bản cho tìm kiếm: bỏ dấu tiếng Việt, chữ thường và tách từ
+ */
+public final class TextFoldingUtil {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextFoldingUtil() {
+        // Không cho phép khởi tạo
+    }
+
+    /**
+     * Bỏ dấu và chuyển về chữ thường, ví dụ "Đánh giá Dự án" -> "danh gia du an".
+     * "đ" không phải ký tự tổ hợp nên phải thay riêng.
+     * @param text Văn bản gốc, có thể null
+     * @return Văn bản đã chuẩn hóa, chuỗi rỗng nếu text null
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return stripped.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Chuẩn hóa rồi tách văn bản thành các từ (chữ cái và chữ số liên tiếp)
+     * @param text Văn bản gốc, có thể null
+     * @return Danh sách từ theo thứ tự xuất hiện, có thể lặp lại
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
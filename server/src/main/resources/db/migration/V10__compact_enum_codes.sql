@@ -0,0 +1,48 @@
+-- Lưu các enum bằng mã số (CodedEnum) thay cho tên: mỗi giá trị 1 byte thay vì VARCHAR.
+-- Mã ưu tiên cũng là thứ hạng (URGENT = 1 ... LOW = 4) nên ORDER BY priority, due_date
+-- đi theo thứ tự của idx_tasks_user_priority_due_date mà không cần filesort.
+--
+-- Cơ sở dữ liệu baseline ở V5 có thể có cột ENUM('LOW', ...) do ddl-auto=update của Hibernate 6 tạo,
+-- không ghi được chuỗi mã vào đó: đổi sang VARCHAR trước, đổi giá trị sang chuỗi mã, rồi mới MODIFY sang TINYINT.
+-- Giá trị không nhận ra được giữ nguyên (ELSE) để lệnh MODIFY cuối báo lỗi "Incorrect integer value"
+-- thay vì lặng lẽ thành NULL; giá trị đã là mã cũng đi qua ELSE nên chạy lại sau khi sửa dữ liệu vẫn đúng.
+-- MySQL dựng lại các chỉ mục chứa cột trong cùng lệnh ALTER.
+SET SESSION sql_mode = CONCAT_WS(',', NULLIF(@@SESSION.sql_mode, ''), 'STRICT_TRANS_TABLES');
+
+ALTER TABLE tasks
+    MODIFY priority VARCHAR(32),
+    MODIFY status VARCHAR(32),
+    MODIFY due_status VARCHAR(32);
+
+UPDATE tasks SET
+    priority = CASE priority
+        WHEN 'URGENT' THEN '1' WHEN 'HIGH' THEN '2' WHEN 'MEDIUM' THEN '3' WHEN 'LOW' THEN '4'
+        ELSE priority END,
+    status = CASE status
+        WHEN 'NOT_STARTED' THEN '1' WHEN 'IN_PROGRESS' THEN '2' WHEN 'COMPLETED' THEN '3' WHEN 'ON_HOLD' THEN '4'
+        ELSE status END,
+    due_status = CASE due_status
+        WHEN 'NORMAL' THEN '1' WHEN 'DUE_SOON' THEN '2' WHEN 'OVERDUE' THEN '3'
+        ELSE due_status END;
+
+ALTER TABLE tasks
+    MODIFY priority TINYINT UNSIGNED,
+    MODIFY status TINYINT UNSIGNED,
+    MODIFY due_status TINYINT UNSIGNED DEFAULT 1;
+
+ALTER TABLE notifications
+    MODIFY type VARCHAR(32),
+    MODIFY priority VARCHAR(32);
+
+UPDATE notifications SET
+    type = CASE type
+        WHEN 'DEADLINE_APPROACHING' THEN '1' WHEN 'DEADLINE_OVERDUE' THEN '2' WHEN 'TASK_ASSIGNED' THEN '3'
+        WHEN 'TASK_COMPLETED' THEN '4' WHEN 'PRIORITY_CHANGED' THEN '5'
+        ELSE type END,
+    priority = CASE priority
+        WHEN 'URGENT' THEN '1' WHEN 'HIGH' THEN '2' WHEN 'NORMAL' THEN '3' WHEN 'LOW' THEN '4'
+        ELSE priority END;
+
+ALTER TABLE notifications
+    MODIFY type TINYINT UNSIGNED,
+    MODIFY priority TINYINT UNSIGNED NOT NULL DEFAULT 3;
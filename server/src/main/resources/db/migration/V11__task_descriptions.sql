@@ -0,0 +1,15 @@
+-- Tách mô tả khỏi bảng tasks: danh sách chỉ đọc các cột ngắn, mô tả chỉ đọc khi xem chi tiết.
+-- content theo định dạng của TextCompressionUtil: byte đầu 0 = UTF-8, 1 = LZ4.
+-- Mô tả cũ (VARCHAR(255)) được chép nguyên dạng UTF-8, chúng được nén khi được sửa lần sau.
+CREATE TABLE task_descriptions (
+    task_id BIGINT NOT NULL PRIMARY KEY,
+    content MEDIUMBLOB NOT NULL,
+    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
+
+INSERT INTO task_descriptions (task_id, content)
+SELECT id, CONCAT(X'00', CONVERT(description USING utf8mb4))
+FROM tasks
+WHERE description IS NOT NULL AND description <> '';
+
+ALTER TABLE tasks DROP COLUMN description;
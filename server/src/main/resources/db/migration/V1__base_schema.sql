@@ -0,0 +1,46 @@
+-- Lược đồ ban đầu của ứng dụng, trước các thay đổi ở V2..V4
+CREATE TABLE projects (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6)
+);
+
+CREATE TABLE tasks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    due_date DATETIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    priority VARCHAR(20),
+    status VARCHAR(20),
+    progress INT,
+    project_id BIGINT,
+    FOREIGN KEY (project_id) REFERENCES projects(id)
+);
+
+CREATE TABLE tags (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    color VARCHAR(255)
+);
+
+CREATE TABLE task_tags (
+    task_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    PRIMARY KEY (task_id, tag_id),
+    FOREIGN KEY (task_id) REFERENCES tasks(id),
+    FOREIGN KEY (tag_id) REFERENCES tags(id)
+);
+
+CREATE TABLE notifications (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    message VARCHAR(255) NOT NULL,
+    type VARCHAR(30),
+    is_read BIT NOT NULL DEFAULT 0,
+    created_at DATETIME(6),
+    task_id BIGINT,
+    FOREIGN KEY (task_id) REFERENCES tasks(id)
+);
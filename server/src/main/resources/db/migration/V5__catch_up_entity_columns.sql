@@ -0,0 +1,18 @@
+-- Các cột trước đây chỉ được tạo bởi ddl-auto=update.
+-- Cơ sở dữ liệu đã có sẵn được baseline ở phiên bản 5 nên không chạy lại file này.
+
+-- Thông tin khóa tài khoản của người dùng
+ALTER TABLE users
+ADD COLUMN last_password_change_date DATETIME(6),
+ADD COLUMN failed_login_attempts INT DEFAULT 0,
+ADD COLUMN account_locked_date DATETIME(6);
+
+-- Thẻ thuộc về người dùng
+ALTER TABLE tags
+ADD COLUMN user_id BIGINT,
+ADD FOREIGN KEY (user_id) REFERENCES users(id);
+
+-- Thông báo thuộc về người dùng
+ALTER TABLE notifications
+ADD COLUMN user_id BIGINT,
+ADD FOREIGN KEY (user_id) REFERENCES users(id);
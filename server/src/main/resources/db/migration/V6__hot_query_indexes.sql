@@ -0,0 +1,34 @@
+-- Chỉ mục ghép cho các truy vấn thường xuyên; cột lọc bằng đứng trước, cột sắp xếp/khoảng đứng sau
+
+-- Hai chỉ mục phân trang keyset của /api/tasks/search có thể đã được ddl-auto tạo trên cơ sở dữ liệu cũ
+SET @sql = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'tasks' AND index_name = 'idx_tasks_user_due_date') = 0,
+              'CREATE INDEX idx_tasks_user_due_date ON tasks (user_id, due_date, id)', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'tasks' AND index_name = 'idx_tasks_user_created_at') = 0,
+              'CREATE INDEX idx_tasks_user_created_at ON tasks (user_id, created_at, id)', 'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Lọc task của người dùng theo trạng thái và hạn chót (danh sách, thống kê, tìm kiếm)
+CREATE INDEX idx_tasks_user_status_due_date ON tasks (user_id, status, due_date);
+
+-- Task theo dự án của người dùng
+CREATE INDEX idx_tasks_project_user ON tasks (project_id, user_id);
+
+-- Job quét hạn chót trên toàn hệ thống (findTasksWithDueDateBetween, findByDueDateBefore)
+CREATE INDEX idx_tasks_due_date ON tasks (due_date);
+
+-- Danh sách thông báo của người dùng, lọc theo đã đọc và sắp xếp theo thời gian tạo
+CREATE INDEX idx_notifications_user_read_created ON notifications (user_id, is_read, created_at);
+
+-- Kiểm tra thông báo trùng (findByUserAndTaskIdAndTypeAndCreatedAtAfter)
+CREATE INDEX idx_notifications_user_task_type_created ON notifications (user_id, task_id, type, created_at);
+
+-- Tra ngược từ thẻ sang task; khóa chính (task_id, tag_id) chỉ phục vụ chiều ngược lại
+CREATE INDEX idx_task_tags_tag_task ON task_tags (tag_id, task_id);
@@ -0,0 +1,3 @@
+-- Danh sách thông báo của người dùng sắp xếp theo thời gian tạo, không lọc theo đã đọc
+-- (findByUserOrderByCreatedAtDesc, findByUserAndCreatedAtAfterOrderByCreatedAtDesc); trước đây phải filesort
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
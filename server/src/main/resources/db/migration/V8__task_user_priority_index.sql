@@ -0,0 +1,3 @@
+-- Danh sách task của người dùng theo mức ưu tiên (findDtoByUserAndPriority), sắp xếp theo hạn chót;
+-- lọc theo trạng thái dùng idx_tasks_user_status_due_date, theo khoảng hạn chót dùng idx_tasks_user_due_date
+CREATE INDEX idx_tasks_user_priority_due_date ON tasks (user_id, priority, due_date);
@@ -0,0 +1,35 @@
+-- Số liệu tổng hợp của từng dự án, cập nhật theo delta trong cùng transaction với thao tác trên task
+-- (ProjectStatsService) và được đối soát định kỳ với bảng tasks
+CREATE TABLE project_stats (
+    project_id BIGINT NOT NULL PRIMARY KEY,
+    task_count INT NOT NULL DEFAULT 0,
+    not_started_count INT NOT NULL DEFAULT 0,
+    in_progress_count INT NOT NULL DEFAULT 0,
+    completed_count INT NOT NULL DEFAULT 0,
+    on_hold_count INT NOT NULL DEFAULT 0,
+    -- Tổng tiến độ, tiến độ trung bình = progress_sum / task_count
+    progress_sum BIGINT NOT NULL DEFAULT 0,
+    -- Task chưa hoàn thành có hạn chót trước ngày hiện tại, tính tại lần ghi hoặc đối soát gần nhất
+    overdue_count INT NOT NULL DEFAULT 0,
+    -- Hạn chót sớm nhất của các task chưa hoàn thành
+    next_due_date DATETIME(6),
+    updated_at DATETIME(6),
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
+);
+
+-- Khởi tạo từ dữ liệu hiện có; overdue_count theo due_status đã lưu, cùng nguồn với các delta sau này
+INSERT INTO project_stats (project_id, task_count, not_started_count, in_progress_count, completed_count,
+                           on_hold_count, progress_sum, overdue_count, next_due_date, updated_at)
+SELECT p.id,
+       COUNT(t.id),
+       COALESCE(SUM(t.status = 'NOT_STARTED'), 0),
+       COALESCE(SUM(t.status = 'IN_PROGRESS'), 0),
+       COALESCE(SUM(t.status = 'COMPLETED'), 0),
+       COALESCE(SUM(t.status = 'ON_HOLD'), 0),
+       COALESCE(SUM(COALESCE(t.progress, 0)), 0),
+       COALESCE(SUM(t.due_status = 'OVERDUE'), 0),
+       MIN(CASE WHEN t.status <> 'COMPLETED' THEN t.due_date END),
+       NOW(6)
+FROM projects p
+LEFT JOIN tasks t ON t.project_id = p.id
+GROUP BY p.id;
@@ -0,0 +1,74 @@
+package com.net.ken.server.architecture;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaField;
+import com.tngtech.archunit.core.domain.JavaFieldAccess;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.methods;
+
+/**
+ * equals/hashCode/toString của entity không được chạm vào quan hệ hoặc collection:
+ * đặt entity vào HashSet hay ghi log sẽ nạp lazy cả đồ thị (và đệ quy giữa Task.tags và Tag.tasks).
+ * Kiểm tra trên bytecode nên bắt được cả các phương thức do Lombok sinh ra (ví dụ @Data).
+ */
+@AnalyzeClasses(packages = "com.net.ken.server.model", importOptions = ImportOption.DoNotIncludeTests.class)
+class EntityObjectMethodsArchTests {
+
+    private static final List<Class<? extends java.lang.annotation.Annotation>> ASSOCIATIONS = List.of(
+            OneToMany.class, ManyToMany.class, ManyToOne.class, OneToOne.class, ElementCollection.class);
+
+    @ArchTest
+    static final ArchRule entityObjectMethodsDoNotWalkAssociations = methods()
+            .that().areDeclaredInClassesThat().areAnnotatedWith(Entity.class)
+            .and().haveNameMatching("equals|hashCode|toString")
+            .should(notTouchAssociations());
+
+    private static ArchCondition<JavaMethod> notTouchAssociations() {
+        return new ArchCondition<>("not access associations or collections") {
+            @Override
+            public void check(JavaMethod method, ConditionEvents events) {
+                for (JavaFieldAccess access : method.getFieldAccesses()) {
+                    access.getTarget().resolveMember()
+                            .filter(EntityObjectMethodsArchTests::isAssociation)
+                            .ifPresent(field -> events.add(SimpleConditionEvent.violated(method,
+                                    method.getFullName() + " đọc quan hệ " + field.getName())));
+                }
+                // Getter của quan hệ (getUser(), getTags()...) trả về entity hoặc collection
+                for (JavaMethodCall call : method.getMethodCallsFromSelf()) {
+                    JavaClass returnType = call.getTarget().getRawReturnType();
+                    if (isEntityOrCollection(returnType)) {
+                        events.add(SimpleConditionEvent.violated(method,
+                                method.getFullName() + " gọi " + call.getTarget().getFullName()));
+                    }
+                }
+            }
+        };
+    }
+
+    private static boolean isAssociation(JavaField field) {
+        return ASSOCIATIONS.stream().anyMatch(field::isAnnotatedWith) || isEntityOrCollection(field.getRawType());
+    }
+
+    private static boolean isEntityOrCollection(JavaClass type) {
+        return type.isAnnotatedWith(Entity.class) || type.isAssignableTo(Collection.class) || type.isAssignableTo(Map.class);
+    }
+}
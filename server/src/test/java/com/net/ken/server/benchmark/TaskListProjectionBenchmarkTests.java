@@ -0,0 +1,285 @@
+package com.net.ken.server.benchmark;
+
+import com.net.ken.server.config.CacheConfig;
+import com.net.ken.server.dto.TagDTO;
+import com.net.ken.server.dto.TaskDTO;
+import com.net.ken.server.model.Project;
+import com.net.ken.server.model.Tag;
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.User;
+import com.net.ken.server.repository.ProjectRepository;
+import com.net.ken.server.repository.TagRepository;
+import com.net.ken.server.repository.TaskRepository;
+import com.net.ken.server.repository.UserRepository;
+import com.net.ken.server.service.TaskService;
+import com.net.ken.server.util.CurrentUserContext;
+import com.net.ken.server.util.LogUtil;
+import com.net.ken.server.util.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * So sánh lượng heap cấp phát và độ trễ giữa hai cách đọc danh sách task của một người dùng có 5.000 task:
+ * nạp entity với @EntityGraph(tags, project) rồi sao chép sang DTO, và TaskService.getAllTasks()
+ * (projection trực tiếp + nạp tags theo lô). Kết quả ghi qua LogUtil.
+ * Cùng cách nạp entity cũng được so sánh giữa transaction đọc-ghi và transaction readOnly (@ReadOnlyQuery):
+ * readOnly bỏ snapshot dirty checking và lần flush khi commit.
+ *
+ * Benchmark cần cơ sở dữ liệu thật (cấu hình trong application.properties) nên chỉ chạy khi bật:
+ * mvn test -Dtest=TaskListProjectionBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskListProjectionBenchmarkTests {
+
+    private static final int TASK_COUNT = 5_000;
+    private static final int PROJECT_COUNT = 20;
+    private static final int TAG_COUNT = 10;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+    // TaskServiceImpl.TAG_BATCH_SIZE
+    private static final int TAG_BATCH_SIZE = 1000;
+
+    private static final Logger log = LogUtil.getLogger(TaskListProjectionBenchmarkTests.class);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readWrite;
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        readWrite = new TransactionTemplate(transactionManager);
+        String suffix = Long.toString(System.nanoTime(), 36);
+
+        user = readWrite.execute(status -> {
+            User u = new User();
+            u.setUsername("bench-" + suffix);
+            u.setEmail("bench-" + suffix + "@example.com");
+            u.setPassword("x");
+            u.getRoles().add("USER");
+            u = userRepository.save(u);
+
+            List<Project> projects = new ArrayList<>();
+            for (int i = 0; i < PROJECT_COUNT; i++) {
+                Project project = new Project();
+                project.setName("Bench project " + i);
+                project.setUser(u);
+                projects.add(projectRepository.save(project));
+            }
+
+            List<Tag> tags = new ArrayList<>();
+            for (int i = 0; i < TAG_COUNT; i++) {
+                Tag tag = new Tag();
+                tag.setName("bench-" + suffix + "-" + i);
+                tag.setColor("#000000");
+                tag.setUser(u);
+                tags.add(tagRepository.save(tag));
+            }
+
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < TASK_COUNT; i++) {
+                Task task = new Task();
+                task.setTitle("Bench task " + i);
+                task.setDueDate(LocalDateTime.now().plusDays(i % 30));
+                task.setPriority(Task.Priority.values()[i % Task.Priority.values().length]);
+                task.setProject(projects.get(i % PROJECT_COUNT));
+                task.setUser(u);
+                task.getTags().add(tags.get(i % TAG_COUNT));
+                task.getTags().add(tags.get((i + 3) % TAG_COUNT));
+                batch.add(task);
+            }
+            taskRepository.saveAll(batch);
+            return u;
+        });
+    }
+
+    @AfterAll
+    void cleanup() {
+        if (user == null) {
+            return;
+        }
+        readWrite.executeWithoutResult(status -> {
+            taskRepository.deleteAll(taskRepository.findByUser(user));
+            projectRepository.deleteAll(projectRepository.findByUser(user));
+            tagRepository.deleteAll(tagRepository.findByUser(user));
+            userRepository.deleteById(user.getId());
+        });
+    }
+
+    @AfterEach
+    void clearCurrentUser() {
+        CurrentUserContext.clear();
+    }
+
+    @Test
+    void compareEntityGraphAndProjection() {
+        CurrentUserContext.set(user);
+
+        List<TaskDTO> tasks;
+        int statements;
+        try (SqlStatementCounter.Counter counter = SqlStatementCounter.start()) {
+            tasks = loadThroughService();
+            statements = counter.getCount();
+        }
+        // Một truy vấn projection và một truy vấn tags cho mỗi lô, không tăng theo số dòng
+        assertTrue(statements <= 1 + (TASK_COUNT + TAG_BATCH_SIZE - 1) / TAG_BATCH_SIZE,
+                "getAllTasks chạy " + statements + " câu lệnh");
+        assertEquals(TASK_COUNT, tasks.size());
+        for (TaskDTO task : tasks) {
+            assertEquals(2, task.getTags().size(), "Task " + task.getId() + " phải có đủ 2 tag");
+            assertNotNull(task.getProjectName(), "Task " + task.getId() + " phải có tên dự án");
+        }
+
+        Result entity = measure("entity graph + convertToDTO",
+                () -> readWrite.execute(status -> loadWithEntityGraph()));
+        Result projection = measure("TaskService.getAllTasks", this::loadThroughService);
+
+        LogUtil.info(log, "{}", entity);
+        LogUtil.info(log, "{} ({} câu lệnh SQL)", projection, statements);
+        assertTrue(projection.bytesPerCall() < entity.bytesPerCall(),
+                "Projection phải cấp phát ít hơn nạp entity: " + projection + " / " + entity);
+    }
+
+    @Test
+    void compareReadWriteAndReadOnlyTransaction() {
+        CurrentUserContext.set(user);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Transaction readOnly: entity nạp vào không giữ snapshot dirty checking và commit không flush
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            List<Task> tasks = taskRepository.findByUser(user);
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            assertEquals(TASK_COUNT, tasks.size());
+            assertTrue(tasks.stream().allMatch(session::isReadOnly), "Task nạp trong transaction readOnly phải là read-only");
+        });
+        readWrite.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            List<Task> tasks = taskRepository.findByUser(user);
+            assertEquals(FlushMode.AUTO, session.getHibernateFlushMode());
+            assertTrue(tasks.stream().noneMatch(session::isReadOnly), "Task nạp trong transaction đọc-ghi phải có snapshot");
+        });
+
+        Result readWriteResult = measure("entity, transaction đọc-ghi",
+                () -> readWrite.execute(status -> loadWithEntityGraph()));
+        Result readOnlyResult = measure("entity, transaction readOnly",
+                () -> readOnly.execute(status -> loadWithEntityGraph()));
+
+        LogUtil.info(log, "{}", readWriteResult);
+        LogUtil.info(log, "{}", readOnlyResult);
+    }
+
+    private List<TaskDTO> loadWithEntityGraph() {
+        List<TaskDTO> result = new ArrayList<>();
+        for (Task task : taskRepository.findByUser(user)) {
+            TaskDTO dto = new TaskDTO();
+            dto.setId(task.getId());
+            dto.setTitle(task.getTitle());
+            dto.setStartDate(task.getStartDate());
+            dto.setDueDate(task.getDueDate());
+            dto.setCreatedAt(task.getCreatedAt());
+            dto.setUpdatedAt(task.getUpdatedAt());
+            dto.setPriority(task.getPriority() != null ? task.getPriority().name() : null);
+            dto.setStatus(task.getStatus() != null ? task.getStatus().name() : null);
+            dto.setDueStatus(task.getDueStatus() != null ? task.getDueStatus().name() : null);
+            dto.setProgress(task.getProgress());
+            if (task.getProject() != null) {
+                dto.setProjectId(task.getProject().getId());
+                dto.setProjectName(task.getProject().getName());
+            }
+            Set<TagDTO> tagDTOs = new HashSet<>();
+            for (Tag tag : task.getTags()) {
+                tagDTOs.add(new TagDTO(tag.getId(), tag.getName(), tag.getColor()));
+            }
+            dto.setTags(tagDTOs);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    // getAllTasks được cache theo người dùng: xóa cache để mỗi lần gọi đều đọc cơ sở dữ liệu
+    private List<TaskDTO> loadThroughService() {
+        cacheManager.getCache(CacheConfig.TASK_CACHE).clear();
+        return taskService.getAllTasks();
+    }
+
+    private Result measure(String name, Supplier<List<TaskDTO>> loader) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            loader.get();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long totalBytes = 0;
+        long totalNanos = 0;
+        int rows = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            rows = loader.get().size();
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        return new Result(name, rows, totalBytes / MEASURED_ROUNDS, totalNanos / MEASURED_ROUNDS);
+    }
+
+    private record Result(String name, int rows, long bytesPerCall, long nanosPerCall) {
+        @Override
+        public String toString() {
+            return String.format("%-30s rows=%d  alloc=%,d KB/lần  latency=%.1f ms/lần",
+                    name, rows, bytesPerCall / 1024, nanosPerCall / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.net.ken.server.queryplan;
+
+import com.net.ken.server.model.Notification;
+import com.net.ken.server.model.Project;
+import com.net.ken.server.model.Tag;
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.User;
+import com.net.ken.server.repository.NotificationRepository;
+import com.net.ken.server.repository.ProjectRepository;
+import com.net.ken.server.repository.TagRepository;
+import com.net.ken.server.repository.TaskJdbcRepository;
+import com.net.ken.server.repository.TaskRepository;
+import com.net.ken.server.repository.UserRepository;
+import com.net.ken.server.util.LogUtil;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Chạy EXPLAIN cho SQL sinh ra bởi mọi phương thức truy vấn của TaskRepository và NotificationRepository
+ * trên dữ liệu mẫu, báo lỗi khi có quét toàn bảng (type=ALL) hoặc filesort vượt quá ngưỡng số dòng.
+ * Phương thức mới được thêm vào hai repository sẽ tự động được kiểm tra.
+ *
+ * Cần MySQL thật (cấu hình trong application.properties) nên chỉ chạy khi bật:
+ * mvn test -Dtest=RepositoryQueryPlanTests -DqueryPlans=true [-DqueryPlans.maxRows=1000]
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "queryPlans", matches = "true")
+class RepositoryQueryPlanTests {
+
+    private static final int TASK_COUNT = 5_000;
+    private static final int NOTIFICATION_COUNT = 2_000;
+    private static final int PROJECT_COUNT = 20;
+    private static final int TAG_COUNT = 10;
+    private static final long MAX_ROWS = Long.getLong("queryPlans.maxRows", 1_000);
+
+    // Truy vấn toàn hệ thống (admin, job) được phép quét toàn bảng; mỗi mục cần ghi rõ lý do
+    private static final Map<String, String> ALLOWED_SCANS = Map.ofEntries(
+            Map.entry("streamAllExportRows", "export toàn hệ thống của admin, đọc mọi dòng"),
+            Map.entry("findByPriority", "lọc toàn hệ thống theo mức ưu tiên, không có nơi gọi theo người dùng"),
+            Map.entry("findByDueDateBefore", "quét task quá hạn của toàn hệ thống"),
+            Map.entry("findByStatusNot", "lọc toàn hệ thống, điều kiện khác (!=) không dùng được chỉ mục"),
+            Map.entry("findByStatusNotAndDueDateIsNotNull", "quét mọi task có hạn chót của toàn hệ thống"),
+            Map.entry("findByReadOrderByCreatedAtDesc", "danh sách thông báo toàn hệ thống của admin"),
+            Map.entry("findByCreatedAtAfterOrderByCreatedAtDesc", "danh sách thông báo toàn hệ thống của admin"),
+            Map.entry("findByNotifyAtBeforeAndReadOrderByPriority", "quét thông báo toàn hệ thống"),
+            Map.entry("findByExpireAtBeforeAndRead", "quét thông báo toàn hệ thống"),
+            Map.entry("findByTypeAndPriorityOrderByCreatedAtDesc", "lọc thông báo toàn hệ thống")
+    );
+
+    private static final SqlCapture CAPTURE = new SqlCapture();
+
+    private static final Logger log = LogUtil.getLogger(RepositoryQueryPlanTests.class);
+
+    @TestConfiguration
+    static class CaptureConfig {
+        // Bọc thêm một lớp quanh DataSource để ghi lại câu SQL và tham số thực tế của từng lời gọi repository
+        @Bean
+        static BeanPostProcessor queryPlanDataSourceProxy() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name("query-plan")
+                                .listener(CAPTURE)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskJdbcRepository taskJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private List<Long> projectIds;
+    private List<Long> taskIds;
+
+    @BeforeAll
+    void seed() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        String suffix = Long.toString(System.nanoTime(), 36);
+        LocalDateTime now = LocalDateTime.now();
+
+        readWrite.executeWithoutResult(status -> {
+            User u = new User();
+            u.setUsername("plan-" + suffix);
+            u.setEmail("plan-" + suffix + "@example.com");
+            u.setPassword("x");
+            u.getRoles().add("USER");
+            user = userRepository.save(u);
+
+            List<Project> projects = new ArrayList<>();
+            for (int i = 0; i < PROJECT_COUNT; i++) {
+                Project project = new Project();
+                project.setName("Plan project " + i);
+                project.setUser(user);
+                projects.add(projectRepository.save(project));
+            }
+            projectIds = projects.stream().map(Project::getId).toList();
+
+            List<Long> tagIds = new ArrayList<>();
+            for (int i = 0; i < TAG_COUNT; i++) {
+                Tag tag = new Tag();
+                tag.setName("plan-" + suffix + "-" + i);
+                tag.setUser(user);
+                tagIds.add(tagRepository.save(tag).getId());
+            }
+
+            // Phân bố gần với dữ liệu thật: hạn chót trải đều 60 ngày quanh hiện tại, phần lớn task chưa xong
+            List<Task> tasks = new ArrayList<>(TASK_COUNT);
+            for (int i = 0; i < TASK_COUNT; i++) {
+                Task task = new Task();
+                task.setTitle("Plan task " + i);
+                task.setStartDate(now.minusDays(30));
+                task.setDueDate(i % 10 == 0 ? null : now.plusDays(i % 60 - 30));
+                task.setCreatedAt(now.minusMinutes(i));
+                task.setUpdatedAt(now.minusMinutes(i));
+                task.setPriority(Task.Priority.values()[i % Task.Priority.values().length]);
+                task.setStatus(Task.Status.values()[i % Task.Status.values().length]);
+                task.setProgress(0);
+                task.setDueStatus(Task.computeDueStatus(task.getDueDate(), task.getStatus(), now));
+                task.setProject(projects.get(i % PROJECT_COUNT));
+                task.setUser(user);
+                tasks.add(task);
+            }
+            taskJdbcRepository.insertTasks(tasks, 500);
+            taskIds = tasks.stream().map(Task::getId).toList();
+
+            List<long[]> taskTags = new ArrayList<>();
+            for (int i = 0; i < TASK_COUNT; i++) {
+                taskTags.add(new long[]{taskIds.get(i), tagIds.get(i % TAG_COUNT)});
+            }
+            taskJdbcRepository.insertTaskTags(taskTags, 500);
+
+            // Phần lớn thông báo đã đọc, giống một tài khoản dùng lâu ngày
+            Notification.NotificationType[] types = Notification.NotificationType.values();
+            jdbcTemplate.batchUpdate("INSERT INTO notifications (message, type, priority, is_read, created_at, "
+                            + "notify_at, expire_at, task_id, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    seedRange(NOTIFICATION_COUNT), 500, (ps, i) -> {
+                        LocalDateTime createdAt = now.minusHours(i);
+                        ps.setString(1, "Plan notification " + i);
+                        ps.setInt(2, types[i % types.length].getCode());
+                        ps.setInt(3, Notification.NotificationPriority.NORMAL.getCode());
+                        ps.setBoolean(4, i % 5 != 0);
+                        ps.setTimestamp(5, Timestamp.valueOf(createdAt));
+                        ps.setTimestamp(6, Timestamp.valueOf(createdAt));
+                        ps.setTimestamp(7, Timestamp.valueOf(createdAt.plusDays(7)));
+                        ps.setLong(8, taskIds.get(i % TASK_COUNT));
+                        ps.setLong(9, user.getId());
+                    });
+        });
+
+        // Cập nhật thống kê để EXPLAIN phản ánh dữ liệu vừa thêm
+        jdbcTemplate.execute("ANALYZE TABLE tasks, task_tags, notifications, projects, tags");
+    }
+
+    @AfterAll
+    void cleanup() {
+        if (user == null) {
+            return;
+        }
+        Long userId = user.getId();
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM task_tags WHERE task_id IN (SELECT id FROM tasks WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM tasks WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM projects WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM tags WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() throws Exception {
+        List<String> violations = new ArrayList<>();
+        violations.addAll(checkRepository(TaskRepository.class, taskRepository));
+        violations.addAll(checkRepository(NotificationRepository.class, notificationRepository));
+
+        if (!violations.isEmpty()) {
+            fail("Kế hoạch truy vấn vượt ngưỡng " + MAX_ROWS + " dòng:\n" + String.join("\n", violations));
+        }
+    }
+
+    private List<String> checkRepository(Class<?> repositoryType, Object repository) throws Exception {
+        List<Method> methods = Arrays.stream(repositoryType.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> method.getName().matches("(find|count|exists|stream).*"))
+                .sorted(Comparator.comparing(Method::toGenericString))
+                .toList();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<String> violations = new ArrayList<>();
+        for (Method method : methods) {
+            Object[] args = argumentsFor(method);
+            List<CapturedQuery> queries = CAPTURE.record(() -> readOnly.executeWithoutResult(status -> {
+                Object result = invoke(method, repository, args);
+                if (result instanceof Stream<?> stream) {
+                    try (stream) {
+                        stream.forEach(row -> { });
+                    }
+                }
+            }));
+
+            String label = repositoryType.getSimpleName() + "." + method.getName()
+                    + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).toList();
+            for (CapturedQuery query : queries) {
+                for (String problem : explain(query)) {
+                    if (ALLOWED_SCANS.containsKey(method.getName())) {
+                        LogUtil.info(log, "Cho phép quét ({}) {}: {}", ALLOWED_SCANS.get(method.getName()), label, problem);
+                    } else {
+                        violations.add(label + ": " + problem + "\n    " + query.sql());
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Lỗi khi gọi " + method.getName(), e.getCause());
+        }
+    }
+
+    // Giá trị tham số lấy từ dữ liệu mẫu, chọn theo kiểu và tên tham số (biên dịch với -parameters)
+    private Object[] argumentsFor(Method method) {
+        Parameter[] parameters = method.getParameters();
+        Object[] args = new Object[parameters.length];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+            String name = parameters[i].getName().toLowerCase();
+            if (type == User.class) {
+                args[i] = user;
+            } else if (type == Long.class || type == long.class) {
+                args[i] = name.contains("project") ? projectIds.get(0)
+                        : name.contains("user") ? user.getId()
+                        : taskIds.get(0);
+            } else if (Collection.class.isAssignableFrom(type)) {
+                args[i] = taskIds.subList(0, 100);
+            } else if (type == LocalDateTime.class) {
+                args[i] = name.contains("end") ? now.plusDays(7) : now;
+            } else if (type == boolean.class || type == Boolean.class) {
+                args[i] = false;
+            } else if (type.isEnum()) {
+                args[i] = type.getEnumConstants()[0];
+            } else if (type == Pageable.class) {
+                args[i] = PageRequest.of(0, 20);
+            } else if (type == String.class) {
+                args[i] = "plan";
+            } else {
+                throw new IllegalStateException("Chưa hỗ trợ tham số kiểu " + type.getName() + " của " + method
+                        + ", cần bổ sung vào argumentsFor");
+            }
+        }
+        return args;
+    }
+
+    /**
+     * EXPLAIN một câu SELECT với đúng tham số đã dùng
+     * @return Các vấn đề tìm thấy, rỗng nếu kế hoạch chấp nhận được
+     */
+    private List<String> explain(CapturedQuery query) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        if (!query.sql().trim().toLowerCase().startsWith("select")) {
+            return problems;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (int i = 0; i < query.parameters().size(); i++) {
+                ps.setObject(i + 1, query.parameters().get(i));
+            }
+            try (ResultSet plan = ps.executeQuery()) {
+                while (plan.next()) {
+                    String table = plan.getString("table");
+                    String type = plan.getString("type");
+                    long rows = plan.getLong("rows");
+                    String extra = plan.getString("Extra");
+                    if ("ALL".equals(type) && rows > MAX_ROWS) {
+                        problems.add("quét toàn bảng " + table + " (~" + rows + " dòng)");
+                    }
+                    if (extra != null && extra.contains("Using filesort") && rows > MAX_ROWS) {
+                        problems.add("filesort trên " + table + " (~" + rows + " dòng)");
+                    }
+                }
+            }
+        }
+        return problems;
+    }
+
+    private static List<Integer> seedRange(int count) {
+        List<Integer> range = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+
+    private record CapturedQuery(String sql, List<Object> parameters) {
+    }
+
+    // Ghi lại các câu lệnh chạy trong khi record() đang hoạt động
+    private static final class SqlCapture implements QueryExecutionListener {
+
+        private volatile List<CapturedQuery> current;
+
+        List<CapturedQuery> record(Runnable action) {
+            List<CapturedQuery> queries = new CopyOnWriteArrayList<>();
+            current = queries;
+            try {
+                action.run();
+            } finally {
+                current = null;
+            }
+            return queries;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<CapturedQuery> queries = current;
+            if (queries == null) {
+                return;
+            }
+            for (QueryInfo queryInfo : queryInfoList) {
+                List<Object> parameters = new ArrayList<>();
+                if (!queryInfo.getParametersList().isEmpty()) {
+                    List<ParameterSetOperation> operations = new ArrayList<>(queryInfo.getParametersList().get(0));
+                    operations.sort(Comparator.comparingInt(op -> (Integer) op.getArgs()[0]));
+                    for (ParameterSetOperation operation : operations) {
+                        boolean setNull = "setNull".equals(operation.getMethod().getName());
+                        parameters.add(setNull ? null : operation.getArgs()[1]);
+                    }
+                }
+                queries.add(new CapturedQuery(queryInfo.getQuery(), parameters));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.net.ken.server.replica;
+
+import com.net.ken.server.util.ReadYourWritesContext;
+import com.net.ken.server.util.ReplicaDataSourceRouter;
+import com.net.ken.server.util.ReplicaLagMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kiểm tra định tuyến đọc/ghi với hai MySQL chạy cục bộ: primary theo application.properties và một instance thứ hai
+ * đóng vai replica. Hai instance không cần nhân bản cho nhau; test phân biệt chúng qua @@port của kết nối.
+ *
+ * Chỉ chạy khi bật:
+ * mvn test -Dtest=ReadReplicaRoutingTests -DreplicaRouting=true -DreplicaUrl=jdbc:mysql://localhost:3307/taskmanager
+ */
+@SpringBootTest(properties = {
+        "taskmanager.datasource.replicas[0].name=standin",
+        "taskmanager.datasource.replicas[0].url=${replicaUrl:jdbc:mysql://localhost:3307/taskmanager?createDatabaseIfNotExist=true}",
+        // Instance đóng vai replica không nhân bản từ primary
+        "taskmanager.datasource.allow-unreplicated=true",
+        // Test tự gọi checkReplicas để không phụ thuộc lịch chạy
+        "taskmanager.datasource.lag-check-interval-ms=3600000"
+})
+@EnabledIfSystemProperty(named = "replicaRouting", matches = "true")
+class ReadReplicaRoutingTests {
+
+    private static final String REPLICA = "standin";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaDataSourceRouter router;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    void checkReplicas() {
+        replicaLagMonitor.checkReplicas();
+        assertTrue(router.isHealthy(REPLICA), "Instance đóng vai replica phải kết nối được");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        int replicaPort = new JdbcTemplate(router.getReplicas().get(REPLICA)).queryForObject("SELECT @@port", Integer.class);
+
+        assertEquals(replicaPort, port(true));
+        assertNotEquals(replicaPort, port(false));
+    }
+
+    @Test
+    void recentWriterReadsFromPrimary() {
+        ReadYourWritesContext.setPrimaryOnly(true);
+        try {
+            assertEquals(port(false), port(true));
+        } finally {
+            ReadYourWritesContext.setPrimaryOnly(false);
+        }
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimary() {
+        router.setHealthy(REPLICA, false);
+        try {
+            assertEquals(port(false), port(true));
+        } finally {
+            router.setHealthy(REPLICA, true);
+        }
+    }
+
+    private int port(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT @@port", Integer.class));
+    }
+}
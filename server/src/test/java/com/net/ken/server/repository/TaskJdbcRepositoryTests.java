@@ -0,0 +1,49 @@
+package com.net.ken.server.repository;
+
+import com.net.ken.server.dto.TaskStatusDTO;
+import com.net.ken.server.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ánh xạ dòng của TaskJdbcRepository trên ResultSet giả, không cần cơ sở dữ liệu
+ */
+class TaskJdbcRepositoryTests {
+
+    // project_id NULL phải thành projectId null, không phải 0 (rollup và phản hồi PATCH dùng giá trị này)
+    @Test
+    @SuppressWarnings("unchecked")
+    void findStatusOfTaskWithoutProject() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(7L);
+        when(rs.getObject("project_id", Long.class)).thenReturn(null);
+        when(rs.getObject("status", Integer.class)).thenReturn(Task.Status.IN_PROGRESS.getCode());
+        when(rs.getObject("due_status", Integer.class)).thenReturn(Task.DueStatus.NORMAL.getCode());
+        when(rs.getInt("progress")).thenReturn(40);
+
+        NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(namedJdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> List.of(invocation.<RowMapper<TaskStatusDTO>>getArgument(2).mapRow(rs, 0)));
+
+        TaskJdbcRepository repository = new TaskJdbcRepository(mock(JdbcTemplate.class), namedJdbcTemplate);
+        TaskStatusDTO status = repository.findStatus(7L, 1L, false).orElseThrow();
+
+        assertEquals(7L, status.getId());
+        assertNull(status.getProjectId());
+        assertEquals(Task.Status.IN_PROGRESS.name(), status.getStatus());
+        assertEquals(40, status.getProgress());
+    }
+}
@@ -0,0 +1,200 @@
+package com.net.ken.server.sqlbudget;
+
+import com.net.ken.server.model.Notification;
+import com.net.ken.server.model.Project;
+import com.net.ken.server.model.Tag;
+import com.net.ken.server.model.Task;
+import com.net.ken.server.model.User;
+import com.net.ken.server.repository.NotificationRepository;
+import com.net.ken.server.repository.ProjectRepository;
+import com.net.ken.server.repository.TagRepository;
+import com.net.ken.server.repository.TaskRepository;
+import com.net.ken.server.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ngân sách số câu lệnh SQL cho các endpoint danh sách: số câu lệnh không được tăng theo số dòng trả về.
+ *
+ * Cần cơ sở dữ liệu thật (cấu hình trong application.properties) nên chỉ chạy khi bật:
+ * mvn test -Dtest=EndpointStatementBudgetTests -DsqlBudget=true
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "sqlBudget", matches = "true")
+@WithUserDetails(EndpointStatementBudgetTests.USERNAME)
+class EndpointStatementBudgetTests {
+
+    static final String USERNAME = "sql-budget-user";
+    static final String OTHER_USERNAME = "sql-budget-other";
+
+    private static final int PROJECT_COUNT = 5;
+    private static final int TASK_COUNT = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readWrite;
+
+    // Task của người dùng khác, USERNAME không được thấy
+    private Long otherTaskId;
+
+    @BeforeAll
+    void seed() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readWrite.executeWithoutResult(status -> {
+            userRepository.findByUsername(USERNAME).ifPresent(this::deleteUserData);
+            userRepository.findByUsername(OTHER_USERNAME).ifPresent(this::deleteUserData);
+
+            User other = new User();
+            other.setUsername(OTHER_USERNAME);
+            other.setEmail(OTHER_USERNAME + "@example.com");
+            other.setPassword("x");
+            other.getRoles().add("USER");
+            other = userRepository.save(other);
+
+            Task otherTask = new Task();
+            otherTask.setTitle("Budget task of another user");
+            otherTask.setUser(other);
+            otherTaskId = taskRepository.save(otherTask).getId();
+
+            User user = new User();
+            user.setUsername(USERNAME);
+            user.setEmail(USERNAME + "@example.com");
+            user.setPassword("x");
+            user.getRoles().add("USER");
+            user = userRepository.save(user);
+
+            List<Project> projects = new ArrayList<>();
+            for (int i = 0; i < PROJECT_COUNT; i++) {
+                Project project = new Project();
+                project.setName("Budget project " + i);
+                project.setUser(user);
+                projects.add(projectRepository.save(project));
+            }
+
+            Tag tag = new Tag();
+            tag.setName(USERNAME + "-tag");
+            tag.setUser(user);
+            tag = tagRepository.save(tag);
+
+            for (int i = 0; i < TASK_COUNT; i++) {
+                Task task = new Task();
+                task.setTitle("Budget task " + i);
+                task.setDueDate(LocalDateTime.now().plusDays(i % 10));
+                task.setProject(projects.get(i % PROJECT_COUNT));
+                task.setUser(user);
+                task.getTags().add(tag);
+                task = taskRepository.save(task);
+
+                Notification notification = new Notification();
+                notification.setMessage("Budget notification " + i);
+                notification.setType(Notification.NotificationType.DEADLINE_APPROACHING);
+                notification.setTask(task);
+                notification.setUser(user);
+                notificationRepository.save(notification);
+            }
+        });
+        // Bỏ kết quả cache cũ để endpoint thực sự truy vấn cơ sở dữ liệu
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterAll
+    void cleanup() {
+        readWrite.executeWithoutResult(status -> {
+            userRepository.findByUsername(USERNAME).ifPresent(this::deleteUserData);
+            userRepository.findByUsername(OTHER_USERNAME).ifPresent(this::deleteUserData);
+        });
+    }
+
+    private void deleteUserData(User user) {
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        taskRepository.deleteAll(taskRepository.findByUser(user));
+        projectRepository.deleteAll(projectRepository.findByUser(user));
+        tagRepository.deleteAll(tagRepository.findByUser(user));
+        userRepository.delete(user);
+    }
+
+    @Test
+    @SqlStatementBudget(4)
+    void listTasks() throws Exception {
+        mockMvc.perform(get("/api/tasks")).andExpect(status().isOk());
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void listProjects() throws Exception {
+        mockMvc.perform(get("/api/projects")).andExpect(status().isOk());
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void projectSummaries() throws Exception {
+        mockMvc.perform(get("/api/projects/summary")).andExpect(status().isOk());
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void listNotifications() throws Exception {
+        mockMvc.perform(get("/api/notifications")).andExpect(status().isOk());
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void listUnreadNotifications() throws Exception {
+        mockMvc.perform(get("/api/notifications/unread")).andExpect(status().isOk());
+    }
+
+    // Task của người khác trả 404 sau một truy vấn theo (id, user_id), không nạp task đó
+    @Test
+    @SqlStatementBudget(1)
+    void foreignTaskIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/tasks/" + otherTaskId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @SqlStatementBudget(6)
+    void dashboardStats() throws Exception {
+        mockMvc.perform(get("/api/stats/dashboard")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,22 @@
+package com.net.ken.server.sqlbudget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Giới hạn số câu lệnh SQL một test được phép chạy (tính từ sau @BeforeEach đến trước @AfterEach).
+ * Mỗi test nên gọi đúng một endpoint để ngân sách là ngân sách của endpoint đó;
+ * dữ liệu mẫu nên được tạo trong @BeforeAll để không bị tính vào.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementBudgetExtension.class)
+public @interface SqlStatementBudget {
+
+    // Số câu lệnh tối đa
+    int value();
+}
@@ -0,0 +1,42 @@
+package com.net.ken.server.sqlbudget;
+
+import com.net.ken.server.util.SqlStatementCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Đếm câu lệnh SQL trong thân test có @SqlStatementBudget và báo lỗi khi vượt ngân sách.
+ * MockMvc chạy request trên cùng luồng với test nên các câu lệnh của endpoint đều được tính.
+ */
+public class SqlStatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SqlStatementBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Counter counter =
+                context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatementCounter.Counter.class);
+        if (counter == null) {
+            return;
+        }
+        counter.close();
+
+        SqlStatementBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), SqlStatementBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), SqlStatementBudget.class))
+                .orElseThrow();
+        if (counter.getCount() > budget.value()) {
+            fail(context.getDisplayName() + " chạy " + counter.getCount()
+                    + " câu lệnh SQL, vượt ngân sách " + budget.value());
+        }
+    }
+}